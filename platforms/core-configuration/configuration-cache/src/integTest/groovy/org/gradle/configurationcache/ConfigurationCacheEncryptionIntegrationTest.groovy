@@ -72,6 +72,25 @@ class ConfigurationCacheEncryptionIntegrationTest extends AbstractConfigurationC
         "AES/CBC/PKCS5PADDING"   | EncryptionKind.ENV_VAR
     }
 
+    def "configuration cache stored with #compression compression can be loaded using #source"() {
+        given:
+        def configurationCache = newConfigurationCacheFixture()
+        runWithEncryption(source, ["help"], ["-Dorg.gradle.configuration-cache.internal.compression=${compression}"])
+
+        when:
+        runWithEncryption(source, ["help"])
+
+        then:
+        configurationCache.assertStateLoaded()
+
+        where:
+        compression | source
+        "none"      | EncryptionKind.NONE
+        "deflate"   | EncryptionKind.NONE
+        "deflate"   | EncryptionKind.KEYSTORE
+        "deflate"   | EncryptionKind.ENV_VAR
+    }
+
     def "configuration cache encryption enablement is #enabled if kind=#kind"() {
         given:
         def configurationCache = newConfigurationCacheFixture()
@@ -114,4 +114,62 @@ class ConfigurationCacheMultiProjectIntegrationTest extends AbstractConfiguratio
         result.assertTasksExecuted(':ok', ':a:ok', ':b:ok')
         configurationCache.assertStateLoaded()
     }
+
+    def "loads sharded work graph of multiple projects sharing a build service"() {
+        given:
+        settingsFile << """
+            include 'a', 'b', 'c'
+        """
+        buildScript """
+            abstract class CounterService implements BuildService<BuildServiceParameters.None> {
+                private int count
+                synchronized int next() { ++count }
+            }
+
+            abstract class Greet extends DefaultTask {
+                @Internal abstract Property<CounterService> getCounter()
+                @Input abstract Property<String> getGreeting()
+
+                @TaskAction
+                void greet() {
+                    println("\${greeting.get()} \${counter.get().next()}")
+                }
+            }
+
+            def counter = gradle.sharedServices.registerIfAbsent("counter", CounterService) {}
+            allprojects {
+                def hello = tasks.register("hello", Greet) {
+                    counter = counter
+                    usesService(counter)
+                    greeting = "hello from \$path"
+                }
+                tasks.register("bye", Greet) {
+                    counter = counter
+                    usesService(counter)
+                    greeting = hello.flatMap { it.greeting }.map { it.replace("hello", "bye") }
+                    dependsOn(hello)
+                }
+            }
+        """
+        def configurationCache = newConfigurationCacheFixture()
+        def sharded = "-Dorg.gradle.configuration-cache.internal.sharded-work-graph=true"
+
+        when:
+        configurationCacheRun sharded, "bye"
+
+        then:
+        configurationCache.assertStateStored()
+        outputContains("bye from :c")
+
+        when:
+        configurationCacheRun sharded, "bye"
+
+        then:
+        configurationCache.assertStateLoaded()
+        result.assertTasksExecuted(":hello", ":bye", ":a:hello", ":a:bye", ":b:hello", ":b:bye", ":c:hello", ":c:bye")
+        outputContains("hello from :a")
+        outputContains("bye from :c")
+        // the service is shared by the tasks of all the projects
+        outputContains(" 8")
+    }
 }
@@ -25,14 +25,20 @@ import org.gradle.configurationcache.extensions.useToRun
 import org.gradle.configurationcache.initialization.ConfigurationCacheStartParameter
 import org.gradle.configurationcache.problems.ConfigurationCacheProblems
 import org.gradle.configurationcache.serialization.Codec
+import org.gradle.configurationcache.serialization.DefaultClassDecoder
 import org.gradle.configurationcache.serialization.DefaultClassEncoder
 import org.gradle.configurationcache.serialization.DefaultReadContext
 import org.gradle.configurationcache.serialization.DefaultWriteContext
 import org.gradle.configurationcache.serialization.LoggingTracer
+import org.gradle.configurationcache.serialization.ReadContext
+import org.gradle.configurationcache.serialization.ShardIdentities
 import org.gradle.configurationcache.serialization.Tracer
+import org.gradle.configurationcache.serialization.WriteContext
 import org.gradle.configurationcache.serialization.beans.BeanStateReaderLookup
 import org.gradle.configurationcache.serialization.beans.BeanStateWriterLookup
 import org.gradle.configurationcache.serialization.codecs.Codecs
+import org.gradle.configurationcache.serialization.codecs.ShardStart
+import org.gradle.configurationcache.serialization.codecs.WorkGraphShards
 import org.gradle.configurationcache.serialization.readCollection
 import org.gradle.configurationcache.serialization.readFile
 import org.gradle.configurationcache.serialization.readList
@@ -44,6 +50,8 @@ import org.gradle.configurationcache.serialization.writeCollection
 import org.gradle.configurationcache.serialization.writeFile
 import org.gradle.internal.build.BuildStateRegistry
 import org.gradle.internal.buildtree.BuildTreeWorkGraph
+import org.gradle.internal.concurrent.ExecutorFactory
+import org.gradle.internal.concurrent.WorkerLimits
 import org.gradle.internal.hash.HashCode
 import org.gradle.internal.operations.BuildOperationProgressEventEmitter
 import org.gradle.internal.serialize.Decoder
@@ -56,6 +64,8 @@ import org.gradle.util.Path
 import java.io.File
 import java.io.InputStream
 import java.io.OutputStream
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
 
 
 @ServiceScope(Scope.Build::class)
@@ -66,7 +76,8 @@ class ConfigurationCacheIO internal constructor(
     private val scopeRegistryListener: ConfigurationCacheClassLoaderScopeRegistryListener,
     private val beanStateReaderLookup: BeanStateReaderLookup,
     private val beanStateWriterLookup: BeanStateWriterLookup,
-    private val eventEmitter: BuildOperationProgressEventEmitter
+    private val eventEmitter: BuildOperationProgressEventEmitter,
+    private val residentStateFiles: ResidentStateFiles
 ) {
     private
     val codecs = codecs()
@@ -74,6 +85,9 @@ class ConfigurationCacheIO internal constructor(
     private
     val encryptionService by lazy { service<EncryptionService>() }
 
+    private
+    val compression by lazy { StateFileCompression.named(startParameter.compression) }
+
     internal
     fun writeCacheEntryDetailsTo(
         buildStateRegistry: BuildStateRegistry,
@@ -191,8 +205,8 @@ class ConfigurationCacheIO internal constructor(
         stateFile: ConfigurationCacheStateFile,
         action: suspend DefaultReadContext.(ConfigurationCacheState) -> T
     ): T {
-        return withReadContextFor(encryptionService.inputStream(stateFile.stateType, stateFile::inputStream)) { codecs ->
-            ConfigurationCacheState(codecs, stateFile, eventEmitter, host).run {
+        return withReadContextFor(stateInputStreamFor(stateFile)) { codecs ->
+            ConfigurationCacheState(codecs, stateFile, StateFileShards(stateFile), eventEmitter, host).run {
                 action(this)
             }
         }
@@ -203,16 +217,44 @@ class ConfigurationCacheIO internal constructor(
         stateFile: ConfigurationCacheStateFile,
         action: suspend DefaultWriteContext.(ConfigurationCacheState) -> T
     ): T {
-        val (context, codecs) = writerContextFor(encryptionService.outputStream(stateFile.stateType, stateFile::outputStream)) {
+        val (context, codecs) = writerContextFor(stateOutputStreamFor(stateFile)) {
             host.currentBuild.gradle.owner.displayName.displayName + " state"
         }
         return context.useToRun {
             runWriteOperation {
-                action(ConfigurationCacheState(codecs, stateFile, eventEmitter, host))
+                action(ConfigurationCacheState(codecs, stateFile, StateFileShards(stateFile), eventEmitter, host))
             }
         }
     }
 
+    /**
+     * Reads the given state file from memory when the daemon stored or loaded it last.
+     */
+    private
+    fun stateInputStreamFor(stateFile: ConfigurationCacheStateFile): InputStream {
+        val file = stateFile.stateFile.file
+        return residentStateFiles.residentContentOf(file)
+            ?: residentStateFiles.recordingInputStream(file, inputStreamFor(stateFile.stateType, stateFile::inputStream))
+    }
+
+    private
+    fun stateOutputStreamFor(stateFile: ConfigurationCacheStateFile): OutputStream =
+        residentStateFiles.recordingOutputStream(stateFile.stateFile.file, outputStreamFor(stateFile.stateType, stateFile::outputStream))
+
+    /**
+     * Returns a stream to write the content of a state file to, compressing and encrypting it as requested.
+     */
+    internal
+    fun outputStreamFor(stateType: StateType, output: () -> OutputStream): OutputStream =
+        compression.outputStream(encryptionService.outputStream(stateType, output))
+
+    /**
+     * Returns a stream to read the content of a state file from, decrypting and decompressing it as it was written.
+     */
+    internal
+    fun inputStreamFor(stateType: StateType, input: () -> InputStream): InputStream =
+        StateFileCompression.inputStream(encryptionService.inputStream(stateType, input))
+
     internal
     fun writeModelTo(model: Any, stateFile: ConfigurationCacheStateFile) {
         writeConfigurationCacheState(stateFile) {
@@ -231,6 +273,103 @@ class ConfigurationCacheIO internal constructor(
         }
     }
 
+    /**
+     * Stores the shards of the work graph of a build next to the state file of the build.
+     */
+    private
+    inner class StateFileShards(
+        private val stateFile: ConfigurationCacheStateFile
+    ) : WorkGraphShards {
+
+        override val isEnabled: Boolean
+            get() = startParameter.isShardedWorkGraph
+
+        override fun writeShard(context: WriteContext, index: Int, writeShard: suspend WriteContext.() -> Unit): ShardStart {
+            val parent = context as DefaultWriteContext
+            val classEncoder = parent.classEncoder as DefaultClassEncoder
+            val start = ShardStart(parent.sharedIdentities.size, classEncoder.nextIds)
+            val shardFile = stateFile.stateFileForShard(index)
+            val encoder = KryoBackedEncoder(stateOutputStreamFor(shardFile))
+            val tracer = loggingTracerFor({ host.currentBuild.gradle.owner.displayName.displayName + " state shard $index" }, encoder)
+            DefaultWriteContext(
+                codec = codecs.userTypesCodec(),
+                encoder = encoder,
+                beanStateWriterLookup = beanStateWriterLookup,
+                logger = logger,
+                tracer = tracer,
+                problemsListener = problems,
+                classEncoder = classEncoder,
+                sharedIdentities = parent.sharedIdentities
+            ).useToRun {
+                runWriteOperation {
+                    writeShard()
+                }
+            }
+            return start
+        }
+
+        override fun readShards(context: ReadContext, shards: List<ShardStart>, readShard: suspend ReadContext.(Int) -> Unit) {
+            val parent = context as DefaultReadContext
+            val classDecoder = parent.classDecoder as DefaultClassDecoder
+            val identities = ShardIdentities()
+            // Shards are started in order, so a shard only ever waits for the identities of shards which are already running
+            val executor = service<ExecutorFactory>().create("Configuration cache shard loader", service<WorkerLimits>().maxWorkerCount)
+            try {
+                val results = shards.mapIndexed { index, start ->
+                    executor.submit(Callable {
+                        try {
+                            readShardFile(index, start, parent, classDecoder, identities, readShard).also {
+                                identities.complete(index)
+                            }
+                        } catch (e: Throwable) {
+                            identities.fail(e)
+                            throw e
+                        }
+                    })
+                }
+                for (result in results) {
+                    val shardContext = try {
+                        result.get()
+                    } catch (e: ExecutionException) {
+                        throw e.cause ?: e
+                    }
+                    parent.onFinish(shardContext::finish)
+                }
+            } finally {
+                executor.stop()
+            }
+        }
+
+        private
+        fun readShardFile(
+            index: Int,
+            start: ShardStart,
+            parent: DefaultReadContext,
+            classDecoder: DefaultClassDecoder,
+            identities: ShardIdentities,
+            readShard: suspend ReadContext.(Int) -> Unit
+        ): DefaultReadContext {
+            val shardFile = stateFile.stateFileForShard(index)
+            return DefaultReadContext(
+                codec = codecs.userTypesCodec(),
+                decoder = KryoBackedDecoder(stateInputStreamFor(shardFile)),
+                beanStateReaderLookup = beanStateReaderLookup,
+                logger = logger,
+                problemsListener = problems,
+                classDecoder = classDecoder.forShard(identities, index, start.classIds),
+                sharedIdentities = identities.viewOf(parent.sharedIdentities, index, start.sharedIdentity)
+            ).apply {
+                initClassLoader(parent.classLoader)
+                initProjectProvider(parent::getProject)
+                use {
+                    runReadOperation {
+                        readShard(index)
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * @param profile the unique name associated with the output stream for debugging space usage issues
      */
@@ -117,6 +117,12 @@ class ConfigurationCacheRepository(
                 includedBuildFileFor(file, build),
                 stateType
             )
+
+        override fun stateFileForShard(index: Int): ConfigurationCacheStateFile =
+            ReadableConfigurationCacheStateFile(
+                shardFileFor(file, index),
+                stateType
+            )
     }
 
     private
@@ -153,6 +159,13 @@ class ConfigurationCacheRepository(
                 stateType,
                 onFileAccess
             )
+
+        override fun stateFileForShard(index: Int): ConfigurationCacheStateFile =
+            WriteableConfigurationCacheStateFile(
+                shardFileFor(file, index),
+                stateType,
+                onFileAccess
+            )
     }
 
     private
@@ -205,6 +218,12 @@ class ConfigurationCacheRepository(
             resolveSibling("$name.${build.name}")
         }
 
+    private
+    fun shardFileFor(parentStateFile: File, index: Int) =
+        parentStateFile.run {
+            resolveSibling("$name.$index.shard")
+        }
+
     private
     val cleanupDepth = 1
 
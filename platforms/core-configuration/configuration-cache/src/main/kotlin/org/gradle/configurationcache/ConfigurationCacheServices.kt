@@ -48,6 +48,7 @@ class ConfigurationCacheServices : AbstractPluginServiceRegistry() {
     override fun registerGlobalServices(registration: ServiceRegistration) {
         registration.run {
             add(BeanConstructors::class.java)
+            add(ResidentStateFiles::class.java)
         }
     }
 
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache
+
+import org.gradle.internal.concurrent.Stoppable
+import org.gradle.internal.service.scopes.Scope
+import org.gradle.internal.service.scopes.ServiceScope
+import org.gradle.process.internal.health.memory.MemoryHolder
+import org.gradle.process.internal.health.memory.MemoryManager
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.IOException
+import java.io.InputStream
+import java.io.OutputStream
+import java.io.SequenceInputStream
+import java.nio.file.Files
+import java.nio.file.attribute.BasicFileAttributes
+import java.nio.file.attribute.FileTime
+
+
+/**
+ * Keeps the decrypted content of the state files of the most recently stored or loaded configuration cache entry in memory,
+ * so that the daemon can load the entry again without reading and decrypting its state files.
+ *
+ * The content of a state file is only used while the file has the same length and modification time as when it was written or read.
+ * The memory used is bounded, and is given back when the daemon is asked to free memory.
+ */
+@ServiceScope(Scope.Global::class)
+internal
+class ResidentStateFiles(
+    private val memoryManager: MemoryManager
+) : MemoryHolder, Stoppable {
+
+    companion object {
+        private
+        const val MAX_RESIDENT_BYTES = 64L * 1024 * 1024
+    }
+
+    private
+    val maxResidentBytes = minOf(MAX_RESIDENT_BYTES, Runtime.getRuntime().maxMemory() / 16)
+
+    private
+    val lock = Any()
+
+    /**
+     * The directory of the entry the resident state files belong to.
+     */
+    private
+    var entryDir: File? = null
+
+    private
+    val files = HashMap<File, ResidentFile>()
+
+    private
+    var residentBytes = 0L
+
+    init {
+        memoryManager.addMemoryHolder(this)
+    }
+
+    /**
+     * Returns the content of the given state file, or `null` when it is not resident.
+     */
+    fun residentContentOf(stateFile: File): InputStream? {
+        val resident = synchronized(lock) { files[stateFile] } ?: return null
+        if (resident.isCurrent(stateFile)) {
+            return ByteArrayInputStream(resident.content)
+        }
+        synchronized(lock) {
+            if (files[stateFile] === resident) {
+                forget(stateFile)
+            }
+        }
+        return null
+    }
+
+    /**
+     * Returns a stream which writes the content of the given state file to [outputStream]
+     * and makes it resident once closed, when it fits.
+     */
+    fun recordingOutputStream(stateFile: File, outputStream: OutputStream): OutputStream =
+        RecordingOutputStream(stateFile, outputStream)
+
+    /**
+     * Reads the given state file from [inputStream] and makes its content resident when it fits.
+     */
+    fun recordingInputStream(stateFile: File, inputStream: InputStream): InputStream {
+        val length = attributesOf(stateFile)?.size() ?: return inputStream
+        if (length > maxResidentBytes) {
+            return inputStream
+        }
+        // The content can be larger than the file when it is compressed, so stop reading once it cannot be resident
+        val content = ByteArrayOutputStream()
+        val buffer = ByteArray(8192)
+        while (content.size() <= maxResidentBytes) {
+            val read = inputStream.read(buffer)
+            if (read < 0) {
+                inputStream.close()
+                return content.toByteArray().let {
+                    record(stateFile, it)
+                    ByteArrayInputStream(it)
+                }
+            }
+            content.write(buffer, 0, read)
+        }
+        return SequenceInputStream(ByteArrayInputStream(content.toByteArray()), inputStream)
+    }
+
+    override fun attemptToRelease(memoryAmountBytes: Long): Long {
+        require(memoryAmountBytes >= 0) { "Negative memory amount" }
+        return synchronized(lock) {
+            clear()
+        }
+    }
+
+    override fun stop() {
+        memoryManager.removeMemoryHolder(this)
+        synchronized(lock) {
+            clear()
+        }
+    }
+
+    private
+    fun record(stateFile: File, content: ByteArray) {
+        val attributes = attributesOf(stateFile) ?: return
+        synchronized(lock) {
+            if (stateFile.parentFile != entryDir) {
+                clear()
+                entryDir = stateFile.parentFile
+            }
+            forget(stateFile)
+            if (residentBytes + content.size <= maxResidentBytes) {
+                files[stateFile] = ResidentFile(content, attributes.size(), attributes.lastModifiedTime())
+                residentBytes += content.size
+            }
+        }
+    }
+
+    private
+    fun forget(stateFile: File) {
+        files.remove(stateFile)?.let {
+            residentBytes -= it.content.size
+        }
+    }
+
+    private
+    fun clear(): Long {
+        val released = residentBytes
+        files.clear()
+        residentBytes = 0
+        entryDir = null
+        return released
+    }
+
+    private
+    class ResidentFile(
+        val content: ByteArray,
+        private val length: Long,
+        private val lastModified: FileTime
+    ) {
+        fun isCurrent(stateFile: File): Boolean =
+            attributesOf(stateFile)?.let {
+                it.size() == length && it.lastModifiedTime() == lastModified
+            } ?: false
+    }
+
+    private
+    inner class RecordingOutputStream(
+        private val stateFile: File,
+        private val outputStream: OutputStream
+    ) : OutputStream() {
+
+        private
+        var content: ByteArrayOutputStream? = ByteArrayOutputStream()
+
+        override fun write(b: Int) {
+            writing { outputStream.write(b) }
+            recording(1) { write(b) }
+        }
+
+        override fun write(b: ByteArray, off: Int, len: Int) {
+            writing { outputStream.write(b, off, len) }
+            recording(len) { write(b, off, len) }
+        }
+
+        override fun flush() {
+            outputStream.flush()
+        }
+
+        override fun close() {
+            outputStream.close()
+            content?.let {
+                content = null
+                record(stateFile, it.toByteArray())
+            }
+        }
+
+        private
+        inline fun writing(write: () -> Unit) {
+            try {
+                write()
+            } catch (e: Throwable) {
+                // The content of the file is unknown, do not make it resident
+                content = null
+                throw e
+            }
+        }
+
+        private
+        inline fun recording(len: Int, write: ByteArrayOutputStream.() -> Unit) {
+            content?.let {
+                if (it.size() + len > maxResidentBytes) {
+                    // Too large to be resident, stop recording
+                    content = null
+                } else {
+                    it.write()
+                }
+            }
+        }
+    }
+}
+
+
+private
+fun attributesOf(file: File): BasicFileAttributes? =
+    try {
+        Files.readAttributes(file.toPath(), BasicFileAttributes::class.java)
+    } catch (e: IOException) {
+        null
+    }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache
+
+import org.gradle.configurationcache.extensions.toDefaultLowerCase
+import java.io.InputStream
+import java.io.OutputStream
+import java.util.zip.Deflater
+import java.util.zip.DeflaterOutputStream
+import java.util.zip.Inflater
+import java.util.zip.InflaterInputStream
+
+
+/**
+ * How the content of a configuration cache state file is compressed, before being encrypted.
+ *
+ * The format of a state file is recorded in its first byte, so state files can be read regardless of the compression requested
+ * when reading them.
+ */
+internal
+enum class StateFileCompression(private val format: Int) {
+
+    /**
+     * The content is stored as is.
+     */
+    None(0) {
+        override fun compressing(output: OutputStream): OutputStream = output
+
+        override fun decompressing(input: InputStream): InputStream = input
+    },
+
+    /**
+     * The content is compressed with Deflate at its fastest level, favoring speed over size.
+     */
+    Deflate(1) {
+        override fun compressing(output: OutputStream): OutputStream {
+            val deflater = Deflater(Deflater.BEST_SPEED)
+            return object : DeflaterOutputStream(output, deflater, BUFFER_SIZE) {
+                override fun close() {
+                    try {
+                        super.close()
+                    } finally {
+                        deflater.end()
+                    }
+                }
+            }
+        }
+
+        override fun decompressing(input: InputStream): InputStream {
+            val inflater = Inflater()
+            return object : InflaterInputStream(input, inflater, BUFFER_SIZE) {
+                override fun close() {
+                    try {
+                        super.close()
+                    } finally {
+                        inflater.end()
+                    }
+                }
+            }
+        }
+    };
+
+    protected
+    abstract fun compressing(output: OutputStream): OutputStream
+
+    protected
+    abstract fun decompressing(input: InputStream): InputStream
+
+    /**
+     * Records this format to the given [output] and returns a stream compressing the content written to it.
+     */
+    fun outputStream(output: OutputStream): OutputStream {
+        output.write(format)
+        return compressing(output)
+    }
+
+    companion object {
+
+        private
+        const val BUFFER_SIZE = 64 * 1024
+
+        fun named(name: String): StateFileCompression =
+            values().find { it.name.equals(name, ignoreCase = true) }
+                ?: throw IllegalArgumentException(
+                    "Unsupported configuration cache compression '$name'. Supported values are: ${values().joinToString { "'${it.name.toDefaultLowerCase()}'" }}."
+                )
+
+        /**
+         * Reads the format recorded in the given [input] and returns a stream decompressing the rest of the content.
+         */
+        fun inputStream(input: InputStream): InputStream {
+            val format = input.read()
+            val compression = values().find { it.format == format }
+                ?: throw IllegalStateException("Unsupported configuration cache state file format '$format'.")
+            return compression.decompressing(input)
+        }
+    }
+}
@@ -33,6 +33,10 @@ import org.gradle.internal.util.NumberUtil.ordinal
 import org.gradle.util.Path
 import java.io.File
 import java.net.URI
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Future
 import java.util.function.Consumer
 
 
@@ -40,8 +44,28 @@ internal
 typealias InvalidationReason = String
 
 
+/**
+ * The number of file system inputs checked together.
+ */
+private
+const val FILE_SYSTEM_INPUTS_BATCH_SIZE = 1024
+
+
+/**
+ * The number of file system inputs checked by a single task, when checking concurrently.
+ */
+private
+const val FILE_SYSTEM_INPUTS_CHUNK_SIZE = 64
+
+
 internal
-class ConfigurationCacheFingerprintChecker(private val host: Host) {
+class ConfigurationCacheFingerprintChecker(
+    private val host: Host,
+    /**
+     * Used to check file system inputs concurrently, when given.
+     */
+    private val fileSystemInputChecker: ExecutorService? = null
+) {
 
     interface Host {
         val isEncrypted: Boolean
@@ -66,12 +90,19 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
 
     suspend fun ReadContext.checkBuildScopedFingerprint(): CheckedFingerprint {
         // TODO: log some debug info
+        val fileSystemInputs = mutableListOf<ConfigurationCacheFingerprint>()
         while (true) {
             when (val input = read()) {
                 null -> break
                 is ConfigurationCacheFingerprint -> {
                     // An input that is not specific to a project. If it is out-of-date, then invalidate the whole cache entry and skip any further checks
-                    val reason = check(input)
+                    // File system inputs are checked in batches, the first out-of-date input of a batch is reported
+                    val reason = if (isFileSystemInput(input)) {
+                        fileSystemInputs.add(input)
+                        if (fileSystemInputs.size < FILE_SYSTEM_INPUTS_BATCH_SIZE) null else firstReasonOf(fileSystemInputs)
+                    } else {
+                        firstReasonOf(fileSystemInputs) ?: check(input)
+                    }
                     if (reason != null) {
                         return CheckedFingerprint.EntryInvalid(reason)
                     }
@@ -79,27 +110,58 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
                 else -> throw IllegalStateException("Unexpected configuration cache fingerprint: $input")
             }
         }
-        return CheckedFingerprint.Valid
+        return firstReasonOf(fileSystemInputs)?.let {
+            CheckedFingerprint.EntryInvalid(it)
+        } ?: CheckedFingerprint.Valid
     }
 
     suspend fun ReadContext.checkProjectScopedFingerprint(): CheckedFingerprint {
         // TODO: log some debug info
         var firstReason: InvalidationReason? = null
         val projects = mutableMapOf<Path, ProjectInvalidationState>()
+        val fileSystemInputs = mutableListOf<ProjectSpecificFingerprint.ProjectFingerprint>()
+
+        fun checkFileSystemInputs() {
+            // Don't check a value for a project that is already out-of-date
+            fileSystemInputs.removeIf { projects.entryFor(it.projectPath).isInvalid }
+            fileSystemInputs.zip(reasonsOf(fileSystemInputs.map { it.value })).forEach { (input, reason) ->
+                val state = projects.entryFor(input.projectPath)
+                if (reason != null && !state.isInvalid) {
+                    if (firstReason == null) {
+                        firstReason = reason
+                    }
+                    state.invalidate()
+                }
+            }
+            fileSystemInputs.clear()
+        }
+
         while (true) {
-            when (val input = read()) {
+            val input = read()
+            if (input !is ProjectSpecificFingerprint.ProjectFingerprint || !isFileSystemInput(input.value)) {
+                // Check the file system inputs read so far first, so that invalidations happen in the order of the inputs
+                checkFileSystemInputs()
+            }
+            when (input) {
                 null -> break
                 is ProjectSpecificFingerprint.ProjectFingerprint -> input.run {
                     // An input that is specific to a project. If it is out-of-date, then invalidate that project's values and continue checking values
                     // Don't check a value for a project that is already out-of-date
                     val state = projects.entryFor(input.projectPath)
                     if (!state.isInvalid) {
-                        val reason = check(input.value)
-                        if (reason != null) {
-                            if (firstReason == null) {
-                                firstReason = reason
+                        if (isFileSystemInput(value)) {
+                            fileSystemInputs.add(input)
+                            if (fileSystemInputs.size >= FILE_SYSTEM_INPUTS_BATCH_SIZE) {
+                                checkFileSystemInputs()
+                            }
+                        } else {
+                            val reason = check(value)
+                            if (reason != null) {
+                                if (firstReason == null) {
+                                    firstReason = reason
+                                }
+                                state.invalidate()
                             }
-                            state.invalidate()
                         }
                     }
                 }
@@ -149,6 +211,43 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
     private
     fun MutableMap<Path, ProjectInvalidationState>.entryFor(path: Path) = getOrPut(path) { ProjectInvalidationState() }
 
+    private
+    fun isFileSystemInput(input: ConfigurationCacheFingerprint) =
+        input is ConfigurationCacheFingerprint.InputFile ||
+            input is ConfigurationCacheFingerprint.DirectoryChildren ||
+            input is ConfigurationCacheFingerprint.InputFileSystemEntry
+
+    /**
+     * Checks the given inputs and returns the reason for the first out-of-date one, clearing the given list.
+     */
+    private
+    fun firstReasonOf(inputs: MutableList<ConfigurationCacheFingerprint>): InvalidationReason? =
+        reasonsOf(inputs).firstOrNull { it != null }.also {
+            inputs.clear()
+        }
+
+    /**
+     * Checks the given inputs, concurrently when there are enough of them, and returns the reason for each out-of-date one.
+     * Checking a file system input does not touch the state of the build, so these checks can run on any thread.
+     */
+    private
+    fun reasonsOf(inputs: List<ConfigurationCacheFingerprint>): List<InvalidationReason?> {
+        val executor = fileSystemInputChecker
+        if (executor == null || inputs.size <= FILE_SYSTEM_INPUTS_CHUNK_SIZE) {
+            return inputs.map(::check)
+        }
+        val chunks: List<Future<List<InvalidationReason?>>> = inputs.chunked(FILE_SYSTEM_INPUTS_CHUNK_SIZE).map { chunk ->
+            executor.submit(Callable { chunk.map(::check) })
+        }
+        return chunks.flatMap { chunk ->
+            try {
+                chunk.get()
+            } catch (e: ExecutionException) {
+                throw e.cause ?: e
+            }
+        }
+    }
+
     private
     fun check(input: ConfigurationCacheFingerprint): InvalidationReason? {
         when (input) {
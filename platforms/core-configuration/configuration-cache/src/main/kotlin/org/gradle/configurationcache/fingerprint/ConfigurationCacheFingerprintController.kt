@@ -43,7 +43,9 @@ import org.gradle.configurationcache.services.ConfigurationCacheEnvironmentChang
 import org.gradle.configurationcache.services.RemoteScriptUpToDateChecker
 import org.gradle.internal.agents.AgentStatus
 import org.gradle.internal.buildtree.BuildModelParameters
+import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.concurrent.Stoppable
+import org.gradle.internal.concurrent.WorkerLimits
 import org.gradle.internal.event.ListenerManager
 import org.gradle.internal.execution.FileCollectionFingerprinterRegistry
 import org.gradle.internal.execution.WorkExecutionTracker
@@ -92,7 +94,9 @@ class ConfigurationCacheFingerprintController internal constructor(
     private val remoteScriptUpToDateChecker: RemoteScriptUpToDateChecker,
     private val agentStatus: AgentStatus,
     private val problems: ConfigurationCacheProblems,
-    private val encryptionService: EncryptionService
+    private val encryptionService: EncryptionService,
+    private val executorFactory: ExecutorFactory,
+    private val workerLimits: WorkerLimits
 ) : Stoppable, ProjectScopedScriptResolution {
 
     interface Host {
@@ -100,6 +104,11 @@ class ConfigurationCacheFingerprintController internal constructor(
         val gradleProperties: GradleProperties
     }
 
+    private
+    val fileSystemInputChecker = lazy {
+        executorFactory.create("Configuration cache fingerprint checker", workerLimits.maxWorkerCount)
+    }
+
     private
     val fileCollectionFingerprinter = fingerprinterRegistry.getFingerprinter(DefaultFileNormalizationSpec.from(InputNormalizer.ABSOLUTE_PATH, DirectorySensitivity.DEFAULT, LineEndingSensitivity.DEFAULT))
 
@@ -274,15 +283,18 @@ class ConfigurationCacheFingerprintController internal constructor(
 
     override fun stop() {
         writingState = writingState.dispose()
+        if (fileSystemInputChecker.isInitialized()) {
+            fileSystemInputChecker.value.stop()
+        }
     }
 
     suspend fun ReadContext.checkBuildScopedFingerprint(host: Host): CheckedFingerprint =
-        ConfigurationCacheFingerprintChecker(CacheFingerprintCheckerHost(host)).run {
+        ConfigurationCacheFingerprintChecker(CacheFingerprintCheckerHost(host), fileSystemInputChecker.value).run {
             checkBuildScopedFingerprint()
         }
 
     suspend fun ReadContext.checkProjectScopedFingerprint(host: Host): CheckedFingerprint =
-        ConfigurationCacheFingerprintChecker(CacheFingerprintCheckerHost(host)).run {
+        ConfigurationCacheFingerprintChecker(CacheFingerprintCheckerHost(host), fileSystemInputChecker.value).run {
             checkProjectScopedFingerprint()
         }
 
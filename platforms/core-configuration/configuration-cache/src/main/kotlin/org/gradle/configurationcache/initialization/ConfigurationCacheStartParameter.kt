@@ -60,6 +60,18 @@ class ConfigurationCacheStartParameter(
 
     val taskExecutionAccessPreStable: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.task-execution-access-pre-stable")
 
+    /**
+     * Should the state of the tasks of each project be stored in a separate file?
+     *
+     * This allows loading the state of the tasks of different projects in parallel.
+     */
+    val isShardedWorkGraph: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.sharded-work-graph", false)
+
+    /**
+     * How to compress the state files of the entries being stored: `none` or `deflate`.
+     */
+    val compression: String = options.getInternalString("org.gradle.configuration-cache.internal.compression", "none")
+
     val encryptionRequested: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.encryption", true)
 
     val keystoreDir: String? = options.getInternalString("org.gradle.configuration-cache.internal.key-store-dir", null)
@@ -55,12 +55,12 @@ class DefaultWriteContext(
 
     problemsListener: ProblemsListener,
 
-    private
-    val classEncoder: ClassEncoder
+    internal
+    val classEncoder: ClassEncoder,
 
-) : AbstractIsolateContext<WriteIsolate>(codec, problemsListener), WriteContext, Encoder by encoder, AutoCloseable {
+    override val sharedIdentities: WriteIdentities = WriteIdentities()
 
-    override val sharedIdentities = WriteIdentities()
+) : AbstractIsolateContext<WriteIsolate>(codec, problemsListener), WriteContext, Encoder by encoder, AutoCloseable {
 
     override val circularReferences = CircularReferences()
 
@@ -171,6 +171,12 @@ class DefaultClassEncoder(
     private
     val scopes = WriteIdentities()
 
+    /**
+     * The identities the classes and scopes encoded next will be assigned.
+     */
+    val nextIds: Pair<Int, Int>
+        get() = classes.size to scopes.size
+
     override fun WriteContext.encodeClass(type: Class<*>) {
         val id = classes.getId(type)
         if (id != null) {
@@ -232,13 +238,20 @@ class DefaultClassEncoder(
 
 
 internal
-class DefaultClassDecoder : ClassDecoder {
-
-    private
-    val classes = ReadIdentities()
+class DefaultClassDecoder(
+    private val classes: ReadIdentities = ReadIdentities(),
+    private val scopes: ReadIdentities = ReadIdentities()
+) : ClassDecoder {
 
-    private
-    val scopes = ReadIdentities()
+    /**
+     * Returns a decoder for a shard which defines the classes and scopes from the given identities on,
+     * see [DefaultClassEncoder.nextIds].
+     */
+    fun forShard(identities: ShardIdentities, shard: Int, firstOwnedIds: Pair<Int, Int>) =
+        DefaultClassDecoder(
+            identities.viewOf(classes, shard, firstOwnedIds.first),
+            identities.viewOf(scopes, shard, firstOwnedIds.second)
+        )
 
     override fun ReadContext.decodeClass(): Class<*> {
         val id = readSmallInt()
@@ -319,12 +332,12 @@ class DefaultReadContext(
 
     problemsListener: ProblemsListener,
 
-    private
-    val classDecoder: ClassDecoder = DefaultClassDecoder()
+    internal
+    val classDecoder: ClassDecoder = DefaultClassDecoder(),
 
-) : AbstractIsolateContext<ReadIsolate>(codec, problemsListener), ReadContext, Decoder by decoder, AutoCloseable {
+    override val sharedIdentities: ReadIdentities = ReadIdentities()
 
-    override val sharedIdentities = ReadIdentities()
+) : AbstractIsolateContext<ReadIsolate>(codec, problemsListener), ReadContext, Decoder by decoder, AutoCloseable {
 
     private
     lateinit var projectProvider: ProjectProvider
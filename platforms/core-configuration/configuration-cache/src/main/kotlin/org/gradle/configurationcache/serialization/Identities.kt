@@ -17,7 +17,10 @@
 package org.gradle.configurationcache.serialization
 
 import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet
+import java.util.BitSet
 import java.util.IdentityHashMap
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
 
 
 class WriteIdentities {
@@ -25,6 +28,12 @@ class WriteIdentities {
     private
     val instanceIds = IdentityHashMap<Any, Int>()
 
+    /**
+     * The number of identities assigned so far, which is also the next identity to be assigned.
+     */
+    val size: Int
+        get() = instanceIds.size
+
     fun getId(instance: Any) = instanceIds[instance]
 
     fun putInstance(instance: Any): Int {
@@ -35,19 +44,102 @@ class WriteIdentities {
 }
 
 
-class ReadIdentities {
+open class ReadIdentities {
 
     private
     val instanceIds = HashMap<Int, Any>()
 
-    fun getInstance(id: Int) = instanceIds[id]
+    open fun getInstance(id: Int): Any? = instanceIds[id]
 
-    fun putInstance(id: Int, instance: Any) {
+    open fun putInstance(id: Int, instance: Any) {
         instanceIds[id] = instance
     }
 }
 
 
+/**
+ * Coordinates the access to the identities of a state file by the decoders of its shards, which run concurrently.
+ *
+ * Shards are written one after the other, sharing the identities of their state file,
+ * so the identities defined while writing a shard are all greater than the ones defined before.
+ * The decoder of a shard waits for the identities defined before its shard to be decoded by their owner,
+ * and decodes the other ones itself.
+ * It stops waiting once every earlier shard has been decoded, as an identity still missing by then will never be decoded.
+ */
+class ShardIdentities {
+
+    private
+    val lock = ReentrantLock()
+
+    private
+    val instanceAdded = lock.newCondition()
+
+    private
+    var failure: Throwable? = null
+
+    private
+    val completedShards = BitSet()
+
+    /**
+     * Returns a view of the given [identities] for the decoder of the given [shard], which defines the identities from [firstOwnedId] on.
+     */
+    fun viewOf(identities: ReadIdentities, shard: Int, firstOwnedId: Int): ReadIdentities =
+        ShardView(identities, shard, firstOwnedId)
+
+    /**
+     * Records that the given [shard] has been decoded, so that it will not define any more identities.
+     */
+    fun complete(shard: Int) {
+        lock.withLock {
+            completedShards.set(shard)
+            instanceAdded.signalAll()
+        }
+    }
+
+    /**
+     * Releases the decoders waiting for identities that will never be decoded because of the given [failure].
+     */
+    fun fail(failure: Throwable) {
+        lock.withLock {
+            if (this.failure == null) {
+                this.failure = failure
+            }
+            instanceAdded.signalAll()
+        }
+    }
+
+    private
+    inner class ShardView(
+        private val identities: ReadIdentities,
+        private val shard: Int,
+        private val firstOwnedId: Int
+    ) : ReadIdentities() {
+
+        override fun getInstance(id: Int): Any? = lock.withLock {
+            var instance = identities.getInstance(id)
+            while (instance == null && id < firstOwnedId) {
+                failure?.let {
+                    throw IllegalStateException("Identity #$id was not decoded by another shard.", it)
+                }
+                if (completedShards.nextClearBit(0) >= shard) {
+                    throw IllegalStateException("Identity #$id was not defined by any earlier shard.")
+                }
+                instanceAdded.await()
+                instance = identities.getInstance(id)
+            }
+            instance
+        }
+
+        override fun putInstance(id: Int, instance: Any) {
+            lock.withLock {
+                identities.putInstance(id, instance)
+                instanceAdded.signalAll()
+            }
+        }
+    }
+}
+
+
 class CircularReferences {
 
     private
@@ -90,7 +90,8 @@ fun conventionAwareFieldsOf(beanType: Class<*>): Sequence<Pair<Field, Field>> =
                             && field.name == flagFieldName
                             && field.type == java.lang.Boolean.TYPE
                     }?.let { flagField ->
-                        backingField to flagField
+                        // The fields returned by ClassInspector are shared and must not be made accessible
+                        backingField to beanType.getDeclaredField(flagField.name)
                     }
             }
         }
@@ -314,6 +314,10 @@ class Codecs(
         bind(PatternSetCodec(patternSetFactory))
     }
 
-    fun workNodeCodecFor(gradle: GradleInternal) =
-        WorkNodeCodec(gradle, internalTypesCodec(), ordinalGroupFactory)
+    fun workNodeCodecFor(gradle: GradleInternal, shards: WorkGraphShards) =
+        WorkNodeCodec(gradle, internalTypesCodec(), ordinalGroupFactory, ::taskNodeCodec, shards)
+
+    private
+    fun taskNodeCodec() =
+        TaskNodeCodec(userTypesCodec(), taskNodeFactory)
 }
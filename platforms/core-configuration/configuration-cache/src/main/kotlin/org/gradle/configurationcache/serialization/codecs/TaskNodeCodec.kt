@@ -75,56 +75,93 @@ class TaskNodeCodec(
 
     override suspend fun ReadContext.decode(): LocalTaskNode {
         val task = readTask()
-        val node = taskNodeFactory.getOrCreateNode(task) as LocalTaskNode
+        val node = nodeOf(task)
         node.isolated()
         return node
     }
 
+    /**
+     * Returns the node of the given task, creating it if needed.
+     */
+    fun nodeOf(task: Task): LocalTaskNode =
+        taskNodeFactory.getOrCreateNode(task) as LocalTaskNode
+
     private
     suspend fun WriteContext.writeTask(task: TaskInternal) {
         withDebugFrame({ task.path }) {
-            val taskType = GeneratedSubclasses.unpackType(task)
-            val projectPath = task.project.path
-            val taskName = task.name
-            writeClass(taskType)
-            writeString(projectPath)
-            writeString(taskName)
-            writeLong(task.taskIdentity.uniqueId)
-            writeNullableString(task.reasonTaskIsIncompatibleWithConfigurationCache.orElse(null))
-
-            withDebugFrame({ taskType.name }) {
-                withTaskOf(taskType, task, userTypesCodec) {
-                    writeUpToDateSpec(task)
-                    writeCollection(task.outputs.cacheIfSpecs)
-                    writeCollection(task.outputs.doNotCacheIfSpecs)
-                    writeReasonNotToTrackState(task)
-                    beanStateWriterFor(task.javaClass).run {
-                        writeStateOf(task)
-                        withTaskReferencesAllowed {
-                            writeRegisteredPropertiesOf(
-                                task,
-                                this as BeanPropertyWriter
-                            )
-                        }
-                    }
-                    writeDestroyablesOf(task)
-                    writeLocalStateOf(task)
-                    writeRequiredServices(task)
-                }
-            }
+            writeTaskIdentity(task)
+            writeTaskState(task)
         }
     }
 
     private
-    suspend fun ReadContext.readTask(): Task {
+    suspend fun ReadContext.readTask(): TaskInternal {
+        val task = readTaskIdentity()
+        readTaskState(task)
+        return task
+    }
+
+    /**
+     * Writes what is needed to create the given task, but not its state, see [writeTaskState].
+     */
+    fun WriteContext.writeTaskIdentity(task: TaskInternal) {
+        val taskType = GeneratedSubclasses.unpackType(task)
+        writeClass(taskType)
+        writeString(task.project.path)
+        writeString(task.name)
+        writeLong(task.taskIdentity.uniqueId)
+        writeNullableString(task.reasonTaskIsIncompatibleWithConfigurationCache.orElse(null))
+    }
+
+    /**
+     * Creates the task written by [writeTaskIdentity].
+     */
+    fun ReadContext.readTaskIdentity(): TaskInternal {
         val taskType = readClassOf<Task>()
         val projectPath = readString()
         val taskName = readString()
         val uniqueId = readLong()
         val incompatibleReason = readNullableString()
+        return createTask(projectPath, taskName, taskType, uniqueId, incompatibleReason)
+    }
 
-        val task = createTask(projectPath, taskName, taskType, uniqueId, incompatibleReason)
+    /**
+     * Writes the state of the given task, which only refers to other tasks of the same project.
+     */
+    suspend fun WriteContext.writeTaskState(task: TaskInternal) {
+        val taskType = GeneratedSubclasses.unpackType(task)
+        withDebugFrame({ taskType.name }) {
+            withTaskOf(taskType, task, userTypesCodec) {
+                writeUpToDateSpec(task)
+                writeCollection(task.outputs.cacheIfSpecs)
+                writeCollection(task.outputs.doNotCacheIfSpecs)
+                writeReasonNotToTrackState(task)
+                beanStateWriterFor(task.javaClass).run {
+                    writeStateOf(task)
+                    withTaskReferencesAllowed {
+                        writeRegisteredPropertiesOf(
+                            task,
+                            this as BeanPropertyWriter
+                        )
+                    }
+                }
+                writeDestroyablesOf(task)
+                writeLocalStateOf(task)
+                writeRequiredServices(task)
+            }
+        }
+    }
 
+    /**
+     * Reads the state written by [writeTaskState] into the given task.
+     *
+     * The state is read when loading the work graph rather than when the task is about to run:
+     * scheduling the task already needs its outputs, destroyables, local state and required services,
+     * and checking whether it is up-to-date needs its inputs, most of which live in the bean state.
+     * The state of a task can also refer to objects shared with the state of other tasks, which must be read in the order they were written.
+     */
+    suspend fun ReadContext.readTaskState(task: TaskInternal) {
+        val taskType = GeneratedSubclasses.unpackType(task)
         withTaskOf(taskType, task, userTypesCodec) {
             readUpToDateSpec(task)
             readCollectionInto { task.outputs.cacheIfSpecs.uncheckedCast() }
@@ -138,8 +175,6 @@ class TaskNodeCodec(
             readLocalStateOf(task)
             readRequiredServices(task)
         }
-
-        return task
     }
 
     private
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache.serialization.codecs
+
+import org.gradle.configurationcache.serialization.ReadContext
+import org.gradle.configurationcache.serialization.WriteContext
+
+
+/**
+ * Stores parts of the work graph of a build in separate files, called shards, so that they can be read concurrently.
+ *
+ * Shards share the identities of the state file of the build: an object written by a shard can be referenced
+ * by the shards written after it and by the rest of the state file.
+ */
+internal
+interface WorkGraphShards {
+
+    /**
+     * Whether the work graphs being stored should be sharded. Sharded work graphs can be loaded regardless.
+     */
+    val isEnabled: Boolean
+
+    /**
+     * Writes the shard with the given [index], sharing the identities of the given [context].
+     * Shards must be written one after the other, while [context] is not being written to.
+     *
+     * @return the first identities defined by the shard, to be passed to [readShards].
+     */
+    fun writeShard(context: WriteContext, index: Int, writeShard: suspend WriteContext.() -> Unit): ShardStart
+
+    /**
+     * Reads the given shards concurrently, sharing the identities of the given [context],
+     * and returns once they are all read. The [context] must not be read from in the meantime.
+     */
+    fun readShards(context: ReadContext, shards: List<ShardStart>, readShard: suspend ReadContext.(Int) -> Unit)
+}
+
+
+/**
+ * The first identities defined by a shard, see [WorkGraphShards.writeShard].
+ */
+internal
+class ShardStart(
+    val sharedIdentity: Int,
+    val classIds: Pair<Int, Int>
+)
@@ -18,8 +18,10 @@ package org.gradle.configurationcache.serialization.codecs
 
 import com.google.common.collect.ImmutableSet
 import org.gradle.api.internal.GradleInternal
+import org.gradle.api.internal.TaskInternal
 import org.gradle.api.internal.artifacts.transform.DefaultTransformUpstreamDependenciesResolver
 import org.gradle.api.internal.tasks.NodeExecutionContext
+import org.gradle.configurationcache.extensions.unsafeLazy
 import org.gradle.configurationcache.serialization.Codec
 import org.gradle.configurationcache.serialization.ReadContext
 import org.gradle.configurationcache.serialization.WriteContext
@@ -28,7 +30,9 @@ import org.gradle.configurationcache.serialization.encodePreservingIdentityOf
 import org.gradle.configurationcache.serialization.ownerService
 import org.gradle.configurationcache.serialization.readCollection
 import org.gradle.configurationcache.serialization.readCollectionInto
+import org.gradle.configurationcache.serialization.readList
 import org.gradle.configurationcache.serialization.readNonNull
+import org.gradle.configurationcache.serialization.withDebugFrame
 import org.gradle.configurationcache.serialization.withGradleIsolate
 import org.gradle.configurationcache.serialization.writeCollection
 import org.gradle.execution.plan.ActionNode
@@ -47,7 +51,9 @@ internal
 class WorkNodeCodec(
     private val owner: GradleInternal,
     private val internalTypesCodec: Codec<Any?>,
-    private val ordinalGroups: OrdinalGroupFactory
+    private val ordinalGroups: OrdinalGroupFactory,
+    private val taskNodeCodecs: () -> TaskNodeCodec,
+    private val shards: WorkGraphShards
 ) {
 
     suspend fun WriteContext.writeWork(work: ScheduledWork) {
@@ -66,6 +72,11 @@ class WorkNodeCodec(
     suspend fun WriteContext.doWrite(work: ScheduledWork) {
         val nodes = work.scheduledNodes
         val nodeCount = nodes.size
+        // When sharded, the state of the tasks of each project is written to its own shard
+        val sharded = shards.isEnabled
+        val taskNodeCodec by unsafeLazy(taskNodeCodecs)
+        val tasksByProject = LinkedHashMap<String, MutableList<TaskInternal>>()
+        writeBoolean(sharded)
         writeSmallInt(nodeCount)
         val scheduledNodeIds = HashMap<Node, Int>(nodeCount)
         // Not all entry nodes are always scheduled.
@@ -74,7 +85,16 @@ class WorkNodeCodec(
         // Not restoring them as entry points doesn't affect the resulting execution plan.
         val scheduledEntryNodeIds = mutableListOf<Int>()
         nodes.forEach { node ->
-            write(node)
+            if (sharded) {
+                writeBoolean(node is LocalTaskNode)
+            }
+            if (sharded && node is LocalTaskNode) {
+                val task = node.task
+                taskNodeCodec.run { writeTaskIdentity(task) }
+                tasksByProject.getOrPut(task.project.path, ::ArrayList).add(task)
+            } else {
+                write(node)
+            }
             val nodeId = scheduledNodeIds.size
             scheduledNodeIds[node] = nodeId
             if (node in work.entryNodes) {
@@ -93,15 +113,25 @@ class WorkNodeCodec(
             writeSuccessorReferencesOf(node, scheduledNodeIds)
             writeNodeGroup(node.group, scheduledNodeIds)
         }
+        if (sharded) {
+            writeTaskShards(tasksByProject.values)
+        }
     }
 
     private
     suspend fun ReadContext.doRead(): ScheduledWork {
+        val sharded = readBoolean()
         val nodeCount = readSmallInt()
         val nodes = ArrayList<Node>(nodeCount)
         val nodesById = HashMap<Int, Node>(nodeCount)
+        val taskNodeCodec by unsafeLazy(taskNodeCodecs)
+        val tasksByProject = LinkedHashMap<String, MutableList<TaskInternal>>()
         for (i in 0 until nodeCount) {
-            val node = readNode()
+            val node = if (sharded && readBoolean()) {
+                readShardedTaskNode(taskNodeCodec, tasksByProject)
+            } else {
+                readNode()
+            }
             nodesById[nodesById.size] = node
             if (node is LocalTaskNode) {
                 node.prepareNode.require()
@@ -118,6 +148,9 @@ class WorkNodeCodec(
             readSuccessorReferencesOf(node, nodesById)
             node.group = readNodeGroup(nodesById)
         }
+        if (sharded) {
+            readTaskShards(tasksByProject.values.toList())
+        }
         return ScheduledWork(nodes, entryNodes.build())
     }
 
@@ -129,6 +162,59 @@ class WorkNodeCodec(
         return node
     }
 
+    /**
+     * Creates the task of a node whose state is read later on, from the shard of its project.
+     */
+    private
+    fun ReadContext.readShardedTaskNode(taskNodeCodec: TaskNodeCodec, tasksByProject: MutableMap<String, MutableList<TaskInternal>>): Node {
+        val task = taskNodeCodec.run { readTaskIdentity() }
+        tasksByProject.getOrPut(task.project.path, ::ArrayList).add(task)
+        val node = taskNodeCodec.nodeOf(task)
+        node.isolated()
+        node.require()
+        node.dependenciesProcessed()
+        return node
+    }
+
+    /**
+     * Writes the state of the tasks of each project to its own shard.
+     * A task can only refer to the tasks of its own project, which were all created by the time its shard is read.
+     */
+    private
+    fun WriteContext.writeTaskShards(tasksByProject: Collection<List<TaskInternal>>) {
+        val starts = tasksByProject.mapIndexed { index, tasks ->
+            shards.writeShard(this, index) {
+                val taskNodeCodec = taskNodeCodecs()
+                for (task in tasks) {
+                    withDebugFrame({ task.path }) {
+                        taskNodeCodec.run { writeTaskState(task) }
+                    }
+                }
+            }
+        }
+        writeCollection(starts) { start ->
+            writeSmallInt(start.sharedIdentity)
+            writeSmallInt(start.classIds.first)
+            writeSmallInt(start.classIds.second)
+        }
+    }
+
+    private
+    fun ReadContext.readTaskShards(tasksByProject: List<List<TaskInternal>>) {
+        val starts = readList {
+            ShardStart(readSmallInt(), readSmallInt() to readSmallInt())
+        }
+        require(starts.size == tasksByProject.size) {
+            "Expecting ${tasksByProject.size} work graph shards, found ${starts.size}."
+        }
+        shards.readShards(this, starts) { index ->
+            val taskNodeCodec = taskNodeCodecs()
+            for (task in tasksByProject[index]) {
+                taskNodeCodec.run { readTaskState(task) }
+            }
+        }
+    }
+
     private
     fun WriteContext.writeNodeGroup(group: NodeGroup, nodesById: Map<Node, Int>) {
         encodePreservingIdentityOf(group) {
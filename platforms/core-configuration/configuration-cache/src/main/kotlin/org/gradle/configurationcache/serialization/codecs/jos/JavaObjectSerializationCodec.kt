@@ -230,8 +230,8 @@ fun Iterable<Method>.serializationMethodHierarchy(methodName: String, parameterT
                 && name == methodName
                 && parameterTypes[0].isAssignableFrom(parameterType)
         }
-    }.onEach { serializationMethod ->
-        serializationMethod.isAccessible = true
+    }.map { serializationMethod ->
+        serializationMethod.accessibleCopy()
     }.reversed()
 
 
@@ -47,7 +47,15 @@ fun Class<*>.firstAccessibleMatchingMethodOrNull(predicate: Method.() -> Boolean
 
 internal
 fun Iterable<Method>.firstAccessibleMatchingMethodOrNull(predicate: Method.() -> Boolean): Method? =
-    find(predicate)?.apply { isAccessible = true }
+    find(predicate)?.accessibleCopy()
+
+
+/**
+ * Returns an accessible copy of this method, as the methods returned by [ClassInspector] are shared and must not be made accessible.
+ */
+internal
+fun Method.accessibleCopy(): Method =
+    declaringClass.getDeclaredMethod(name, *parameterTypes).apply { isAccessible = true }
 
 
 internal
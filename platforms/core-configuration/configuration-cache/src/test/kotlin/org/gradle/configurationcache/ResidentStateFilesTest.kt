@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache
+
+import com.nhaarman.mockitokotlin2.mock
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.nullValue
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Rule
+import org.junit.Test
+import java.io.File
+import java.io.InputStream
+
+
+class ResidentStateFilesTest {
+
+    @JvmField
+    @Rule
+    val testDirectoryProvider = TestNameTestDirectoryProvider(javaClass)
+
+    private
+    val residentStateFiles = ResidentStateFiles(mock())
+
+    @Test
+    fun `keeps the content of a written state file`() {
+        val stateFile = testDirectoryProvider.file("entry/work.bin")
+
+        write(stateFile, "content")
+
+        assertThat(readResident(stateFile), equalTo("content"))
+    }
+
+    @Test
+    fun `keeps the content of a read state file`() {
+        val stateFile = testDirectoryProvider.file("entry/work.bin").apply {
+            parentFile.mkdirs()
+            writeText("content")
+        }
+
+        val content = residentStateFiles.recordingInputStream(stateFile, stateFile.inputStream()).readText()
+
+        assertThat(content, equalTo("content"))
+        assertThat(readResident(stateFile), equalTo("content"))
+    }
+
+    @Test
+    fun `forgets the content of a state file changed since`() {
+        val stateFile = testDirectoryProvider.file("entry/work.bin")
+        write(stateFile, "content")
+
+        stateFile.writeText("changed content")
+
+        assertThat(residentStateFiles.residentContentOf(stateFile), nullValue())
+    }
+
+    @Test
+    fun `keeps the state files of the most recently used entry only`() {
+        val first = testDirectoryProvider.file("first/work.bin")
+        val second = testDirectoryProvider.file("second/work.bin")
+        val secondShard = testDirectoryProvider.file("second/work.bin.0.shard")
+
+        write(first, "first")
+        write(second, "second")
+        write(secondShard, "shard")
+
+        assertThat(residentStateFiles.residentContentOf(first), nullValue())
+        assertThat(readResident(second), equalTo("second"))
+        assertThat(readResident(secondShard), equalTo("shard"))
+    }
+
+    @Test
+    fun `gives back memory when asked to`() {
+        val stateFile = testDirectoryProvider.file("entry/work.bin")
+        write(stateFile, "content")
+
+        val released = residentStateFiles.attemptToRelease(1)
+
+        assertThat(released, equalTo(7L))
+        assertThat(residentStateFiles.residentContentOf(stateFile), nullValue())
+    }
+
+    private
+    fun write(stateFile: File, content: String) {
+        stateFile.parentFile.mkdirs()
+        residentStateFiles.recordingOutputStream(stateFile, stateFile.outputStream()).use {
+            it.write(content.toByteArray())
+        }
+    }
+
+    private
+    fun readResident(stateFile: File) =
+        residentStateFiles.residentContentOf(stateFile)?.readText()
+
+    private
+    fun InputStream.readText() =
+        use { String(it.readBytes()) }
+}
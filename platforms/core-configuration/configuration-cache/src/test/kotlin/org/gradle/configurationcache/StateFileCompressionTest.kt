@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache
+
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+
+
+class StateFileCompressionTest {
+
+    private
+    val content = "configuration cache state ".repeat(1000).toByteArray()
+
+    @Test
+    fun `reads content written with any compression`() {
+        StateFileCompression.values().forEach { compression ->
+            assertThat(
+                String(StateFileCompression.inputStream(ByteArrayInputStream(write(compression))).use { it.readBytes() }),
+                equalTo(String(content))
+            )
+        }
+    }
+
+    @Test
+    fun `compresses content`() {
+        assertThat(write(StateFileCompression.None).size, equalTo(content.size + 1))
+        assertThat(write(StateFileCompression.Deflate).size < content.size / 10, equalTo(true))
+    }
+
+    @Test
+    fun `looks up compression by name`() {
+        assertThat(StateFileCompression.named("deflate"), equalTo(StateFileCompression.Deflate))
+        assertThat(StateFileCompression.named("NONE"), equalTo(StateFileCompression.None))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `rejects unknown compression`() {
+        StateFileCompression.named("unknown")
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun `rejects unknown format`() {
+        StateFileCompression.inputStream(ByteArrayInputStream(byteArrayOf(42)))
+    }
+
+    private
+    fun write(compression: StateFileCompression): ByteArray =
+        ByteArrayOutputStream().also { output ->
+            compression.outputStream(output).use {
+                it.write(content)
+            }
+        }.toByteArray()
+}
@@ -54,6 +54,8 @@ import org.junit.Test
 import java.io.File
 import java.io.InputStream
 import java.io.OutputStream
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
 
 
 class ConfigurationCacheFingerprintCheckerTest {
@@ -262,6 +264,35 @@ class ConfigurationCacheFingerprintCheckerTest {
         )
     }
 
+    @Test
+    fun `first changed file system input is reported when checking concurrently`() {
+        val inputFiles = (0 until 3000).map { File("input-$it.txt") }
+        val originalHash = TestHashCodes.hashCodeFrom(1)
+        val newHash = TestHashCodes.hashCodeFrom(2)
+        val changedFiles = setOf(inputFiles[1500], inputFiles[2500])
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            assertThat(
+                checkFingerprintGiven(
+                    mock {
+                        on { hashCodeAndTypeOf(any()) }.then { invocation ->
+                            val file = invocation.getArgument<File>(0)
+                            (if (file in changedFiles) newHash else originalHash) to FileType.RegularFile
+                        }
+                        on { displayNameOf(any()) }.then { invocation ->
+                            invocation.getArgument<File>(0).name
+                        }
+                    },
+                    inputFiles.map { ConfigurationCacheFingerprint.InputFile(it, originalHash) },
+                    executor
+                ),
+                equalTo("file 'input-1500.txt' has changed")
+            )
+        } finally {
+            executor.shutdown()
+        }
+    }
+
     private
     fun invalidationReasonForInitScriptsChange(
         from: Iterable<Pair<File, HashCode>>,
@@ -287,15 +318,23 @@ class ConfigurationCacheFingerprintCheckerTest {
     fun checkFingerprintGiven(
         host: ConfigurationCacheFingerprintChecker.Host,
         fingerprint: ConfigurationCacheFingerprint
+    ): InvalidationReason? =
+        checkFingerprintGiven(host, listOf(fingerprint))
+
+    private
+    fun checkFingerprintGiven(
+        host: ConfigurationCacheFingerprintChecker.Host,
+        fingerprints: List<ConfigurationCacheFingerprint>,
+        fileSystemInputChecker: ExecutorService? = null
     ): InvalidationReason? {
 
         val readContext = recordWritingOf {
-            write(fingerprint)
+            fingerprints.forEach { write(it) }
             write(null)
         }
 
         val checkedFingerprint = readContext.runReadOperation {
-            ConfigurationCacheFingerprintChecker(host).run {
+            ConfigurationCacheFingerprintChecker(host, fileSystemInputChecker).run {
                 checkBuildScopedFingerprint()
             }
         }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache.serialization
+
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.instanceOf
+import org.hamcrest.CoreMatchers.sameInstance
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Assert.assertNull
+import org.junit.Test
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+
+class ShardIdentitiesTest {
+
+    private
+    val identities = ShardIdentities()
+
+    private
+    val stateFileIdentities = ReadIdentities()
+
+    @Test
+    fun `shard does not wait for the identities it owns`() {
+        val shard = identities.viewOf(stateFileIdentities, 1, 2)
+        val instance = Any()
+
+        assertNull(shard.getInstance(2))
+
+        shard.putInstance(2, instance)
+
+        assertThat(shard.getInstance(2), sameInstance(instance))
+        assertThat(stateFileIdentities.getInstance(2), sameInstance(instance))
+    }
+
+    @Test
+    fun `shard waits for the identities owned by earlier shards`() {
+        val first = identities.viewOf(stateFileIdentities, 0, 0)
+        val second = identities.viewOf(stateFileIdentities, 1, 1)
+        val instance = Any()
+
+        val executor = Executors.newSingleThreadExecutor()
+        try {
+            val lookup = executor.submit<Any?> { second.getInstance(0) }
+            Thread.sleep(100)
+            first.putInstance(0, instance)
+
+            assertThat(lookup.get(10, TimeUnit.SECONDS), sameInstance(instance))
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun `waiting shard fails when an earlier shard fails`() {
+        val second = identities.viewOf(stateFileIdentities, 1, 1)
+        val failure = RuntimeException("broken")
+
+        val executor = Executors.newSingleThreadExecutor()
+        try {
+            val lookup = executor.submit<Any?> { second.getInstance(0) }
+            Thread.sleep(100)
+            identities.fail(failure)
+
+            val thrown = try {
+                lookup.get(10, TimeUnit.SECONDS)
+                null
+            } catch (e: ExecutionException) {
+                e.cause
+            }
+            assertThat(thrown!!.cause, sameInstance<Throwable>(failure))
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun `waiting shard fails when an earlier shard completes without defining the identity`() {
+        val second = identities.viewOf(stateFileIdentities, 1, 1)
+
+        val executor = Executors.newSingleThreadExecutor()
+        try {
+            val lookup = executor.submit<Any?> { second.getInstance(0) }
+            Thread.sleep(100)
+            identities.complete(0)
+
+            val thrown = try {
+                lookup.get(10, TimeUnit.SECONDS)
+                null
+            } catch (e: ExecutionException) {
+                e.cause
+            }
+            assertThat(thrown, instanceOf(IllegalStateException::class.java))
+            assertThat(thrown!!.message, equalTo("Identity #0 was not defined by any earlier shard."))
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun `shard does not wait for an identity missing from completed earlier shards`() {
+        val first = identities.viewOf(stateFileIdentities, 0, 0)
+        val third = identities.viewOf(stateFileIdentities, 2, 2)
+        first.putInstance(0, Any())
+        identities.complete(1)
+        identities.complete(0)
+
+        val thrown = try {
+            third.getInstance(1)
+            null
+        } catch (e: IllegalStateException) {
+            e
+        }
+        assertThat(thrown!!.message, equalTo("Identity #1 was not defined by any earlier shard."))
+    }
+}
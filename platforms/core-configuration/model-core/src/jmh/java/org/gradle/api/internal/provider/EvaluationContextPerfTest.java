@@ -19,6 +19,7 @@
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -35,16 +36,35 @@ public class EvaluationContextPerfTest {
     @SuppressWarnings("FieldMayBeFinal")
     private String value = "value";
 
+    @Param({"1", "10", "50"})
+    private int chainLength;
+
     private Property<String> property;
 
+    private ProviderInternal<String> mappedChain;
+
     @Setup
     public void setUp() {
         property = new DefaultProperty<>(host, String.class);
         property.set(new TransformBackedProvider<>(String.class, new DefaultProvider<>(() -> value), v -> v + v));
+
+        DefaultProperty<String> finalizedProperty = new DefaultProperty<>(host, String.class);
+        finalizedProperty.set(value);
+        finalizedProperty.finalizeValue();
+        ProviderInternal<String> chain = finalizedProperty;
+        for (int i = 0; i < chainLength; i++) {
+            chain = chain.map(String::trim);
+        }
+        mappedChain = chain;
     }
 
     @Benchmark
     public void getPropertyValue(Blackhole bh) {
         bh.consume(property.get());
     }
+
+    @Benchmark
+    public void getMappedChainValue(Blackhole bh) {
+        bh.consume(mappedChain.get());
+    }
 }
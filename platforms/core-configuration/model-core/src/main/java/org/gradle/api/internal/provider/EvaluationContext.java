@@ -93,6 +93,7 @@ public interface ScopeContext extends AutoCloseable {
     }
 
     private static final int EXPECTED_MAX_CONTEXT_SIZE = 64;
+    private static final int MAX_SEARCHED_CONTEXT_SIZE = 16;
 
     private static final EvaluationContext INSTANCE = new EvaluationContext();
 
@@ -190,8 +191,10 @@ private ScopeContext nested() {
     }
 
     private final class PerThreadContext implements ScopeContext {
-        private final Set<EvaluationOwner> objectsInScope = new ReferenceOpenHashSet<>(EXPECTED_MAX_CONTEXT_SIZE);
         private final List<EvaluationOwner> evaluationStack = new ReferenceArrayList<>(EXPECTED_MAX_CONTEXT_SIZE);
+        // Only tracked once the stack gets deep, as searching a shallow stack is cheaper than maintaining the set
+        @Nullable
+        private Set<EvaluationOwner> objectsInScope;
         @Nullable
         private final PerThreadContext parent;
 
@@ -200,16 +203,22 @@ public PerThreadContext(@Nullable PerThreadContext parent) {
         }
 
         private void push(EvaluationOwner owner) {
-            if (objectsInScope.add(owner)) {
-                evaluationStack.add(owner);
-            } else {
+            if (isInScope(owner)) {
                 throw prepareException(owner);
             }
+            evaluationStack.add(owner);
+            if (objectsInScope != null) {
+                objectsInScope.add(owner);
+            } else if (evaluationStack.size() > MAX_SEARCHED_CONTEXT_SIZE) {
+                objectsInScope = new ReferenceOpenHashSet<>(evaluationStack);
+            }
         }
 
         private void pop() {
             EvaluationOwner removed = evaluationStack.remove(evaluationStack.size() - 1);
-            objectsInScope.remove(removed);
+            if (objectsInScope != null) {
+                objectsInScope.remove(removed);
+            }
         }
 
         public PerThreadContext open(EvaluationOwner owner) {
@@ -233,7 +242,11 @@ public void close() {
         }
 
         public boolean isInScope(EvaluationOwner owner) {
-            return objectsInScope.contains(owner);
+            if (objectsInScope != null) {
+                return objectsInScope.contains(owner);
+            }
+            // The stack compares owners by identity
+            return evaluationStack.contains(owner);
         }
 
         @Override
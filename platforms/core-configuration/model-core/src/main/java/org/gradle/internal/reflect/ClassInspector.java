@@ -27,9 +27,30 @@
 import java.util.Set;
 
 public class ClassInspector {
+    private static final byte IGNORED = 0;
+    private static final byte GETTER = 1;
+    private static final byte SETTER = 2;
+    private static final byte INSTANCE_METHOD = 3;
+
+    /**
+     * The declared members of each inspected class. Super types such as {@code DefaultTask} are visited for every type that extends them,
+     * so their members are only extracted and classified once.
+     *
+     * <p>The hierarchy of an inspected type includes JDK types such as {@code Object}, whose value would outlive this class loader. So a value
+     * only holds JDK types: the declared methods, their kinds and property names, and the declared fields.</p>
+     */
+    private static final ClassValue<Object[]> DECLARED_MEMBERS = new ClassValue<Object[]>() {
+        @Override
+        protected Object[] computeValue(Class<?> type) {
+            return declaredMembersOf(type);
+        }
+    };
 
     /**
      * Extracts a view of the given class. Ignores private methods.
+     *
+     * <p>The methods and fields of the returned view are shared by every view of the classes that declare them. They must not be made accessible.
+     * A caller that needs to make a member accessible should look up its own copy from the declaring class.</p>
      */
     public static ClassDetails inspect(Class<?> type) {
         MutableClassDetails classDetails = new MutableClassDetails(type);
@@ -67,26 +88,55 @@ private static void superClasses(Class<?> current, Collection<Class<?>> supers)
     }
 
     private static void inspectClass(Class<?> type, MutableClassDetails classDetails) {
-        for (Method method : type.getDeclaredMethods()) {
+        Object[] members = DECLARED_MEMBERS.get(type);
+        Method[] methods = (Method[]) members[0];
+        byte[] kinds = (byte[]) members[1];
+        String[] propertyNames = (String[]) members[2];
+        for (int i = 0; i < methods.length; i++) {
+            Method method = methods[i];
             classDetails.method(method);
 
+            switch (kinds[i]) {
+                case GETTER:
+                    classDetails.property(propertyNames[i]).addGetter(method);
+                    break;
+                case SETTER:
+                    classDetails.property(propertyNames[i]).addSetter(method);
+                    break;
+                case INSTANCE_METHOD:
+                    classDetails.instanceMethod(method);
+                    break;
+                default:
+                    break;
+            }
+        }
+        for (Field field : (Field[]) members[3]) {
+            classDetails.field(field);
+        }
+    }
+
+    private static Object[] declaredMembersOf(Class<?> type) {
+        Method[] methods = type.getDeclaredMethods();
+        byte[] kinds = new byte[methods.length];
+        String[] propertyNames = new String[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            Method method = methods[i];
             if (Modifier.isPrivate(method.getModifiers()) || Modifier.isStatic(method.getModifiers())) {
+                kinds[i] = IGNORED;
                 continue;
             }
 
             PropertyAccessorType accessorType = PropertyAccessorType.of(method);
             if (accessorType == PropertyAccessorType.GET_GETTER || accessorType == PropertyAccessorType.IS_GETTER) {
-                String propertyName = accessorType.propertyNameFor(method);
-                classDetails.property(propertyName).addGetter(method);
+                kinds[i] = GETTER;
+                propertyNames[i] = accessorType.propertyNameFor(method);
             } else if (accessorType == PropertyAccessorType.SETTER) {
-                String propertyName = accessorType.propertyNameFor(method);
-                classDetails.property(propertyName).addSetter(method);
+                kinds[i] = SETTER;
+                propertyNames[i] = accessorType.propertyNameFor(method);
             } else {
-                classDetails.instanceMethod(method);
+                kinds[i] = INSTANCE_METHOD;
             }
         }
-        for (Field field : type.getDeclaredFields()) {
-            classDetails.field(field);
-        }
+        return new Object[]{methods, kinds, propertyNames, type.getDeclaredFields()};
     }
 }
@@ -177,6 +177,40 @@ class EvaluationContextTest extends Specification {
         evaluator << [evaluateInLambda(), evaluateInBlock()]
     }
 
+    def "re-evaluating the owner in #evaluator throws exception when #depth owners are being evaluated"() {
+        def owners = (1..depth).collect { createOwner() }
+
+        when:
+        evaluator.apply(owner) {
+            evaluateAll(evaluator, owners) {
+                evaluator.apply(this.owner) {}
+            }
+        }
+
+        then:
+        EvaluationContext.CircularEvaluationException ex = thrown()
+        ex.evaluationCycle == [owner] + owners + [owner]
+
+        where:
+        [evaluator, depth] << [[evaluateInLambda(), evaluateInBlock()], [3, 30]].combinations()
+    }
+
+    def "can evaluate owner again with #evaluator once a deep evaluation completes"() {
+        def owners = (1..30).collect { createOwner() }
+        def evaluation = Mock(TestEvaluation)
+
+        when:
+        evaluateAll(evaluator, owners) {}
+        def result = evaluator.apply(owners.last(), evaluation)
+
+        then:
+        1 * evaluation.evaluate() >> "result"
+        result == "result"
+
+        where:
+        evaluator << [evaluateInLambda(), evaluateInBlock()]
+    }
+
     def "can evaluate owner evaluating with #evaluator again in nested block"() {
         given:
         def evaluation = Mock(TestEvaluation)
@@ -276,6 +310,15 @@ class EvaluationContextTest extends Specification {
         }
     }
 
+    String evaluateAll(BiFunction<EvaluationContext.EvaluationOwner, TestEvaluation, String> evaluator, List<EvaluationContext.EvaluationOwner> owners, TestEvaluation evaluation) {
+        if (owners.empty) {
+            return evaluation.evaluate()
+        }
+        return evaluator.apply(owners.first()) {
+            evaluateAll(evaluator, owners.drop(1), evaluation)
+        }
+    }
+
     EvaluationContext context() {
         return EvaluationContext.current()
     }
@@ -116,6 +116,16 @@ class ClassInspectorTest extends Specification {
         writeOnly.setters.size() == 1
     }
 
+    def "reuses the members of a super class inspected before"() {
+        expect:
+        def superDetails = ClassInspector.inspect(SomeClass)
+        def details = ClassInspector.inspect(SubClass)
+
+        details.getProperty('prop').getters[0].is(superDetails.getProperty('prop').getters[0])
+        details.getProperty('writeOnly').setters[0].is(superDetails.getProperty('writeOnly').setters[0])
+        details.propertyNames == ['class', 'metaClass', 'prop', 'readOnly', 'writeOnly', 'other'] as Set
+    }
+
     def "extracts properties from super interface"() {
         expect:
         def details = ClassInspector.inspect(SubInterface)
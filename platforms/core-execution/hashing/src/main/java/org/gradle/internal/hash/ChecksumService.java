@@ -19,6 +19,8 @@
 import org.gradle.internal.service.scopes.ServiceScope;
 
 import java.io.File;
+import java.util.Collection;
+import java.util.Map;
 
 @ServiceScope(Scope.BuildSession.class)
 public interface ChecksumService {
@@ -31,4 +33,12 @@ public interface ChecksumService {
     HashCode sha512(File file);
 
     HashCode hash(File src, String algorithm);
+
+    /**
+     * Hashes the file with each of the given algorithms. The content of the file is read at most once,
+     * regardless of how many of the hashes are not cached yet.
+     *
+     * @return the hash for each of the given algorithms, keyed by the algorithm as passed to this method
+     */
+    Map<String, HashCode> hash(File src, Collection<String> algorithms);
 }
@@ -24,6 +24,7 @@
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.xpath.XPathFactory;
@@ -79,6 +80,16 @@ public static TransformerFactory newTransformerFactory() {
         }
     }
 
+    /**
+     * Creates a factory for streaming parsers that do not process DTDs, so that no external entities are ever loaded.
+     */
+    public static XMLInputFactory newXMLInputFactory() {
+        XMLInputFactory xif = XMLInputFactory.newFactory();
+        xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return xif;
+    }
+
     private static String errorMessageFor(String factory) {
         return "Unable to create secure " + factory + ", please make sure that your build does not depend on an old XML parser.";
     }
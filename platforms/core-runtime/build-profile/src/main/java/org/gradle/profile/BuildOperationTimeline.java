@@ -0,0 +1,191 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.profile;
+
+import org.gradle.api.internal.tasks.execution.ExecuteTaskBuildOperationType;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationListener;
+import org.gradle.internal.operations.OperationFinishEvent;
+import org.gradle.internal.operations.OperationIdentifier;
+import org.gradle.internal.operations.OperationProgressEvent;
+import org.gradle.internal.operations.OperationStartEvent;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records which build operation is running on which thread over time, so that events sampled on a thread,
+ * like JDK Flight Recorder events, can be attributed to the build operation that caused them.
+ *
+ * <p>Times are recorded in nanoseconds since the epoch, with nanosecond precision relative to each other.</p>
+ */
+class BuildOperationTimeline implements BuildOperationListener {
+    private final long epochNanosAtStart = System.currentTimeMillis() * 1_000_000L;
+    private final long nanoTimeAtStart = System.nanoTime();
+    private final Map<OperationIdentifier, Operation> operations = new ConcurrentHashMap<>();
+    private final Map<Long, ThreadTimeline> threads = new ConcurrentHashMap<>();
+
+    @Override
+    public void started(BuildOperationDescriptor buildOperation, OperationStartEvent startEvent) {
+        long threadId = Thread.currentThread().getId();
+        Object details = buildOperation.getDetails();
+        String taskPath = details instanceof ExecuteTaskBuildOperationType.Details ? ((ExecuteTaskBuildOperationType.Details) details).getTaskPath() : null;
+        Operation operation = new Operation(buildOperation.getId(), buildOperation.getParentId(), buildOperation.getDisplayName(), taskPath, threadId, now());
+        operations.put(operation.id, operation);
+        threads.computeIfAbsent(threadId, id -> new ThreadTimeline()).enter(operation);
+    }
+
+    @Override
+    public void progress(OperationIdentifier operationIdentifier, OperationProgressEvent progressEvent) {
+    }
+
+    @Override
+    public void finished(BuildOperationDescriptor buildOperation, OperationFinishEvent finishEvent) {
+        Operation operation = operations.get(buildOperation.getId());
+        if (operation != null) {
+            operation.endNanos = now();
+            threads.get(operation.threadId).exit(operation);
+        }
+    }
+
+    /**
+     * The current time, in the same time base as the recorded operations.
+     */
+    long now() {
+        return epochNanosAtStart + (System.nanoTime() - nanoTimeAtStart);
+    }
+
+    /**
+     * Returns the innermost operation that was running on the given thread at the given time, if any.
+     */
+    @Nullable
+    public Operation operationAt(long threadId, long epochNanos) {
+        ThreadTimeline thread = threads.get(threadId);
+        return thread == null ? null : thread.operationAt(epochNanos);
+    }
+
+    /**
+     * Returns the parent of the given operation, if it has been recorded.
+     */
+    @Nullable
+    public Operation parentOf(Operation operation) {
+        return operation.parentId == null ? null : operations.get(operation.parentId);
+    }
+
+    /**
+     * Writes all recorded operations to the given file, one operation per line ordered by start time.
+     */
+    public void writeTo(File file) throws IOException {
+        List<Operation> sorted = new ArrayList<>(operations.values());
+        sorted.sort(Comparator.comparingLong(operation -> operation.startNanos));
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("id\tparentId\tthreadId\tstartNanos\tendNanos\tdisplayName\n");
+            for (Operation operation : sorted) {
+                writer.write(operation.id.getId() + "\t"
+                    + (operation.parentId == null ? "" : operation.parentId.getId()) + "\t"
+                    + operation.threadId + "\t"
+                    + operation.startNanos + "\t"
+                    + (operation.endNanos == 0 ? "" : operation.endNanos) + "\t"
+                    + operation.displayName + "\n");
+            }
+        }
+    }
+
+    public static class Operation {
+        private final OperationIdentifier id;
+        private final OperationIdentifier parentId;
+        private final String displayName;
+        private final String taskPath;
+        private final long threadId;
+        private final long startNanos;
+        private volatile long endNanos;
+
+        Operation(OperationIdentifier id, @Nullable OperationIdentifier parentId, String displayName, @Nullable String taskPath, long threadId, long startNanos) {
+            this.id = id;
+            this.parentId = parentId;
+            this.displayName = displayName;
+            this.taskPath = taskPath;
+            this.threadId = threadId;
+            this.startNanos = startNanos;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * The path of the task when this operation executes a task, null otherwise.
+         */
+        @Nullable
+        public String getTaskPath() {
+            return taskPath;
+        }
+    }
+
+    /**
+     * The operations running on a single thread. Every time an operation starts or finishes, the innermost running operation is recorded.
+     */
+    private static class ThreadTimeline {
+        private final Deque<Operation> running = new ArrayDeque<>();
+        private final List<Long> times = new ArrayList<>();
+        private final List<Operation> innermost = new ArrayList<>();
+
+        synchronized void enter(Operation operation) {
+            running.push(operation);
+            record(operation.startNanos);
+        }
+
+        synchronized void exit(Operation operation) {
+            running.removeFirstOccurrence(operation);
+            record(operation.endNanos);
+        }
+
+        private void record(long time) {
+            times.add(time);
+            innermost.add(running.peek());
+        }
+
+        @Nullable
+        synchronized Operation operationAt(long epochNanos) {
+            // Find the last change at or before the given time
+            int low = 0;
+            int high = times.size() - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (times.get(mid) <= epochNanos) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found < 0 ? null : innermost.get(found);
+        }
+    }
+}
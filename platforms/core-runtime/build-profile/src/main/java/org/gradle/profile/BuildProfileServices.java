@@ -30,6 +30,9 @@ public void configure(ServiceRegistration serviceRegistration, StartParameter st
                     serviceRegistration.add(ReportGeneratingProfileListener.class);
                     serviceRegistration.add(ProfileCoordinator.class);
                 }
+                if (JfrBuildProfiler.isEnabled(startParameter)) {
+                    serviceRegistration.add(JfrBuildProfiler.class);
+                }
             }
         });
     }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.profile;
+
+import org.gradle.StartParameter;
+import org.gradle.api.logging.LogLevel;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.initialization.RootBuildLifecycleListener;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.logging.ConsoleRenderer;
+import org.gradle.internal.logging.text.StyledTextOutput;
+import org.gradle.internal.logging.text.StyledTextOutputFactory;
+import org.gradle.internal.operations.BuildOperationListenerManager;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+import org.gradle.util.internal.GFileUtils;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Records a JDK Flight Recorder profile of a build, correlated with the build operations of the build.
+ * Can be enabled for any build with `-Dorg.gradle.internal.profile.jfr=«path-base»`.
+ * <p>
+ * Three files are created:
+ * <ul>
+ * <li>«path-base».jfr: the flight recording, which can be opened in JDK Mission Control</li>
+ * <li>«path-base»-operations.txt: the build operations with the thread they ran on and their start and end time</li>
+ * <li>«path-base»-tasks.txt: CPU samples, allocation, lock contention and file I/O for each task, broken down by the operations of the task</li>
+ * </ul>
+ * <p>
+ * The «path-base» param is optional and resolved against the current directory.
+ * If invoked as `-Dorg.gradle.internal.profile.jfr`, a base value of "jfr-profile" will be used.
+ * <p>
+ * The recording only contains events of the JVM running the build, not of worker processes.
+ * Lock and file I/O events shorter than 1ms are not recorded.
+ */
+@ServiceScope(Scope.BuildTree.class)
+public class JfrBuildProfiler implements RootBuildLifecycleListener {
+    public static final String SYSPROP = "org.gradle.internal.profile.jfr";
+
+    private static final Logger LOGGER = Logging.getLogger(JfrBuildProfiler.class);
+
+    private final File basePath;
+    private final BuildOperationListenerManager buildOperationListenerManager;
+    private final StyledTextOutputFactory textOutputFactory;
+    private final BuildOperationTimeline timeline = new BuildOperationTimeline();
+    private JfrRecording recording;
+
+    public JfrBuildProfiler(StartParameter startParameter, BuildOperationListenerManager buildOperationListenerManager, StyledTextOutputFactory textOutputFactory) {
+        this.basePath = basePath(startParameter);
+        this.buildOperationListenerManager = buildOperationListenerManager;
+        this.textOutputFactory = textOutputFactory;
+    }
+
+    public static boolean isEnabled(StartParameter startParameter) {
+        String value = getProperty(startParameter);
+        return value != null && !value.equals(Boolean.FALSE.toString());
+    }
+
+    @Nullable
+    private static String getProperty(StartParameter startParameter) {
+        String value = startParameter.getSystemPropertiesArgs().get(SYSPROP);
+        if (value == null) {
+            value = System.getProperty(SYSPROP);
+        }
+        return value;
+    }
+
+    private static File basePath(StartParameter startParameter) {
+        String value = getProperty(startParameter);
+        if (value == null || value.isEmpty() || value.equals(Boolean.TRUE.toString())) {
+            value = "jfr-profile";
+        }
+        File file = new File(value);
+        return file.isAbsolute() ? file : new File(startParameter.getCurrentDir(), value);
+    }
+
+    @Override
+    public void afterStart() {
+        buildOperationListenerManager.addListener(timeline);
+        try {
+            recording = JfrRecording.start();
+        } catch (IllegalStateException e) {
+            LOGGER.warn("{} Only the build operation timeline will be recorded.", e.getMessage());
+        }
+    }
+
+    @Override
+    public void beforeComplete() {
+        buildOperationListenerManager.removeListener(timeline);
+        try {
+            GFileUtils.mkdirs(basePath.getAbsoluteFile().getParentFile());
+            timeline.writeTo(file("-operations.txt"));
+            if (recording != null) {
+                File recordingFile = file(".jfr");
+                recording.stopAndWriteTo(recordingFile);
+                recording = null;
+                writeReport(recordingFile, file("-tasks.txt"));
+                renderReportUrl(recordingFile);
+            }
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private void writeReport(File recordingFile, File reportFile) throws IOException {
+        JfrProfileReport report = new JfrProfileReport(timeline);
+        JfrRecording.readEvents(recordingFile, report);
+        try (Writer writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+            report.writeTo(writer);
+        }
+    }
+
+    private File file(String suffix) {
+        return new File(basePath.getPath() + suffix);
+    }
+
+    private void renderReportUrl(File recordingFile) {
+        StyledTextOutput textOutput = textOutputFactory.create(JfrBuildProfiler.class, LogLevel.LIFECYCLE);
+        textOutput.println();
+        textOutput.formatln("See the JFR profile at: %s", new ConsoleRenderer().asClickableFileUrl(recordingFile));
+    }
+}
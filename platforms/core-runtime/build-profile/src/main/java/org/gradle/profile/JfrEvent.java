@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.profile;
+
+import javax.annotation.Nullable;
+
+/**
+ * The parts of a JDK Flight Recorder event that are used to break down a build.
+ */
+class JfrEvent {
+    public static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    public static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    public static final String ALLOCATION_IN_NEW_TLAB = "jdk.ObjectAllocationInNewTLAB";
+    public static final String ALLOCATION_OUTSIDE_TLAB = "jdk.ObjectAllocationOutsideTLAB";
+    public static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+    public static final String THREAD_PARK = "jdk.ThreadPark";
+    public static final String FILE_READ = "jdk.FileRead";
+    public static final String FILE_WRITE = "jdk.FileWrite";
+    public static final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+
+    public static final long NO_THREAD = -1;
+
+    private final String type;
+    private final long threadId;
+    private final long startNanos;
+    private final long durationNanos;
+    private final long value;
+
+    public JfrEvent(String type, long threadId, long startNanos, long durationNanos, long value) {
+        this.type = type;
+        this.threadId = threadId;
+        this.startNanos = startNanos;
+        this.durationNanos = durationNanos;
+        this.value = value;
+    }
+
+    /**
+     * The name of the event field that holds the value of an event of the given type, if any.
+     */
+    @Nullable
+    static String valueField(String type) {
+        switch (type) {
+            case ALLOCATION_SAMPLE:
+                return "weight";
+            case ALLOCATION_IN_NEW_TLAB:
+                return "tlabSize";
+            case ALLOCATION_OUTSIDE_TLAB:
+                return "allocationSize";
+            case FILE_READ:
+                return "bytesRead";
+            case FILE_WRITE:
+                return "bytesWritten";
+            default:
+                return null;
+        }
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * The Java thread id of the thread the event happened on, or {@link #NO_THREAD}.
+     */
+    public long getThreadId() {
+        return threadId;
+    }
+
+    /**
+     * The start time of the event, in nanoseconds since the epoch.
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * The number of bytes allocated, read or written for allocation and file events, 0 for other events.
+     */
+    public long getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.profile;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Breaks down JDK Flight Recorder events by task, and by the operations that the time of a task is spent in.
+ *
+ * <p>Events are attributed to the innermost build operation running on the thread of the event when the event started.
+ * Events that happen outside of a task are attributed to the top level build operations, like configuring the build.</p>
+ */
+class JfrProfileReport implements Consumer<JfrEvent> {
+    static final String OUTSIDE_OF_TASKS = "Outside of tasks";
+    static final String TASK_OTHER = "Other";
+
+    private final BuildOperationTimeline timeline;
+    private final Map<String, TaskBreakdown> tasks = new LinkedHashMap<>();
+    private int garbageCollections;
+    private long garbageCollectionNanos;
+
+    JfrProfileReport(BuildOperationTimeline timeline) {
+        this.timeline = timeline;
+    }
+
+    @Override
+    public void accept(JfrEvent event) {
+        if (JfrEvent.GARBAGE_COLLECTION.equals(event.getType())) {
+            garbageCollections++;
+            garbageCollectionNanos += event.getDurationNanos();
+            return;
+        }
+        if (event.getThreadId() == JfrEvent.NO_THREAD) {
+            return;
+        }
+        BuildOperationTimeline.Operation operation = timeline.operationAt(event.getThreadId(), event.getStartNanos());
+        if (operation == null) {
+            return;
+        }
+
+        // Walk up to the task executing the operation, remembering the operation directly below it
+        BuildOperationTimeline.Operation phase = null;
+        BuildOperationTimeline.Operation current = operation;
+        BuildOperationTimeline.Operation previous = null;
+        while (current != null && current.getTaskPath() == null) {
+            phase = previous;
+            previous = current;
+            current = timeline.parentOf(current);
+        }
+
+        TaskBreakdown task;
+        String phaseName;
+        if (current != null) {
+            task = tasks.computeIfAbsent(current.getTaskPath(), TaskBreakdown::new);
+            phaseName = previous == null ? TASK_OTHER : previous.getDisplayName();
+        } else {
+            // Not part of a task, use the operation directly below the root operation
+            task = tasks.computeIfAbsent(OUTSIDE_OF_TASKS, TaskBreakdown::new);
+            phaseName = phase == null ? previous.getDisplayName() : phase.getDisplayName();
+        }
+        task.total.add(event);
+        task.phases.computeIfAbsent(phaseName, name -> new Breakdown()).add(event);
+    }
+
+    public void writeTo(Writer writer) throws IOException {
+        writer.write("Garbage collection: " + garbageCollections + " collections, " + formatNanos(garbageCollectionNanos) + " in total\n");
+        List<TaskBreakdown> sorted = new ArrayList<>(tasks.values());
+        sorted.sort(Comparator.comparingLong((TaskBreakdown task) -> task.total.cpuSamples).reversed());
+        for (TaskBreakdown task : sorted) {
+            writer.write("\n");
+            writer.write(task.name + "\n");
+            writer.write("  " + task.total.format() + "\n");
+            List<Map.Entry<String, Breakdown>> phases = new ArrayList<>(task.phases.entrySet());
+            phases.sort(Comparator.comparingLong((Map.Entry<String, Breakdown> phase) -> phase.getValue().cpuSamples).reversed());
+            for (Map.Entry<String, Breakdown> phase : phases) {
+                writer.write("    " + phase.getKey() + ": " + phase.getValue().format() + "\n");
+            }
+        }
+    }
+
+    @Nullable
+    Breakdown getTask(String taskPath) {
+        TaskBreakdown task = tasks.get(taskPath);
+        return task == null ? null : task.total;
+    }
+
+    @Nullable
+    Breakdown getPhase(String taskPath, String phase) {
+        TaskBreakdown task = tasks.get(taskPath);
+        return task == null ? null : task.phases.get(phase);
+    }
+
+    private static String formatNanos(long nanos) {
+        return nanos / 1_000_000 + "ms";
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes >= 1024 * 1024) {
+            return bytes / (1024 * 1024) + "MB";
+        }
+        return bytes / 1024 + "kB";
+    }
+
+    private static class TaskBreakdown {
+        final String name;
+        final Breakdown total = new Breakdown();
+        final Map<String, Breakdown> phases = new LinkedHashMap<>();
+
+        TaskBreakdown(String name) {
+            this.name = name;
+        }
+    }
+
+    static class Breakdown {
+        long cpuSamples;
+        long allocatedBytes;
+        long lockContentionNanos;
+        long fileReadBytes;
+        long fileReadNanos;
+        long fileWriteBytes;
+        long fileWriteNanos;
+
+        void add(JfrEvent event) {
+            switch (event.getType()) {
+                case JfrEvent.EXECUTION_SAMPLE:
+                    cpuSamples++;
+                    break;
+                case JfrEvent.ALLOCATION_SAMPLE:
+                case JfrEvent.ALLOCATION_IN_NEW_TLAB:
+                case JfrEvent.ALLOCATION_OUTSIDE_TLAB:
+                    allocatedBytes += event.getValue();
+                    break;
+                case JfrEvent.MONITOR_ENTER:
+                case JfrEvent.THREAD_PARK:
+                    lockContentionNanos += event.getDurationNanos();
+                    break;
+                case JfrEvent.FILE_READ:
+                    fileReadBytes += event.getValue();
+                    fileReadNanos += event.getDurationNanos();
+                    break;
+                case JfrEvent.FILE_WRITE:
+                    fileWriteBytes += event.getValue();
+                    fileWriteNanos += event.getDurationNanos();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        String format() {
+            return "CPU samples " + cpuSamples
+                + ", allocated " + formatBytes(allocatedBytes)
+                + ", lock contention " + formatNanos(lockContentionNanos)
+                + ", file read " + formatBytes(fileReadBytes) + " in " + formatNanos(fileReadNanos)
+                + ", file write " + formatBytes(fileWriteBytes) + " in " + formatNanos(fileWriteNanos);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.profile;
+
+import com.google.common.collect.ImmutableMap;
+import org.gradle.api.JavaVersion;
+import org.gradle.internal.UncheckedException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A JDK Flight Recorder recording of the current JVM.
+ *
+ * <p>Gradle is compiled against Java 8, so the recording is controlled through the flight recorder MBean and recording files
+ * are read reflectively using the {@code jdk.jfr.consumer} API. Both are available from Java 11.</p>
+ */
+class JfrRecording {
+    private static final String FLIGHT_RECORDER_MBEAN = "jdk.management.jfr:type=FlightRecorder";
+
+    private final MBeanServer server;
+    private final ObjectName flightRecorder;
+    private final long recordingId;
+
+    private JfrRecording(MBeanServer server, ObjectName flightRecorder, long recordingId) {
+        this.server = server;
+        this.flightRecorder = flightRecorder;
+        this.recordingId = recordingId;
+    }
+
+    /**
+     * Starts recording the events that are required to break down the build by build operation.
+     *
+     * @throws IllegalStateException when JDK Flight Recorder is not available in this JVM
+     */
+    public static JfrRecording start() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName flightRecorder = new ObjectName(FLIGHT_RECORDER_MBEAN);
+            if (!server.isRegistered(flightRecorder)) {
+                throw new IllegalStateException("JDK Flight Recorder is not available in this JVM.");
+            }
+            long recordingId = (Long) server.invoke(flightRecorder, "newRecording", new Object[0], new String[0]);
+            server.invoke(flightRecorder, "setConfiguration", new Object[]{recordingId, recordingConfiguration()}, new String[]{long.class.getName(), String.class.getName()});
+            server.invoke(flightRecorder, "startRecording", new Object[]{recordingId}, new String[]{long.class.getName()});
+            return new JfrRecording(server, flightRecorder, recordingId);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not start JDK Flight Recorder recording.", e);
+        }
+    }
+
+    /**
+     * Creates the content of a recording configuration, in the same format as the .jfc files that come with the JDK.
+     */
+    private static String recordingConfiguration() {
+        StringBuilder configuration = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<configuration version=\"2.0\">\n");
+        for (Map.Entry<String, Map<String, String>> event : recordingSettings().entrySet()) {
+            configuration.append("  <event name=\"").append(event.getKey()).append("\">\n");
+            for (Map.Entry<String, String> setting : event.getValue().entrySet()) {
+                configuration.append("    <setting name=\"").append(setting.getKey()).append("\">").append(setting.getValue()).append("</setting>\n");
+            }
+            configuration.append("  </event>\n");
+        }
+        return configuration.append("</configuration>\n").toString();
+    }
+
+    private static Map<String, Map<String, String>> recordingSettings() {
+        ImmutableMap.Builder<String, Map<String, String>> settings = ImmutableMap.builder();
+        settings.put(JfrEvent.EXECUTION_SAMPLE, ImmutableMap.of("enabled", "true", "period", "10 ms"));
+        if (JavaVersion.current().isCompatibleWith(JavaVersion.VERSION_16)) {
+            settings.put(JfrEvent.ALLOCATION_SAMPLE, ImmutableMap.of("enabled", "true", "throttle", "300/s"));
+        } else {
+            // Allocation sampling is not available, fall back to the more expensive TLAB events
+            settings.put(JfrEvent.ALLOCATION_IN_NEW_TLAB, ImmutableMap.of("enabled", "true"));
+            settings.put(JfrEvent.ALLOCATION_OUTSIDE_TLAB, ImmutableMap.of("enabled", "true"));
+        }
+        for (String thresholdEvent : new String[]{JfrEvent.MONITOR_ENTER, JfrEvent.THREAD_PARK, JfrEvent.FILE_READ, JfrEvent.FILE_WRITE}) {
+            settings.put(thresholdEvent, ImmutableMap.of("enabled", "true", "threshold", "1 ms"));
+        }
+        settings.put(JfrEvent.GARBAGE_COLLECTION, ImmutableMap.of("enabled", "true"));
+        return settings.build();
+    }
+
+    /**
+     * Stops the recording and writes it to the given file.
+     */
+    public void stopAndWriteTo(File recordingFile) {
+        try {
+            server.invoke(flightRecorder, "stopRecording", new Object[]{recordingId}, new String[]{long.class.getName()});
+            server.invoke(flightRecorder, "copyTo", new Object[]{recordingId, recordingFile.getAbsolutePath()}, new String[]{long.class.getName(), String.class.getName()});
+            server.invoke(flightRecorder, "closeRecording", new Object[]{recordingId}, new String[]{long.class.getName()});
+        } catch (JMException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    /**
+     * Reads the events of a recording file, in the order they are stored in the file.
+     */
+    public static void readEvents(File recordingFile, Consumer<JfrEvent> consumer) {
+        try {
+            RecordingFileReader reader = new RecordingFileReader();
+            reader.read(recordingFile.toPath(), consumer);
+        } catch (InvocationTargetException e) {
+            throw UncheckedException.throwAsUncheckedException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not read JDK Flight Recorder recording " + recordingFile + ".", e);
+        }
+    }
+
+    private static class RecordingFileReader {
+        private final Constructor<?> newRecordingFile;
+        private final Method hasMoreEvents;
+        private final Method readEvent;
+        private final Method close;
+        private final Method getEventType;
+        private final Method getEventTypeName;
+        private final Method getStartTime;
+        private final Method getDuration;
+        private final Method hasField;
+        private final Method getLong;
+        private final Method getThread;
+        private final Method getJavaThreadId;
+
+        RecordingFileReader() throws ReflectiveOperationException {
+            Class<?> recordingFile = Class.forName("jdk.jfr.consumer.RecordingFile");
+            Class<?> recordedObject = Class.forName("jdk.jfr.consumer.RecordedObject");
+            Class<?> recordedEvent = Class.forName("jdk.jfr.consumer.RecordedEvent");
+            newRecordingFile = recordingFile.getConstructor(Path.class);
+            hasMoreEvents = recordingFile.getMethod("hasMoreEvents");
+            readEvent = recordingFile.getMethod("readEvent");
+            close = recordingFile.getMethod("close");
+            getEventType = recordedEvent.getMethod("getEventType");
+            getEventTypeName = Class.forName("jdk.jfr.EventType").getMethod("getName");
+            getStartTime = recordedEvent.getMethod("getStartTime");
+            getDuration = recordedEvent.getMethod("getDuration");
+            hasField = recordedObject.getMethod("hasField", String.class);
+            getLong = recordedObject.getMethod("getLong", String.class);
+            getThread = recordedObject.getMethod("getThread", String.class);
+            getJavaThreadId = Class.forName("jdk.jfr.consumer.RecordedThread").getMethod("getJavaThreadId");
+        }
+
+        void read(Path path, Consumer<JfrEvent> consumer) throws ReflectiveOperationException {
+            Object recordingFile = newRecordingFile.newInstance(path);
+            try {
+                while ((Boolean) hasMoreEvents.invoke(recordingFile)) {
+                    consumer.accept(toEvent(readEvent.invoke(recordingFile)));
+                }
+            } finally {
+                close.invoke(recordingFile);
+            }
+        }
+
+        private JfrEvent toEvent(Object event) throws ReflectiveOperationException {
+            String type = (String) getEventTypeName.invoke(getEventType.invoke(event));
+            Instant startTime = (Instant) getStartTime.invoke(event);
+            Duration duration = (Duration) getDuration.invoke(event);
+            String threadField = JfrEvent.EXECUTION_SAMPLE.equals(type) ? "sampledThread" : "eventThread";
+            Object thread = (Boolean) hasField.invoke(event, threadField) ? getThread.invoke(event, threadField) : null;
+            long threadId = thread == null ? JfrEvent.NO_THREAD : (Long) getJavaThreadId.invoke(thread);
+            long startNanos = startTime.getEpochSecond() * 1_000_000_000L + startTime.getNano();
+            return new JfrEvent(type, threadId, startNanos, duration.toNanos(), valueOf(type, event));
+        }
+
+        private long valueOf(String type, Object event) throws ReflectiveOperationException {
+            String field = JfrEvent.valueField(type);
+            if (field == null || !(Boolean) hasField.invoke(event, field)) {
+                return 0;
+            }
+            return (Long) getLong.invoke(event, field);
+        }
+    }
+}
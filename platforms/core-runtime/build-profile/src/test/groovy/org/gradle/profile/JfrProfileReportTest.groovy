@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.profile
+
+import org.gradle.api.internal.tasks.execution.ExecuteTaskBuildOperationType
+import org.gradle.internal.operations.BuildOperationDescriptor
+import org.gradle.internal.operations.OperationFinishEvent
+import org.gradle.internal.operations.OperationIdentifier
+import org.gradle.internal.operations.OperationStartEvent
+import spock.lang.Specification
+
+class JfrProfileReportTest extends Specification {
+    def timeline = new BuildOperationTimeline()
+    def report = new JfrProfileReport(timeline)
+    def threadId = Thread.currentThread().id
+
+    def "attributes events to the task and the operation of the task they happen in"() {
+        def root = operation(1, null, "Run build")
+        def task = operation(2, 1, "Task :a", Stub(ExecuteTaskBuildOperationType.Details) { getTaskPath() >> ":a" })
+        def snapshot = operation(3, 2, "Snapshot task inputs for :a")
+        def hash = operation(4, 3, "Hash file")
+
+        when:
+        start(root)
+        def beforeTask = timeline.now()
+        start(task)
+        def inTask = timeline.now()
+        start(snapshot)
+        start(hash)
+        def inHash = timeline.now()
+        finish(hash)
+        finish(snapshot)
+        finish(task)
+        def afterTask = timeline.now()
+        finish(root)
+
+        report.accept(new JfrEvent(JfrEvent.EXECUTION_SAMPLE, threadId, beforeTask, 0, 0))
+        report.accept(new JfrEvent(JfrEvent.EXECUTION_SAMPLE, threadId, inTask, 0, 0))
+        report.accept(new JfrEvent(JfrEvent.EXECUTION_SAMPLE, threadId, inHash, 0, 0))
+        report.accept(new JfrEvent(JfrEvent.FILE_READ, threadId, inHash, 2_000_000, 100))
+        report.accept(new JfrEvent(JfrEvent.ALLOCATION_SAMPLE, threadId, afterTask, 0, 1024))
+
+        then:
+        report.getTask(":a").cpuSamples == 2
+        report.getTask(":a").fileReadBytes == 100
+        report.getTask(":a").fileReadNanos == 2_000_000
+        report.getPhase(":a", JfrProfileReport.TASK_OTHER).cpuSamples == 1
+        report.getPhase(":a", "Snapshot task inputs for :a").cpuSamples == 1
+
+        and:
+        report.getTask(JfrProfileReport.OUTSIDE_OF_TASKS).cpuSamples == 1
+        report.getTask(JfrProfileReport.OUTSIDE_OF_TASKS).allocatedBytes == 1024
+        report.getPhase(JfrProfileReport.OUTSIDE_OF_TASKS, "Run build").cpuSamples == 1
+    }
+
+    def "attributes events of operations running on other threads to the task"() {
+        def task = operation(1, null, "Task :a", Stub(ExecuteTaskBuildOperationType.Details) { getTaskPath() >> ":a" })
+        def work = operation(2, 1, "Execute work action")
+        long workThreadId = 0
+        long inWork = 0
+
+        when:
+        start(task)
+        def worker = Thread.start {
+            workThreadId = Thread.currentThread().id
+            start(work)
+            inWork = timeline.now()
+            finish(work)
+        }
+        worker.join()
+        finish(task)
+
+        report.accept(new JfrEvent(JfrEvent.MONITOR_ENTER, workThreadId, inWork, 3_000_000, 0))
+        report.accept(new JfrEvent(JfrEvent.EXECUTION_SAMPLE, workThreadId, timeline.now(), 0, 0))
+
+        then:
+        report.getTask(":a").lockContentionNanos == 3_000_000
+        report.getPhase(":a", "Execute work action").lockContentionNanos == 3_000_000
+        report.getTask(":a").cpuSamples == 0
+        report.getTask(JfrProfileReport.OUTSIDE_OF_TASKS) == null
+    }
+
+    def "ignores events of threads that do not run build operations"() {
+        def root = operation(1, null, "Run build")
+
+        when:
+        start(root)
+        report.accept(new JfrEvent(JfrEvent.EXECUTION_SAMPLE, threadId + 1000, timeline.now(), 0, 0))
+        report.accept(new JfrEvent(JfrEvent.EXECUTION_SAMPLE, JfrEvent.NO_THREAD, timeline.now(), 0, 0))
+        finish(root)
+
+        then:
+        report.getTask(JfrProfileReport.OUTSIDE_OF_TASKS) == null
+    }
+
+    private static BuildOperationDescriptor operation(long id, Long parentId, String displayName, Object details = null) {
+        return BuildOperationDescriptor.displayName(displayName)
+            .details(details)
+            .build(new OperationIdentifier(id), parentId == null ? null : new OperationIdentifier(parentId))
+    }
+
+    private void start(BuildOperationDescriptor operation) {
+        timeline.started(operation, new OperationStartEvent(0))
+    }
+
+    private void finish(BuildOperationDescriptor operation) {
+        timeline.finished(operation, new OperationFinishEvent(0, 0, null, null))
+    }
+}
@@ -18,13 +18,18 @@
 
 import org.gradle.initialization.BuildEventConsumer;
 import org.gradle.launcher.daemon.server.api.DaemonCommandExecution;
+import org.gradle.tooling.internal.provider.serialization.SerializedPayloadChunk;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 /**
  * An event consumer that asynchronously dispatches events to the client.
+ *
+ * <p>Chunks of a serialized model are the exception: {@link #dispatch(Object)} waits until each chunk has been sent, so that the daemon does not
+ * accumulate the chunks of a large model faster than the client connection can take them.</p>
  */
 class DaemonConnectionBackedEventConsumer implements BuildEventConsumer {
     private final DaemonCommandExecution execution;
@@ -38,7 +43,26 @@ public DaemonConnectionBackedEventConsumer(DaemonCommandExecution execution) {
 
     @Override
     public void dispatch(Object event) {
-        queue.offer(event);
+        if (event instanceof SerializedPayloadChunk) {
+            dispatchAndWait(event);
+        } else {
+            queue.offer(event);
+        }
+    }
+
+    private void dispatchAndWait(Object event) {
+        PendingEvent pendingEvent = new PendingEvent(event);
+        queue.offer(pendingEvent);
+        try {
+            // The forwarder stops without sending the remaining events when the client connection fails
+            while (!pendingEvent.sent.await(10, TimeUnit.MILLISECONDS)) {
+                if (!forwarder.isAlive()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     public void waitForFinish() {
@@ -77,6 +101,15 @@ private Object getNextEvent() {
         }
 
         private void dispatchEvent(Object event) {
+            if (event instanceof PendingEvent) {
+                PendingEvent pendingEvent = (PendingEvent) event;
+                try {
+                    dispatchEvent(pendingEvent.event);
+                } finally {
+                    pendingEvent.sent.countDown();
+                }
+                return;
+            }
             try {
                 execution.getConnection().event(event);
             } catch (RuntimeException e) {
@@ -93,4 +126,13 @@ public void waitForFinish() {
             }
         }
     }
+
+    private static class PendingEvent {
+        private final Object event;
+        private final CountDownLatch sent = new CountDownLatch(1);
+
+        PendingEvent(Object event) {
+            this.event = event;
+        }
+    }
 }
@@ -260,7 +260,7 @@ private Object run(
             BuildRequestContext buildRequestContext = new DefaultBuildRequestContext(new DefaultBuildRequestMetaData(providerParameters.getStartTime(), interactive), cancellationToken, buildEventConsumer);
             BuildActionResult result = executer.execute(action, new ConnectionOperationParameters(parameters.daemonParams, parameters.tapiSystemProperties, providerParameters), buildRequestContext);
             throwFailure(result);
-            return payloadSerializer.deserialize(result.getResult());
+            return payloadSerializer.deserialize(progressListenerConfiguration.payloadChunkConsumer.complete(result.getResult()));
         } finally {
             progressListenerConfiguration.failsafeWrapper.rethrowErrors();
         }
@@ -445,10 +445,17 @@ static final class ProgressListenerConfiguration {
 
         private final BuildEventSubscriptions clientSubscriptions;
         private final FailsafeBuildProgressListenerAdapter failsafeWrapper;
+        private final SerializedPayloadChunkConsumer payloadChunkConsumer;
         private final BuildEventConsumer buildEventConsumer;
 
-        ProgressListenerConfiguration(BuildEventSubscriptions clientSubscriptions, BuildEventConsumer buildEventConsumer, FailsafeBuildProgressListenerAdapter failsafeWrapper) {
+        ProgressListenerConfiguration(
+            BuildEventSubscriptions clientSubscriptions,
+            SerializedPayloadChunkConsumer payloadChunkConsumer,
+            BuildEventConsumer buildEventConsumer,
+            FailsafeBuildProgressListenerAdapter failsafeWrapper
+        ) {
             this.clientSubscriptions = clientSubscriptions;
+            this.payloadChunkConsumer = payloadChunkConsumer;
             this.buildEventConsumer = buildEventConsumer;
             this.failsafeWrapper = failsafeWrapper;
         }
@@ -470,12 +477,14 @@ static ProgressListenerConfiguration from(
             FailsafeBuildProgressListenerAdapter progressListenerAdapter = new FailsafeBuildProgressListenerAdapter(buildProgressListener);
             BuildEventConsumer buildEventConsumer = clientSubscriptions.isAnyOperationTypeRequested() ? new BuildProgressListenerInvokingBuildEventConsumer(progressListenerAdapter) : new NoOpBuildEventConsumer();
             buildEventConsumer = new StreamedValueConsumer(providerParameters, payloadSerializer, buildEventConsumer);
+            SerializedPayloadChunkConsumer payloadChunkConsumer = new SerializedPayloadChunkConsumer(buildEventConsumer);
+            buildEventConsumer = payloadChunkConsumer;
             if (Boolean.TRUE.equals(providerParameters.isEmbedded())) {
                 // Contract requires build events are delivered by a single thread. This is taken care of by the daemon client when not in embedded mode
                 // Need to apply some synchronization when in embedded mode
                 buildEventConsumer = new SynchronizedConsumer(buildEventConsumer);
             }
-            return new ProgressListenerConfiguration(clientSubscriptions, buildEventConsumer, progressListenerAdapter);
+            return new ProgressListenerConfiguration(clientSubscriptions, payloadChunkConsumer, buildEventConsumer, progressListenerAdapter);
         }
 
         private static Set<OperationType> toOperationTypes(InternalBuildProgressListener buildProgressListener, GradleVersion consumerVersion) {
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.tooling.internal.provider;
+
+import org.gradle.initialization.BuildEventConsumer;
+import org.gradle.tooling.internal.provider.serialization.SerializedPayload;
+import org.gradle.tooling.internal.provider.serialization.SerializedPayloadChunk;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the chunks of the serialized model sent ahead of the build result, so that they can be joined with the chunks carried by the result.
+ *
+ * <p>All chunks are held until the result arrives, as the whole serialized model was before it was sent in chunks. Only the daemon side avoids
+ * holding the serialized model.</p>
+ */
+public class SerializedPayloadChunkConsumer implements BuildEventConsumer {
+    private final BuildEventConsumer delegate;
+    private final List<byte[]> chunks = new ArrayList<byte[]>();
+
+    public SerializedPayloadChunkConsumer(BuildEventConsumer delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void dispatch(Object message) {
+        if (message instanceof SerializedPayloadChunk) {
+            synchronized (chunks) {
+                chunks.add(((SerializedPayloadChunk) message).getBytes());
+            }
+        } else {
+            delegate.dispatch(message);
+        }
+    }
+
+    /**
+     * Returns the given result, preceded by the chunks received so far.
+     */
+    @Nullable
+    public SerializedPayload complete(@Nullable SerializedPayload result) {
+        synchronized (chunks) {
+            if (result == null || chunks.isEmpty()) {
+                return result;
+            }
+            List<byte[]> serializedModel = new ArrayList<byte[]>(chunks.size() + result.getSerializedModel().size());
+            serializedModel.addAll(chunks);
+            serializedModel.addAll(result.getSerializedModel());
+            chunks.clear();
+            return new SerializedPayload(result.getHeader(), serializedModel);
+        }
+    }
+}
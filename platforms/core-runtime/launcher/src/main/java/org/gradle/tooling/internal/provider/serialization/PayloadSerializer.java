@@ -18,6 +18,7 @@
 
 import javax.annotation.concurrent.ThreadSafe;
 
+import org.gradle.api.Action;
 import org.gradle.internal.Cast;
 import org.gradle.internal.IoActions;
 import org.gradle.internal.UncheckedException;
@@ -27,8 +28,11 @@
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @ThreadSafe
@@ -44,10 +48,32 @@ public SerializedPayload serialize(@Nullable Object payload) {
             return new SerializedPayload(null, Collections.<byte[]>emptyList());
         }
 
+        StreamByteBuffer buffer = new StreamByteBuffer();
+        Map<Short, ClassLoaderDetails> classLoaders = serialize(payload, buffer.getOutputStream());
+        return new SerializedPayload(classLoaders, buffer.readAsListOfByteArrays());
+    }
+
+    /**
+     * Serializes the given payload, handing each chunk of the serialized model to the given consumer as soon as it is complete,
+     * rather than holding the whole serialized model in memory. The serializer itself only holds the chunk being written, so the memory
+     * used depends on how long the consumer retains the chunks it is handed.
+     *
+     * <p>The returned payload holds the last chunk of the serialized model. It must be preceded by the chunks handed to the consumer to be deserialized.</p>
+     */
+    public SerializedPayload serialize(@Nullable Object payload, Action<? super byte[]> chunkConsumer) {
+        if (payload == null) {
+            return new SerializedPayload(null, Collections.<byte[]>emptyList());
+        }
+
+        ChunkingOutputStream outputStream = new ChunkingOutputStream(chunkConsumer);
+        Map<Short, ClassLoaderDetails> classLoaders = serialize(payload, outputStream);
+        return new SerializedPayload(classLoaders, outputStream.getLastChunk());
+    }
+
+    private Map<Short, ClassLoaderDetails> serialize(Object payload, OutputStream outputStream) {
         final SerializeMap map = classLoaderRegistry.newSerializeSession();
         try {
-            StreamByteBuffer buffer = new StreamByteBuffer();
-            final ObjectOutputStream objectStream = new PayloadSerializerObjectOutputStream(buffer.getOutputStream(), map);
+            final ObjectOutputStream objectStream = new PayloadSerializerObjectOutputStream(outputStream, map);
 
             try {
                 objectStream.writeObject(payload);
@@ -57,7 +83,7 @@ public SerializedPayload serialize(@Nullable Object payload) {
 
             Map<Short, ClassLoaderDetails> classLoaders = new HashMap<Short, ClassLoaderDetails>();
             map.collectClassLoaderDefinitions(classLoaders);
-            return new SerializedPayload(classLoaders, buffer.readAsListOfByteArrays());
+            return classLoaders;
         } catch (IOException e) {
             throw UncheckedException.throwAsUncheckedException(e);
         }
@@ -79,4 +105,48 @@ public SerializedPayload serialize(@Nullable Object payload) {
         }
     }
 
+    private static class ChunkingOutputStream extends OutputStream {
+        private static final int CHUNK_SIZE = 1024 * 1024;
+
+        private final Action<? super byte[]> chunkConsumer;
+        private byte[] chunk = new byte[CHUNK_SIZE];
+        private int count;
+
+        ChunkingOutputStream(Action<? super byte[]> chunkConsumer) {
+            this.chunkConsumer = chunkConsumer;
+        }
+
+        @Override
+        public void write(int b) {
+            if (count == chunk.length) {
+                nextChunk();
+            }
+            chunk[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            while (len > 0) {
+                if (count == chunk.length) {
+                    nextChunk();
+                }
+                int copied = Math.min(len, chunk.length - count);
+                System.arraycopy(b, off, chunk, count, copied);
+                count += copied;
+                off += copied;
+                len -= copied;
+            }
+        }
+
+        private void nextChunk() {
+            // Only hand over a chunk once more content follows it, so that the last chunk is never empty
+            chunkConsumer.execute(chunk);
+            chunk = new byte[CHUNK_SIZE];
+            count = 0;
+        }
+
+        List<byte[]> getLastChunk() {
+            return Collections.singletonList(count == chunk.length ? chunk : Arrays.copyOf(chunk, count));
+        }
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.launcher.daemon.server.exec
+
+import org.gradle.launcher.daemon.server.api.DaemonCommandExecution
+import org.gradle.launcher.daemon.server.api.DaemonConnection
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+import org.gradle.tooling.internal.provider.serialization.SerializedPayloadChunk
+
+class DaemonConnectionBackedEventConsumerTest extends ConcurrentSpec {
+    def connection = Mock(DaemonConnection)
+    def execution = Stub(DaemonCommandExecution) {
+        getConnection() >> connection
+    }
+    def chunk = new SerializedPayloadChunk(new byte[1])
+
+    def "forwards events in the order they are dispatched"() {
+        def consumer = new DaemonConnectionBackedEventConsumer(execution)
+
+        when:
+        consumer.dispatch("first")
+        consumer.dispatch(chunk)
+        consumer.dispatch("second")
+        consumer.waitForFinish()
+
+        then:
+        1 * connection.event("first")
+
+        then:
+        1 * connection.event(chunk)
+
+        then:
+        1 * connection.event("second")
+        0 * connection._
+    }
+
+    def "does not wait for an event to be sent"() {
+        def consumer = new DaemonConnectionBackedEventConsumer(execution)
+
+        when:
+        async {
+            consumer.dispatch("event")
+            instant.dispatched
+            consumer.waitForFinish()
+        }
+
+        then:
+        instant.dispatched < instant.sent
+
+        and:
+        1 * connection.event("event") >> {
+            thread.blockUntil.dispatched
+            instant.sent
+        }
+    }
+
+    def "waits until a chunk of a serialized model has been sent"() {
+        def consumer = new DaemonConnectionBackedEventConsumer(execution)
+
+        when:
+        async {
+            consumer.dispatch(chunk)
+            instant.dispatched
+            consumer.waitForFinish()
+        }
+
+        then:
+        instant.dispatched > instant.sent
+
+        and:
+        1 * connection.event(chunk) >> {
+            thread.block()
+            instant.sent
+        }
+    }
+
+    def "stops waiting for a chunk when the client connection fails"() {
+        def consumer = new DaemonConnectionBackedEventConsumer(execution)
+
+        when:
+        consumer.dispatch("event")
+        consumer.dispatch(chunk)
+        consumer.waitForFinish()
+
+        then:
+        1 * connection.event("event") >> { throw new RuntimeException("broken") }
+        0 * connection._
+    }
+}
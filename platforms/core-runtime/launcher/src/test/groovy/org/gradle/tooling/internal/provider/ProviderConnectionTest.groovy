@@ -16,14 +16,38 @@
 
 package org.gradle.tooling.internal.provider
 
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.api.internal.tasks.userinput.UserInputReader
+import org.gradle.api.logging.LogLevel
+import org.gradle.initialization.BuildRequestContext
+import org.gradle.initialization.DefaultBuildCancellationToken
+import org.gradle.initialization.layout.BuildLayoutFactory
+import org.gradle.internal.Factory
+import org.gradle.internal.jvm.inspection.JvmVersionDetector
+import org.gradle.internal.logging.LoggingManagerInternal
+import org.gradle.internal.logging.console.GlobalUserInputReceiver
+import org.gradle.internal.service.ServiceRegistry
+import org.gradle.launcher.daemon.client.DaemonClientFactory
+import org.gradle.launcher.exec.BuildActionExecuter
+import org.gradle.launcher.exec.BuildActionParameters
+import org.gradle.launcher.exec.BuildActionResult
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.gradle.tooling.events.OperationType
 import org.gradle.tooling.internal.protocol.InternalBuildProgressListener
+import org.gradle.tooling.internal.protocol.ProgressListenerVersion1
 import org.gradle.tooling.internal.provider.connection.ProviderOperationParameters
+import org.gradle.tooling.internal.provider.serialization.ClassLoaderCache
+import org.gradle.tooling.internal.provider.serialization.DefaultPayloadClassLoaderRegistry
+import org.gradle.tooling.internal.provider.serialization.ModelClassLoaderFactory
 import org.gradle.tooling.internal.provider.serialization.PayloadSerializer
+import org.gradle.tooling.internal.provider.serialization.SerializedPayloadChunk
+import org.gradle.tooling.internal.provider.serialization.WellKnownClassLoaderRegistry
 import org.gradle.util.GradleVersion
+import org.junit.Rule
 import spock.lang.Specification
 
 class ProviderConnectionTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
     def payloadSerializer = Mock(PayloadSerializer)
 
     def "ignores unknown operation types"() {
@@ -62,4 +86,90 @@ class ProviderConnectionTest extends Specification {
         !configuration.clientSubscriptions.isRequested(OperationType.TASK)
     }
 
+    def "reassembles a model sent in chunks ahead of the build result"() {
+        given:
+        def model = (1..300000).collect { "item " + it }
+        def daemonSerializer = serializer()
+        def chunkCount = 0
+        def embeddedExecutor = Stub(BuildActionExecuter) {
+            execute(_, _, _) >> { action, BuildActionParameters actionParameters, BuildRequestContext context ->
+                def result = daemonSerializer.serialize(model) { byte[] chunk ->
+                    chunkCount++
+                    context.eventConsumer.dispatch(new SerializedPayloadChunk(chunk))
+                }
+                BuildActionResult.of(result)
+            }
+        }
+        def connection = providerConnection(embeddedExecutor)
+
+        when:
+        def received = connection.run("some.Model", new DefaultBuildCancellationToken(), embeddedParameters())
+
+        then:
+        chunkCount > 1
+        received == model
+    }
+
+    def "returns a model that fits into a single chunk"() {
+        given:
+        def daemonSerializer = serializer()
+        def embeddedExecutor = Stub(BuildActionExecuter) {
+            execute(_, _, _) >> { BuildActionResult.of(daemonSerializer.serialize("some value") { throw new IllegalStateException() }) }
+        }
+        def connection = providerConnection(embeddedExecutor)
+
+        expect:
+        connection.run("some.Model", new DefaultBuildCancellationToken(), embeddedParameters()) == "some value"
+    }
+
+    private ProviderConnection providerConnection(BuildActionExecuter embeddedExecutor) {
+        def loggingManager = Stub(LoggingManagerInternal)
+        def sharedServices = Stub(ServiceRegistry) {
+            getFactory(LoggingManagerInternal) >> Stub(Factory) {
+                create() >> loggingManager
+            }
+        }
+        return new ProviderConnection(
+            sharedServices,
+            new BuildLayoutFactory(),
+            Stub(DaemonClientFactory),
+            embeddedExecutor,
+            serializer(),
+            Stub(JvmVersionDetector),
+            TestFiles.fileCollectionFactory(),
+            Stub(GlobalUserInputReceiver),
+            Stub(UserInputReader)
+        )
+    }
+
+    private ProviderOperationParameters embeddedParameters() {
+        def projectDir = tmpDir.createDir("project")
+        def userHomeDir = tmpDir.createDir("user-home")
+        return Stub(ProviderOperationParameters) {
+            isEmbedded() >> true
+            getProjectDir() >> projectDir
+            getGradleUserHomeDir() >> userHomeDir
+            getArguments() >> []
+            getTasks() >> null
+            getLaunchables() >> null
+            getJvmArguments() >> null
+            getJavaHome() >> null
+            getDaemonBaseDir() >> null
+            getDaemonMaxIdleTimeValue() >> null
+            getEnvironmentVariables(_) >> null
+            getSystemProperties(_) >> [:]
+            getInjectedPluginClasspath() >> []
+            getBuildLogLevel() >> LogLevel.LIFECYCLE
+            getStandardInput() >> null
+            getStandardOutput() >> null
+            getStandardError() >> null
+            isColorOutput() >> false
+            getProgressListener() >> Stub(ProgressListenerVersion1)
+            getBuildProgressListener() >> null
+        }
+    }
+
+    private static PayloadSerializer serializer() {
+        return new PayloadSerializer(new WellKnownClassLoaderRegistry(new DefaultPayloadClassLoaderRegistry(new ClassLoaderCache(), new ModelClassLoaderFactory())))
+    }
 }
@@ -176,6 +176,33 @@ class PayloadSerializerTest extends AbstractClassGraphSpec {
         reply2.payload.class == payloadClass
     }
 
+    def "can send a large object in chunks"() {
+        def payloadClass = isolated(CustomPayload, PayloadInterface).loadClass(CustomPayload.name)
+        def original = payloadClass.newInstance(value: 'value ' * 500000)
+        def chunks = []
+
+        when:
+        def serialized = originator.serialize(original) { chunks << it }
+        def received = receiver.deserialize(new SerializedPayload(serialized.header, chunks + serialized.serializedModel))
+
+        then:
+        chunks.size() == 2
+        serialized.serializedModel.size() == 1
+        received.class.name == CustomPayload.class.name
+        received.value == original.value
+    }
+
+    def "sends small object in a single chunk"() {
+        def chunks = []
+
+        when:
+        def serialized = originator.serialize("some value") { chunks << it }
+
+        then:
+        chunks.empty
+        receiver.deserialize(serialized) == "some value"
+    }
+
     void assertNotVisible(Class<?> from, Class<?> to) {
         try {
             from.classLoader.loadClass(to.name)
@@ -16,6 +16,7 @@
 
 package org.gradle.tooling.internal.provider.runner;
 
+import org.gradle.initialization.BuildEventConsumer;
 import org.gradle.internal.buildtree.BuildActionRunner;
 import org.gradle.internal.buildtree.BuildTreeLifecycleController;
 import org.gradle.internal.buildtree.BuildTreeModelAction;
@@ -25,14 +26,17 @@
 import org.gradle.tooling.internal.provider.action.BuildModelAction;
 import org.gradle.tooling.internal.provider.serialization.PayloadSerializer;
 import org.gradle.tooling.internal.provider.serialization.SerializedPayload;
+import org.gradle.tooling.internal.provider.serialization.SerializedPayloadChunk;
 import org.gradle.tooling.provider.model.UnknownModelException;
 import org.gradle.tooling.provider.model.internal.ToolingModelScope;
 
 public class BuildModelActionRunner implements BuildActionRunner {
     private final PayloadSerializer payloadSerializer;
+    private final BuildEventConsumer buildEventConsumer;
 
-    public BuildModelActionRunner(PayloadSerializer payloadSerializer) {
+    public BuildModelActionRunner(PayloadSerializer payloadSerializer, BuildEventConsumer buildEventConsumer) {
         this.payloadSerializer = payloadSerializer;
+        this.buildEventConsumer = buildEventConsumer;
     }
 
     @Override
@@ -47,7 +51,9 @@ public Result run(BuildAction action, final BuildTreeLifecycleController buildCo
         try {
             if (buildModelAction.isCreateModel()) {
                 Object result = buildController.fromBuildModel(buildModelAction.isRunTasks(), createAction);
-                SerializedPayload serializedResult = payloadSerializer.serialize(result);
+                // Send the serialized model to the client as it is written, so that large models are not held in memory twice.
+                // The daemon waits until each chunk has been sent before writing the next one.
+                SerializedPayload serializedResult = payloadSerializer.serialize(result, chunk -> buildEventConsumer.dispatch(new SerializedPayloadChunk(chunk)));
                 return Result.of(serializedResult);
             } else {
                 buildController.scheduleAndRunTasks();
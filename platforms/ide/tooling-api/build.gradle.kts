@@ -2,6 +2,7 @@ plugins {
     id("gradlebuild.distribution.api-java")
     id("gradlebuild.publish-public-libraries")
     id("gradlebuild.shaded-jar")
+    id("gradlebuild.jmh")
 }
 
 description = "Gradle Tooling API - the programmatic API to invoke Gradle"
@@ -86,6 +87,8 @@ dependencies {
     crossVersionTestLocalRepository(project(path)) {
         because("ToolingApiVersionSpecification uses the Tooling API Jar")
     }
+
+    jmhImplementation(platform(project(":distributions-dependencies")))
 }
 
 strictCompile {
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.tooling.internal.adapter;
+
+import org.gradle.tooling.model.idea.IdeaContentRoot;
+import org.gradle.tooling.model.idea.IdeaDependency;
+import org.gradle.tooling.model.idea.IdeaModule;
+import org.gradle.tooling.model.idea.IdeaProject;
+import org.gradle.tooling.model.idea.IdeaSourceDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Adapts a synthetic {@link IdeaProject} model, as received by an IDE during sync, and visits all of its modules.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ProtocolToModelAdapterBenchmark {
+
+    @Param({"100", "1000"})
+    private int moduleCount;
+
+    private ProtocolIdeaProject protocolProject;
+
+    private IdeaProject adaptedProject;
+
+    @Setup
+    public void setUp() {
+        protocolProject = new ProtocolIdeaProject(moduleCount);
+        adaptedProject = new ProtocolToModelAdapter().adapt(IdeaProject.class, protocolProject);
+    }
+
+    @Benchmark
+    public void adaptAndVisitModel(Blackhole bh) {
+        visit(new ProtocolToModelAdapter().adapt(IdeaProject.class, protocolProject), bh);
+    }
+
+    @Benchmark
+    public void visitAdaptedModel(Blackhole bh) {
+        visit(adaptedProject, bh);
+    }
+
+    private static void visit(IdeaProject project, Blackhole bh) {
+        bh.consume(project.getName());
+        bh.consume(project.getJdkName());
+        for (IdeaModule module : project.getModules()) {
+            bh.consume(module.getName());
+            bh.consume(module.getDescription());
+            bh.consume(module.getProject());
+            for (IdeaContentRoot contentRoot : module.getContentRoots()) {
+                bh.consume(contentRoot.getRootDirectory());
+                bh.consume(contentRoot.getExcludeDirectories());
+                for (IdeaSourceDirectory sourceDirectory : contentRoot.getSourceDirectories()) {
+                    bh.consume(sourceDirectory.getDirectory());
+                    bh.consume(sourceDirectory.isGenerated());
+                }
+                for (IdeaSourceDirectory sourceDirectory : contentRoot.getTestDirectories()) {
+                    bh.consume(sourceDirectory.getDirectory());
+                    bh.consume(sourceDirectory.isGenerated());
+                }
+            }
+            for (IdeaDependency dependency : module.getDependencies()) {
+                bh.consume(dependency.getScope().getScope());
+                bh.consume(dependency.getExported());
+            }
+        }
+    }
+
+    public static class ProtocolIdeaProject {
+        private final List<ProtocolIdeaModule> modules = new ArrayList<ProtocolIdeaModule>();
+
+        ProtocolIdeaProject(int moduleCount) {
+            for (int i = 0; i < moduleCount; i++) {
+                modules.add(new ProtocolIdeaModule(this, i));
+            }
+        }
+
+        public String getName() {
+            return "root";
+        }
+
+        public String getJdkName() {
+            return "17";
+        }
+
+        public List<ProtocolIdeaModule> getModules() {
+            return modules;
+        }
+
+        public List<ProtocolIdeaModule> getChildren() {
+            return modules;
+        }
+    }
+
+    public static class ProtocolIdeaModule {
+        private final ProtocolIdeaProject project;
+        private final String name;
+        private final List<ProtocolContentRoot> contentRoots;
+        private final List<ProtocolDependency> dependencies = new ArrayList<ProtocolDependency>();
+
+        ProtocolIdeaModule(ProtocolIdeaProject project, int index) {
+            this.project = project;
+            this.name = "module" + index;
+            this.contentRoots = Collections.singletonList(new ProtocolContentRoot(new File(name)));
+            for (int i = 0; i < Math.min(index, 10); i++) {
+                dependencies.add(new ProtocolDependency(i % 2 == 0 ? "COMPILE" : "TEST"));
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return "The " + name + " module";
+        }
+
+        public ProtocolIdeaProject getProject() {
+            return project;
+        }
+
+        public ProtocolIdeaProject getParent() {
+            return project;
+        }
+
+        public List<ProtocolContentRoot> getContentRoots() {
+            return contentRoots;
+        }
+
+        public List<ProtocolDependency> getDependencies() {
+            return dependencies;
+        }
+    }
+
+    public static class ProtocolContentRoot {
+        private final File rootDirectory;
+        private final List<ProtocolSourceDirectory> sourceDirectories = new ArrayList<ProtocolSourceDirectory>();
+        private final List<ProtocolSourceDirectory> testDirectories = new ArrayList<ProtocolSourceDirectory>();
+
+        ProtocolContentRoot(File rootDirectory) {
+            this.rootDirectory = rootDirectory;
+            sourceDirectories.add(new ProtocolSourceDirectory(new File(rootDirectory, "src/main/java"), false));
+            sourceDirectories.add(new ProtocolSourceDirectory(new File(rootDirectory, "build/generated/sources"), true));
+            testDirectories.add(new ProtocolSourceDirectory(new File(rootDirectory, "src/test/java"), false));
+        }
+
+        public File getRootDirectory() {
+            return rootDirectory;
+        }
+
+        public List<ProtocolSourceDirectory> getSourceDirectories() {
+            return sourceDirectories;
+        }
+
+        public List<ProtocolSourceDirectory> getTestDirectories() {
+            return testDirectories;
+        }
+
+        public Set<File> getExcludeDirectories() {
+            return Collections.singleton(new File(rootDirectory, "build"));
+        }
+    }
+
+    public static class ProtocolSourceDirectory {
+        private final File directory;
+        private final boolean generated;
+
+        ProtocolSourceDirectory(File directory, boolean generated) {
+            this.directory = directory;
+            this.generated = generated;
+        }
+
+        public File getDirectory() {
+            return directory;
+        }
+
+        public boolean isGenerated() {
+            return generated;
+        }
+    }
+
+    public static class ProtocolDependency {
+        private final ProtocolScope scope;
+
+        ProtocolDependency(String scope) {
+            this.scope = new ProtocolScope(scope);
+        }
+
+        public ProtocolScope getScope() {
+            return scope;
+        }
+
+        public boolean getExported() {
+            return false;
+        }
+    }
+
+    public static class ProtocolScope {
+        private final String scope;
+
+        ProtocolScope(String scope) {
+            this.scope = scope;
+        }
+
+        public String getScope() {
+            return scope;
+        }
+    }
+}
@@ -19,8 +19,6 @@
 import org.gradle.internal.Cast;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.reflect.DirectInstantiator;
-import org.gradle.internal.time.CountdownTimer;
-import org.gradle.internal.time.Time;
 import org.gradle.tooling.model.DomainObjectSet;
 import org.gradle.tooling.model.internal.Exceptions;
 import org.gradle.tooling.model.internal.ImmutableDomainObjectSet;
@@ -28,11 +26,12 @@
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.Serializable;
-import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
@@ -47,7 +46,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -71,6 +71,23 @@ public <T> Class<? extends T> getTargetType(Class<T> initialTargetType, Object p
     private static final Class[] EMPTY_CLASS_ARRAY = new Class[0];
     private static final Method EQUALS_METHOD;
     private static final Method HASHCODE_METHOD;
+    private static final ClassValue<Constructor<?>> VIEW_CONSTRUCTORS = new ClassValue<Constructor<?>>() {
+        @Override
+        @SuppressWarnings("deprecation")
+        protected Constructor<?> computeValue(Class<?> viewType) {
+            // Look up the proxy class once per view type, rather than each time a view is created
+            Class<?> proxyClass = Proxy.getProxyClass(viewType.getClassLoader(), viewType);
+            try {
+                Constructor<?> constructor = proxyClass.getConstructor(InvocationHandler.class);
+                if (!Modifier.isPublic(proxyClass.getModifiers())) {
+                    constructor.setAccessible(true);
+                }
+                return constructor;
+            } catch (NoSuchMethodException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+    };
 
     private final TargetTypeProvider targetTypeProvider;
 
@@ -159,7 +176,7 @@ private static <T> T createView(Class<T> targetType, @Nullable Object sourceObje
 
         // Create a proxy
         InvocationHandlerImpl handler = new InvocationHandlerImpl(targetType, sourceObject, decorationsForThisType, graphDetails);
-        Object proxy = Proxy.newProxyInstance(viewType.getClassLoader(), new Class<?>[]{viewType}, handler);
+        Object proxy = newProxyInstance(viewType, handler);
         handler.attachProxy(proxy);
 
         graphDetails.putViewFor(sourceObject, viewKey, proxy);
@@ -167,6 +184,16 @@ private static <T> T createView(Class<T> targetType, @Nullable Object sourceObje
         return viewType.cast(proxy);
     }
 
+    private static Object newProxyInstance(Class<?> viewType, InvocationHandler handler) {
+        try {
+            return VIEW_CONSTRUCTORS.get(viewType).newInstance(handler);
+        } catch (InvocationTargetException e) {
+            throw UncheckedException.throwAsUncheckedException(e.getCause());
+        } catch (Exception e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
     private static <T, S> T adaptToEnum(Class<T> targetType, S sourceObject) {
         String literal;
         if (sourceObject instanceof Enum) {
@@ -511,148 +538,127 @@ public void invoke(MethodInvocation invocation) throws Throwable {
         }
     }
 
+    /**
+     * Caches the method to invoke for a given method signature, for each source type.
+     *
+     * <p>The methods are attached to the source type, so they are discarded along with the source type, and looking them up requires no locking.
+     * The parameter types of a cached signature are only weakly referenced, as they may be loaded by a class loader that does not outlive the source type.</p>
+     */
     private static class MethodInvocationCache {
-        private final Map<MethodInvocationKey, Optional<Method>> store = new HashMap<MethodInvocationKey, Optional<Method>>();
-        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-        private final static long MINIMAL_CLEANUP_INTERVAL = 30000;
-
-        // For stats we don't really care about thread safety
-        private int cacheMiss;
-        private int cacheHit;
-        private int evict;
-
-        private CountdownTimer cleanupTimer = Time.startCountdownTimer(MINIMAL_CLEANUP_INTERVAL);
+        private final ClassValue<ConcurrentMap<MethodSignature, Optional<Method>>> methodsBySourceType = new ClassValue<ConcurrentMap<MethodSignature, Optional<Method>>>() {
+            @Override
+            protected ConcurrentMap<MethodSignature, Optional<Method>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<MethodSignature, Optional<Method>>();
+            }
+        };
 
-        private static class MethodInvocationKey {
-            private final SoftReference<Class<?>> lookupClass;
+        private static abstract class MethodSignature {
             private final String methodName;
-            private final SoftReference<Class<?>[]> parameterTypes;
             private final int hashCode;
 
-            private MethodInvocationKey(@Nullable Class<?> lookupClass, @Nullable String methodName, Class<?>[] parameterTypes) {
-                this.lookupClass = new SoftReference<Class<?>>(lookupClass);
+            MethodSignature(String methodName, Class<?>[] parameterTypes) {
                 this.methodName = methodName;
-                this.parameterTypes = new SoftReference<Class<?>[]>(parameterTypes);
                 // hashcode will always be used, so we precompute it in order to make sure we
                 // won't compute it multiple times during comparisons
-                int result = lookupClass != null ? lookupClass.hashCode() : 0;
-                result = 31 * result + (methodName != null ? methodName.hashCode() : 0);
-                result = 31 * result + Arrays.hashCode(parameterTypes);
-                this.hashCode = result;
+                this.hashCode = 31 * methodName.hashCode() + Arrays.hashCode(parameterTypes);
             }
 
-            public boolean isDirty() {
-                return lookupClass.get() == null || parameterTypes.get() == null;
-            }
+            abstract int getParameterCount();
+
+            @Nullable
+            abstract Class<?> getParameterType(int index);
 
             @Override
             public boolean equals(Object o) {
                 if (this == o) {
                     return true;
                 }
-                if (o == null || getClass() != o.getClass()) {
+                if (!(o instanceof MethodSignature)) {
                     return false;
                 }
-
-                MethodInvocationKey that = (MethodInvocationKey) o;
-
-                if (isDirty() && that.isDirty()) {
-                    return true;
-                }
-                if (!eq(lookupClass, that.lookupClass)) {
+                MethodSignature that = (MethodSignature) o;
+                if (hashCode != that.hashCode || !methodName.equals(that.methodName) || getParameterCount() != that.getParameterCount()) {
                     return false;
                 }
-                if (!methodName.equals(that.methodName)) {
-                    return false;
+                for (int i = 0; i < getParameterCount(); i++) {
+                    Class<?> parameterType = getParameterType(i);
+                    // A signature whose parameter types have been collected no longer matches any other signature
+                    if (parameterType == null || parameterType != that.getParameterType(i)) {
+                        return false;
+                    }
                 }
-                return eq(parameterTypes, that.parameterTypes);
+                return true;
+            }
 
+            @Override
+            public int hashCode() {
+                return hashCode;
             }
+        }
 
-            private static boolean eq(SoftReference<?> aRef, SoftReference<?> bRef) {
-                Object a = aRef.get();
-                Object b = bRef.get();
-                return eq(a, b);
+        /**
+         * The signature of a method being invoked, used to look up the cache.
+         */
+        private static class InvokedMethodSignature extends MethodSignature {
+            private final Class<?>[] parameterTypes;
+
+            InvokedMethodSignature(String methodName, Class<?>[] parameterTypes) {
+                super(methodName, parameterTypes);
+                this.parameterTypes = parameterTypes;
             }
 
-            private static boolean eq(Object a, Object b) {
-                if (a == b) {
-                    return true;
-                }
-                if (a == null) {
-                    return false;
-                }
-                if (a.getClass().isArray()) {
-                    return Arrays.equals((Object[]) a, (Object[]) b);
+            @Override
+            int getParameterCount() {
+                return parameterTypes.length;
+            }
+
+            @Override
+            Class<?> getParameterType(int index) {
+                return parameterTypes[index];
+            }
+        }
+
+        /**
+         * The signature of a cached method, which does not keep its parameter types alive.
+         */
+        private static class CachedMethodSignature extends MethodSignature {
+            private final WeakReference<Class<?>>[] parameterTypes;
+
+            CachedMethodSignature(String methodName, Class<?>[] parameterTypes) {
+                super(methodName, parameterTypes);
+                this.parameterTypes = Cast.uncheckedNonnullCast(new WeakReference<?>[parameterTypes.length]);
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    this.parameterTypes[i] = new WeakReference<Class<?>>(parameterTypes[i]);
                 }
-                return a.equals(b);
             }
 
             @Override
-            public int hashCode() {
-                return hashCode;
+            int getParameterCount() {
+                return parameterTypes.length;
+            }
+
+            @Nullable
+            @Override
+            Class<?> getParameterType(int index) {
+                return parameterTypes[index].get();
             }
         }
 
         @Nullable
         public Method get(MethodInvocation invocation) {
             Class<?> owner = invocation.getDelegate().getClass();
-            String name = invocation.getName();
+            ConcurrentMap<MethodSignature, Optional<Method>> methods = methodsBySourceType.get(owner);
+            String methodName = invocation.getName();
             Class<?>[] parameterTypes = invocation.getParameterTypes();
-            MethodInvocationKey key = new MethodInvocationKey(
-                owner,
-                name,
-                parameterTypes
-            );
-            lock.readLock().lock();
-            Optional<Method> cached = store.get(key);
+            Optional<Method> cached = methods.get(new InvokedMethodSignature(methodName, parameterTypes));
             if (cached == null) {
-                cacheMiss++;
-                lock.readLock().unlock();
-                lock.writeLock().lock();
-                try {
-                    cached = store.get(key);
-                    if (cached == null) {
-                        cached = lookup(owner, name, parameterTypes);
-                        if (cacheMiss % 10 == 0) {
-                            removeDirtyEntries();
-                        }
-                        store.put(key, cached);
-                    }
-                    lock.readLock().lock();
-                } finally {
-                    lock.writeLock().unlock();
+                cached = lookup(owner, methodName, parameterTypes);
+                Optional<Method> existing = methods.putIfAbsent(new CachedMethodSignature(methodName, parameterTypes), cached);
+                if (existing != null) {
+                    cached = existing;
                 }
-            } else {
-                cacheHit++;
-            }
-            try {
-                return cached.orNull();
-            } finally {
-                lock.readLock().unlock();
-            }
-        }
-
-        /**
-         * Removes dirty entries from the cache. Calling System.currentTimeMillis() is costly so we should try to limit calls to this method. This method will only trigger cleanup at most once per
-         * 30s.
-         */
-        private void removeDirtyEntries() {
-            if (!cleanupTimer.hasExpired()) {
-                return;
-            }
-            lock.writeLock().lock();
-            try {
-                for (MethodInvocationKey key : new LinkedList<MethodInvocationKey>(store.keySet())) {
-                    if (key.isDirty()) {
-                        evict++;
-                        store.remove(key);
-                    }
-                }
-            } finally {
-                cleanupTimer.reset();
-                lock.writeLock().unlock();
             }
+            return cached.orNull();
         }
 
         private static Optional<Method> lookup(Class<?> sourceClass, String methodName, Class<?>[] parameterTypes) {
@@ -682,11 +688,6 @@ private static Optional<Method> lookup(Class<?> sourceClass, String methodName,
             match.setAccessible(true);
             return Optional.of(match);
         }
-
-        @Override
-        public String toString() {
-            return "Cache size: " + store.size() + " Hits: " + cacheHit + " Miss: " + cacheMiss + " Evicted: " + evict;
-        }
     }
 
     private static class ReflectionMethodInvoker implements MethodInvoker {
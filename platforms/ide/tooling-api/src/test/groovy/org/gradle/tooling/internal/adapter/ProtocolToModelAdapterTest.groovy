@@ -41,6 +41,22 @@ class ProtocolToModelAdapterTest extends Specification {
         adapter.adapt(TestModel.class, protocolModel) instanceof TestModel
     }
 
+    def "views of the same type share the same proxy class"() {
+        TestProtocolModel protocolModel1 = Mock()
+        TestProtocolModel protocolModel2 = Mock()
+        _ * protocolModel1.getName() >> 'name 1'
+        _ * protocolModel2.getName() >> 'name 2'
+
+        def model1 = adapter.adapt(TestModel.class, protocolModel1)
+        def model2 = new ProtocolToModelAdapter().adapt(TestModel.class, protocolModel2)
+
+        expect:
+        java.lang.reflect.Proxy.isProxyClass(model1.getClass())
+        model1.getClass() == model2.getClass()
+        model1.name == 'name 1'
+        model2.name == 'name 2'
+    }
+
     def proxiesAreEqualWhenTargetProtocolObjectsAreEqual() {
         TestProtocolModel protocolModel1 = Mock()
         TestProtocolModel protocolModel2 = Mock()
@@ -1,6 +1,7 @@
 plugins {
     id("gradlebuild.distribution.api-java")
     id("gradlebuild.publish-public-libraries")
+    id("gradlebuild.jmh")
 }
 
 description = "API extraction for Java"
@@ -31,4 +32,6 @@ dependencies {
     testImplementation(project(":base-services"))
     testImplementation(project(":internal-testing"))
     testImplementation(testFixtures(project(":snapshots")))
+
+    jmhImplementation(platform(project(":distributions-dependencies")))
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.changedetection.state;
+
+import org.gradle.internal.file.FileMetadata.AccessType;
+import org.gradle.internal.file.impl.DefaultFileMetadata;
+import org.gradle.internal.fingerprint.hashing.RegularFileSnapshotContext;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.snapshot.RegularFileSnapshot;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Measures the throughput of ABI extraction when fingerprinting a jar on a compile classpath,
+ * hashing the jar entries either sequentially or concurrently.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class AbiExtractingZipHasherBenchmark {
+
+    @Param({"100", "5000"})
+    int classCount;
+
+    @Param({"0", "4"})
+    int threads;
+
+    private File tempDir;
+    private RegularFileSnapshotContext jarContext;
+    private ExecutorService executor;
+    private ZipHasher zipHasher;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        tempDir = Files.createTempDirectory("abi-benchmark").toFile();
+        File jar = new File(tempDir, "library.jar");
+        try (JarOutputStream jarOutput = new JarOutputStream(new FileOutputStream(jar))) {
+            for (int i = 0; i < classCount; i++) {
+                String className = "org/gradle/benchmark/Generated" + i;
+                jarOutput.putNextEntry(new JarEntry(className + ".class"));
+                jarOutput.write(generateClass(className));
+                jarOutput.closeEntry();
+            }
+        }
+        jarContext = new DefaultRegularFileSnapshotContext(() -> new String[0], new RegularFileSnapshot(jar.getAbsolutePath(), jar.getName(), Hashing.hashFile(jar), DefaultFileMetadata.file(0, jar.length(), AccessType.DIRECT)));
+        executor = threads == 0 ? null : Executors.newFixedThreadPool(threads);
+        zipHasher = new ZipHasher(AbiExtractingClasspathResourceHasher.DEFAULT, null, ZipHasher.DEFAULT_HASHING_EXCEPTION_REPORTER, executor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        File[] files = tempDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        tempDir.delete();
+    }
+
+    @Benchmark
+    public void hashJar(Blackhole blackhole) {
+        blackhole.consume(zipHasher.hash(jarContext));
+    }
+
+    private static byte[] generateClass(String className) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, className, null, "java/lang/Object", null);
+        for (int i = 0; i < 10; i++) {
+            writer.visitField(Opcodes.ACC_PUBLIC, "publicField" + i, "Ljava/lang/String;", null, null).visitEnd();
+            writer.visitField(Opcodes.ACC_PRIVATE, "privateField" + i, "I", null, null).visitEnd();
+        }
+        for (int i = 0; i < 20; i++) {
+            int access = i % 2 == 0 ? Opcodes.ACC_PUBLIC : Opcodes.ACC_PRIVATE;
+            MethodVisitor method = writer.visitMethod(access, "method" + i, "(I)I", null, null);
+            method.visitCode();
+            method.visitVarInsn(Opcodes.ILOAD, 1);
+            method.visitLdcInsn(i);
+            method.visitInsn(Opcodes.IADD);
+            method.visitInsn(Opcodes.IRETURN);
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
@@ -41,16 +41,22 @@
 import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 public class ZipHasher implements RegularFileSnapshotContextHasher, ConfigurableNormalizer {
 
     private static final Set<String> KNOWN_ZIP_EXTENSIONS = ImmutableSet.of("zip", "jar", "war", "rar", "ear", "apk", "aar", "klib");
     private static final Logger LOGGER = LoggerFactory.getLogger(ZipHasher.class);
     private static final HashCode EMPTY_HASH_MARKER = Hashing.signature(ZipHasher.class);
+    public static final HashingExceptionReporter DEFAULT_HASHING_EXCEPTION_REPORTER =
+        (s, e) -> LOGGER.debug("Malformed archive '{}'. Falling back to full content hash instead of entry hashing.", s.getName(), e);
 
     public static boolean isZipFile(final String name) {
         return KNOWN_ZIP_EXTENSIONS.contains(FilenameUtils.getExtension(name).toLowerCase(Locale.ROOT));
@@ -59,19 +65,28 @@ public static boolean isZipFile(final String name) {
     private final ResourceHasher resourceHasher;
     private final ZipHasher fallbackZipHasher;
     private final HashingExceptionReporter hashingExceptionReporter;
+    private final Executor entryHashingExecutor;
 
     public ZipHasher(ResourceHasher resourceHasher) {
-        this(
-            resourceHasher,
-            null,
-            (s, e) -> LOGGER.debug("Malformed archive '{}'. Falling back to full content hash instead of entry hashing.", s.getName(), e)
-        );
+        this(resourceHasher, null, DEFAULT_HASHING_EXCEPTION_REPORTER);
     }
 
     public ZipHasher(ResourceHasher resourceHasher, @Nullable ZipHasher fallbackZipHasher, HashingExceptionReporter hashingExceptionReporter) {
+        this(resourceHasher, fallbackZipHasher, hashingExceptionReporter, null);
+    }
+
+    /**
+     * Creates a hasher that hashes the entries of a zip file on the given executor.
+     *
+     * Only entries that can be re-opened independently of the iteration over the zip file are hashed concurrently,
+     * the entries of nested zip files are hashed on the calling thread.
+     * The resulting hash is the same as when hashing the entries one after the other.
+     */
+    public ZipHasher(ResourceHasher resourceHasher, @Nullable ZipHasher fallbackZipHasher, HashingExceptionReporter hashingExceptionReporter, @Nullable Executor entryHashingExecutor) {
         this.resourceHasher = resourceHasher;
         this.fallbackZipHasher = fallbackZipHasher;
         this.hashingExceptionReporter = hashingExceptionReporter;
+        this.entryHashingExecutor = entryHashingExecutor;
     }
 
     @Nullable
@@ -107,14 +122,19 @@ private HashCode hashZipContents(RegularFileSnapshot zipFileSnapshot) {
 
     private List<FileSystemLocationFingerprint> fingerprintZipEntries(String zipFile) throws IOException {
         try (ZipInput input = FileZipInput.create(new File(zipFile))) {
-            List<FileSystemLocationFingerprint> fingerprints = new ArrayList<>();
-            fingerprintZipEntries("", zipFile, fingerprints, input);
-            return fingerprints;
+            List<CompletableFuture<FileSystemLocationFingerprint>> fingerprints = new ArrayList<>();
+            try {
+                fingerprintZipEntries("", zipFile, fingerprints, input);
+            } finally {
+                // No entry may still be read when the zip file is closed
+                awaitCompletion(fingerprints);
+            }
+            return collectFingerprints(fingerprints);
         }
     }
 
-    private void fingerprintZipEntries(String parentName, String rootParentName, List<FileSystemLocationFingerprint> fingerprints, ZipInput input) throws IOException {
-        fingerprints.add(newZipMarker(parentName));
+    private void fingerprintZipEntries(String parentName, String rootParentName, List<CompletableFuture<FileSystemLocationFingerprint>> fingerprints, ZipInput input) throws IOException {
+        fingerprints.add(CompletableFuture.completedFuture(newZipMarker(parentName)));
         for (ZipEntry zipEntry : input) {
             if (zipEntry.isDirectory()) {
                 continue;
@@ -126,17 +146,59 @@ private void fingerprintZipEntries(String parentName, String rootParentName, Lis
                     fingerprintZipEntries(fullName, rootParentName, fingerprints, new StreamZipInput(inputStream));
                     return null;
                 });
+            } else if (entryHashingExecutor != null && zipEntry.canReopen()) {
+                fingerprints.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return fingerprintZipEntry(zipEntryContext);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, entryHashingExecutor));
             } else {
-                fingerprintZipEntry(zipEntryContext, fingerprints);
+                fingerprints.add(CompletableFuture.completedFuture(fingerprintZipEntry(zipEntryContext)));
             }
         }
     }
 
-    private void fingerprintZipEntry(ZipEntryContext zipEntryContext, List<FileSystemLocationFingerprint> fingerprints) throws IOException {
+    @Nullable
+    private FileSystemLocationFingerprint fingerprintZipEntry(ZipEntryContext zipEntryContext) throws IOException {
         HashCode hash = resourceHasher.hash(zipEntryContext);
         if (hash != null) {
-            fingerprints.add(new DefaultFileSystemLocationFingerprint(zipEntryContext.getFullName(), FileType.RegularFile, hash));
+            return new DefaultFileSystemLocationFingerprint(zipEntryContext.getFullName(), FileType.RegularFile, hash);
+        }
+        return null;
+    }
+
+    private static void awaitCompletion(List<CompletableFuture<FileSystemLocationFingerprint>> pendingFingerprints) {
+        CompletableFuture.allOf(pendingFingerprints.toArray(new CompletableFuture<?>[0]))
+            .handle((result, failure) -> null)
+            .join();
+    }
+
+    private static List<FileSystemLocationFingerprint> collectFingerprints(List<CompletableFuture<FileSystemLocationFingerprint>> pendingFingerprints) throws IOException {
+        List<FileSystemLocationFingerprint> fingerprints = new ArrayList<>(pendingFingerprints.size());
+        for (CompletableFuture<FileSystemLocationFingerprint> pendingFingerprint : pendingFingerprints) {
+            FileSystemLocationFingerprint fingerprint;
+            try {
+                fingerprint = pendingFingerprint.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+            if (fingerprint != null) {
+                fingerprints.add(fingerprint);
+            }
         }
+        return fingerprints;
     }
 
     private DefaultFileSystemLocationFingerprint newZipMarker(String relativePath) {
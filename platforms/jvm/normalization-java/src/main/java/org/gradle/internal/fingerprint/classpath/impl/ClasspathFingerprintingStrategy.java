@@ -56,6 +56,7 @@
 import java.io.UncheckedIOException;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import static org.gradle.internal.fingerprint.classpath.impl.ClasspathFingerprintingStrategy.NonJarFingerprintingStrategy.IGNORE;
 import static org.gradle.internal.fingerprint.classpath.impl.ClasspathFingerprintingStrategy.NonJarFingerprintingStrategy.USE_FILE_HASH;
@@ -119,6 +120,17 @@ public static ClasspathFingerprintingStrategy compileClasspath(ResourceHasher cl
         return new ClasspathFingerprintingStrategy(COMPILE_CLASSPATH_IDENTIFIER, IGNORE, classpathResourceHasher, zipHasher, cacheService, stringInterner);
     }
 
+    /**
+     * Creates a compile classpath strategy which hashes the entries of jars concurrently on the given executor.
+     *
+     * The produced fingerprints are the same as for {@link #compileClasspath(ResourceHasher, ResourceSnapshotterCacheService, Interner)},
+     * so results cached across builds can be shared between both.
+     */
+    public static ClasspathFingerprintingStrategy compileClasspath(ResourceHasher classpathResourceHasher, ResourceSnapshotterCacheService cacheService, Interner<String> stringInterner, Executor zipEntryHashingExecutor) {
+        ZipHasher zipHasher = new ZipHasher(classpathResourceHasher, null, ZipHasher.DEFAULT_HASHING_EXCEPTION_REPORTER, zipEntryHashingExecutor);
+        return new ClasspathFingerprintingStrategy(COMPILE_CLASSPATH_IDENTIFIER, IGNORE, classpathResourceHasher, zipHasher, cacheService, stringInterner);
+    }
+
     public static ClasspathFingerprintingStrategy compileClasspathFallbackToRuntimeClasspath(
         ResourceHasher classpathResourceHasher,
         ResourceHasher runtimeClasspathResourceHasher,
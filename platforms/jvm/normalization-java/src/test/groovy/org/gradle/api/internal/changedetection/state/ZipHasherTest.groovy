@@ -28,6 +28,7 @@ import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
 import spock.lang.Specification
 
+import java.util.concurrent.Executors
 import java.util.jar.Attributes
 import java.util.jar.JarEntry
 import java.util.jar.JarOutputStream
@@ -148,6 +149,30 @@ class ZipHasherTest extends Specification {
         hash1 == hash2
     }
 
+    def "hashing entries concurrently produces the same hash as hashing them sequentially"() {
+        given:
+        def executor = Executors.newFixedThreadPool(4)
+        def concurrentZipHasher = new ZipHasher(resourceHasher(ResourceEntryFilter.FILTER_NOTHING, ResourceEntryFilter.FILTER_NOTHING), null, ZipHasher.DEFAULT_HASHING_EXCEPTION_REPORTER, executor)
+        def outerContent = tmpDir.createDir("outer")
+        (1..50).each { outerContent.file("org/gradle/Entry${it}.txt") << "Entry ${it}" }
+        def innerContent = tmpDir.createDir("inner")
+        innerContent.file("nested.txt") << "Nested"
+        innerContent.zipTo(outerContent.file("lib/inner.jar"))
+        def outer = tmpDir.file("outer.jar")
+        outerContent.zipTo(outer)
+
+        when:
+        def sequentialHash = zipHasher.hash(snapshotContext(outer))
+        def concurrentHash = concurrentZipHasher.hash(snapshotContext(outer))
+
+        then:
+        sequentialHash != null
+        concurrentHash == sequentialHash
+
+        cleanup:
+        executor.shutdown()
+    }
+
     def createJarWithAttributes(TestFile jarfile, Map<String, String> attributes) {
         def manifest = new Manifest()
         def mainAttributes = manifest.getMainAttributes()
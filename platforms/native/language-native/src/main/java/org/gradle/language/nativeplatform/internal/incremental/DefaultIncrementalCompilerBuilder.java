@@ -25,7 +25,9 @@
 import org.gradle.api.internal.tasks.properties.LifecycleAwareValue;
 import org.gradle.api.provider.Provider;
 import org.gradle.cache.ObjectHolder;
+import org.gradle.internal.concurrent.WorkerLimits;
 import org.gradle.internal.file.Deleter;
+import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.operations.BuildOperationRunner;
 import org.gradle.internal.vfs.FileSystemAccess;
 import org.gradle.language.base.internal.compile.Compiler;
@@ -45,29 +47,35 @@
 
 public class DefaultIncrementalCompilerBuilder implements IncrementalCompilerBuilder {
     private final BuildOperationRunner buildOperationRunner;
+    private final BuildOperationExecutor buildOperationExecutor;
     private final CompilationStateCacheFactory compilationStateCacheFactory;
     private final CSourceParser sourceParser;
     private final Deleter deleter;
     private final DirectoryFileTreeFactory directoryFileTreeFactory;
     private final FileSystemAccess fileSystemAccess;
     private final TaskFileVarFactory fileVarFactory;
+    private final WorkerLimits workerLimits;
 
     public DefaultIncrementalCompilerBuilder(
         BuildOperationRunner buildOperationRunner,
+        BuildOperationExecutor buildOperationExecutor,
         CompilationStateCacheFactory compilationStateCacheFactory,
         CSourceParser sourceParser,
         Deleter deleter,
         DirectoryFileTreeFactory directoryFileTreeFactory,
         FileSystemAccess fileSystemAccess,
-        TaskFileVarFactory fileVarFactory
+        TaskFileVarFactory fileVarFactory,
+        WorkerLimits workerLimits
     ) {
         this.buildOperationRunner = buildOperationRunner;
+        this.buildOperationExecutor = buildOperationExecutor;
         this.compilationStateCacheFactory = compilationStateCacheFactory;
         this.deleter = deleter;
         this.directoryFileTreeFactory = directoryFileTreeFactory;
         this.fileSystemAccess = fileSystemAccess;
         this.fileVarFactory = fileVarFactory;
         this.sourceParser = sourceParser;
+        this.workerLimits = workerLimits;
     }
 
     @Override
@@ -79,22 +87,26 @@ public IncrementalCompiler newCompiler(TaskInternal task, FileCollection sourceF
             macros,
             importAware,
             buildOperationRunner,
+            buildOperationExecutor,
             compilationStateCacheFactory,
             sourceParser,
             deleter,
             directoryFileTreeFactory,
             fileSystemAccess,
-            fileVarFactory
+            fileVarFactory,
+            workerLimits
         );
     }
 
     private static class StateCollectingIncrementalCompiler implements IncrementalCompiler, MinimalFileSet, LifecycleAwareValue {
         private final BuildOperationRunner buildOperationRunner;
+        private final BuildOperationExecutor buildOperationExecutor;
         private final CompilationStateCacheFactory compilationStateCacheFactory;
         private final CSourceParser sourceParser;
         private final Deleter deleter;
         private final DirectoryFileTreeFactory directoryFileTreeFactory;
         private final FileSystemAccess fileSystemAccess;
+        private final WorkerLimits workerLimits;
 
         private final Map<String, String> macros;
         private final Provider<Boolean> importAware;
@@ -114,12 +126,14 @@ private static class StateCollectingIncrementalCompiler implements IncrementalCo
             Provider<Boolean> importAware,
 
             BuildOperationRunner buildOperationRunner,
+            BuildOperationExecutor buildOperationExecutor,
             CompilationStateCacheFactory compilationStateCacheFactory,
             CSourceParser sourceParser,
             Deleter deleter,
             DirectoryFileTreeFactory directoryFileTreeFactory,
             FileSystemAccess fileSystemAccess,
-            TaskFileVarFactory fileVarFactory
+            TaskFileVarFactory fileVarFactory,
+            WorkerLimits workerLimits
         ) {
             this.taskOutputs = task.getOutputs();
             this.taskPath = task.getPath();
@@ -130,11 +144,13 @@ private static class StateCollectingIncrementalCompiler implements IncrementalCo
             this.headerFilesCollection = fileVarFactory.newCalculatedInputFileCollection(task, this, sourceFiles, includeDirs);
 
             this.buildOperationRunner = buildOperationRunner;
+            this.buildOperationExecutor = buildOperationExecutor;
             this.compilationStateCacheFactory = compilationStateCacheFactory;
             this.deleter = deleter;
             this.directoryFileTreeFactory = directoryFileTreeFactory;
             this.fileSystemAccess = fileSystemAccess;
             this.sourceParser = sourceParser;
+            this.workerLimits = workerLimits;
         }
 
         @Override
@@ -153,7 +169,7 @@ public Set<File> getFiles() {
             DefaultSourceIncludesResolver dependencyParser = new DefaultSourceIncludesResolver(includeRoots, fileSystemAccess);
             IncludeDirectives includeDirectives = directivesForMacros(macros);
             IncrementalCompileFilesFactory incrementalCompileFilesFactory = new IncrementalCompileFilesFactory(includeDirectives, sourceIncludesParser, dependencyParser, fileSystemAccess);
-            IncrementalCompileProcessor incrementalCompileProcessor = new IncrementalCompileProcessor(compileStateCache, incrementalCompileFilesFactory, buildOperationRunner);
+            IncrementalCompileProcessor incrementalCompileProcessor = new IncrementalCompileProcessor(compileStateCache, incrementalCompileFilesFactory, buildOperationRunner, buildOperationExecutor, workerLimits);
 
             incrementalCompilation = incrementalCompileProcessor.processSourceFiles(sourceFiles.getFiles());
             DefaultHeaderDependenciesCollector headerDependenciesCollector = new DefaultHeaderDependenciesCollector(directoryFileTreeFactory);
@@ -57,7 +57,38 @@ public IncrementalCompileFilesFactory(IncludeDirectives initialIncludeDirectives
     }
 
     public IncrementalCompileSourceProcessor files(CompilationState previousCompileState) {
-        return new DefaultIncrementalCompileSourceProcessor(previousCompileState);
+        return files(previousCompileState, Collections.<File, IncludeDirectives>emptyMap());
+    }
+
+    /**
+     * Creates a processor that reuses the given include directives, which have already been parsed, instead of parsing the files again.
+     */
+    public IncrementalCompileSourceProcessor files(CompilationState previousCompileState, Map<File, IncludeDirectives> parsedIncludes) {
+        return new DefaultIncrementalCompileSourceProcessor(previousCompileState, parsedIncludes);
+    }
+
+    /**
+     * Returns the source files that have not been compiled before or whose content has changed since the previous compilation.
+     * The include graph of these files will certainly need to be calculated again.
+     */
+    public List<File> getChangedSourceFiles(@Nullable CompilationState previousCompileState, Collection<File> sourceFiles) {
+        List<File> changed = new ArrayList<File>();
+        for (File sourceFile : sourceFiles) {
+            boolean hasChanged = fileSystemAccess.readRegularFileContentHash(sourceFile.getAbsolutePath())
+                .map(fileContent -> {
+                    SourceFileState previousState = previousCompileState == null ? null : previousCompileState.getState(sourceFile);
+                    return previousState == null || !fileContent.equals(previousState.getHash());
+                })
+                .orElse(false);
+            if (hasChanged) {
+                changed.add(sourceFile);
+            }
+        }
+        return changed;
+    }
+
+    public IncludeDirectives parseIncludes(File file) {
+        return sourceIncludesParser.parseIncludes(file);
     }
 
     private class DefaultIncrementalCompileSourceProcessor implements IncrementalCompileSourceProcessor {
@@ -68,8 +99,11 @@ private class DefaultIncrementalCompileSourceProcessor implements IncrementalCom
         private final Map<File, FileDetails> visitedFiles = new HashMap<File, FileDetails>();
         private boolean hasUnresolvedHeaders;
 
-        DefaultIncrementalCompileSourceProcessor(CompilationState previousCompileState) {
+        DefaultIncrementalCompileSourceProcessor(CompilationState previousCompileState, Map<File, IncludeDirectives> parsedIncludes) {
             this.previous = previousCompileState == null ? new CompilationState() : previousCompileState;
+            for (Map.Entry<File, IncludeDirectives> entry : parsedIncludes.entrySet()) {
+                visitedFiles.put(entry.getKey(), new FileDetails(entry.getValue()));
+            }
         }
 
         @Override
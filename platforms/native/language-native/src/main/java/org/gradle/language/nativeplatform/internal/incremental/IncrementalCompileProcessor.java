@@ -15,24 +15,40 @@
  */
 package org.gradle.language.nativeplatform.internal.incremental;
 
+import com.google.common.collect.Lists;
 import org.gradle.cache.ObjectHolder;
+import org.gradle.internal.concurrent.WorkerLimits;
 import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.operations.BuildOperationRunner;
 import org.gradle.internal.operations.CallableBuildOperation;
 import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.language.nativeplatform.internal.IncludeDirectives;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class IncrementalCompileProcessor {
+    // Parsing a handful of files concurrently is not worth scheduling the work
+    private static final int MIN_FILES_PER_PARSE_OPERATION = 16;
+
     private final ObjectHolder<CompilationState> previousCompileStateCache;
     private final IncrementalCompileFilesFactory incrementalCompileFilesFactory;
     private final BuildOperationRunner buildOperationExecutor;
+    private final BuildOperationExecutor parallelBuildOperationExecutor;
+    private final int maxParseOperations;
 
-    public IncrementalCompileProcessor(ObjectHolder<CompilationState> previousCompileStateCache, IncrementalCompileFilesFactory incrementalCompileFilesFactory, BuildOperationRunner buildOperationExecutor) {
+    public IncrementalCompileProcessor(ObjectHolder<CompilationState> previousCompileStateCache, IncrementalCompileFilesFactory incrementalCompileFilesFactory, BuildOperationRunner buildOperationExecutor, BuildOperationExecutor parallelBuildOperationExecutor, WorkerLimits workerLimits) {
         this.previousCompileStateCache = previousCompileStateCache;
         this.incrementalCompileFilesFactory = incrementalCompileFilesFactory;
         this.buildOperationExecutor = buildOperationExecutor;
+        this.parallelBuildOperationExecutor = parallelBuildOperationExecutor;
+        this.maxParseOperations = workerLimits.getMaxWorkerCount();
     }
 
     public IncrementalCompilation processSourceFiles(final Collection<File> sourceFiles) {
@@ -40,7 +56,8 @@ public IncrementalCompilation processSourceFiles(final Collection<File> sourceFi
             @Override
             public IncrementalCompilation call(BuildOperationContext context) {
                 CompilationState previousCompileState = previousCompileStateCache.get();
-                IncrementalCompileSourceProcessor processor = incrementalCompileFilesFactory.files(previousCompileState);
+                Map<File, IncludeDirectives> parsedIncludes = parseChangedSourceFiles(previousCompileState, sourceFiles);
+                IncrementalCompileSourceProcessor processor = incrementalCompileFilesFactory.files(previousCompileState, parsedIncludes);
                 for (File sourceFile : sourceFiles) {
                     processor.processSource(sourceFile);
                 }
@@ -69,4 +86,45 @@ public int getSourceFileCount() {
         });
     }
 
+    /**
+     * Parses the source files that certainly need to be analysed again concurrently, so that the include graph can then
+     * be calculated without having to wait for each of these files to be parsed in turn.
+     */
+    private Map<File, IncludeDirectives> parseChangedSourceFiles(CompilationState previousCompileState, Collection<File> sourceFiles) {
+        List<File> changedSourceFiles = incrementalCompileFilesFactory.getChangedSourceFiles(previousCompileState, sourceFiles);
+        if (changedSourceFiles.size() < 2 * MIN_FILES_PER_PARSE_OPERATION) {
+            return Collections.emptyMap();
+        }
+
+        int batchSize = Math.max(MIN_FILES_PER_PARSE_OPERATION, (changedSourceFiles.size() + maxParseOperations - 1) / maxParseOperations);
+        Map<File, IncludeDirectives> parsedIncludes = new ConcurrentHashMap<>(changedSourceFiles.size());
+        parallelBuildOperationExecutor.runAll(queue -> {
+            for (List<File> batch : Lists.partition(changedSourceFiles, batchSize)) {
+                queue.add(new ParseSourceFiles(batch, parsedIncludes));
+            }
+        });
+        return parsedIncludes;
+    }
+
+    private class ParseSourceFiles implements RunnableBuildOperation {
+        private final List<File> sourceFiles;
+        private final Map<File, IncludeDirectives> parsedIncludes;
+
+        ParseSourceFiles(List<File> sourceFiles, Map<File, IncludeDirectives> parsedIncludes) {
+            this.sourceFiles = sourceFiles;
+            this.parsedIncludes = parsedIncludes;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            for (File sourceFile : sourceFiles) {
+                parsedIncludes.put(sourceFile, incrementalCompileFilesFactory.parseIncludes(sourceFile));
+            }
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Parse " + sourceFiles.size() + " source files");
+        }
+    }
 }
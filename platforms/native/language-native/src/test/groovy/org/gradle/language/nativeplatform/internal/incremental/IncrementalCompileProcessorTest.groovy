@@ -17,8 +17,10 @@ package org.gradle.language.nativeplatform.internal.incremental
 
 import org.gradle.api.internal.file.TestFiles
 import org.gradle.cache.ObjectHolder
+import org.gradle.internal.concurrent.DefaultWorkerLimits
 import org.gradle.internal.file.FileMetadata.AccessType
 import org.gradle.internal.hash.HashCode
+import org.gradle.internal.operations.TestBuildOperationExecutor
 import org.gradle.internal.operations.TestBuildOperationRunner
 import org.gradle.internal.snapshot.MissingFileSnapshot
 import org.gradle.language.nativeplatform.internal.Include
@@ -42,7 +44,8 @@ class IncrementalCompileProcessorTest extends Specification {
     def virtualFileSystem = TestFiles.virtualFileSystem()
     def fileSystemAccess = TestFiles.fileSystemAccess(virtualFileSystem)
     def stateCache = new DummyObjectHolder()
-    def incrementalCompileProcessor = new IncrementalCompileProcessor(stateCache, new IncrementalCompileFilesFactory(IncludeDirectives.EMPTY, includesParser, dependencyResolver, fileSystemAccess), new TestBuildOperationRunner())
+    def buildOperationExecutor = new TestBuildOperationExecutor()
+    def incrementalCompileProcessor = new IncrementalCompileProcessor(stateCache, new IncrementalCompileFilesFactory(IncludeDirectives.EMPTY, includesParser, dependencyResolver, fileSystemAccess), new TestBuildOperationRunner(), buildOperationExecutor, new DefaultWorkerLimits(2))
 
     def source1 = sourceFile("source1")
     def source2 = sourceFile("source2")
@@ -382,6 +385,28 @@ class IncrementalCompileProcessorTest extends Specification {
         result.unresolvedHeaders
     }
 
+    def "parses each changed source file once when there are many changed source files"() {
+        given:
+        initialFiles()
+        def newSources = (1..40).collect { sourceFile("new${it}") }
+        newSources.each { sourceAdded(it, [dep3]) }
+        modified(source1)
+
+        when:
+        def result = state
+
+        then:
+        1 * includesParser.parseIncludes(source1) >> includes([dep1, dep2])
+        newSources.each { 1 * includesParser.parseIncludes(it) >> includes([dep3]) }
+
+        and:
+        result.recompile == [source1] + newSources
+        result.removed == []
+
+        and:
+        buildOperationExecutor.operations*.displayName == ["Parse 21 source files", "Parse 20 source files"]
+    }
+
     def checkCompile(Map<String, List<File>> args) {
         parseAndResolve()
         with(state) {
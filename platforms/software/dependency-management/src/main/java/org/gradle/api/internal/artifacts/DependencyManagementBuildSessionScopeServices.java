@@ -15,6 +15,8 @@
  */
 package org.gradle.api.internal.artifacts;
 
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.ParsedPomCache;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.DecodedModuleMetadataCache;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.CachingComponentSelectionDescriptorFactory;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.ComponentSelectionDescriptorFactory;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.DesugaredAttributeContainerSerializer;
@@ -35,6 +37,8 @@ void configure(ServiceRegistration registration) {
         registration.add(DesugaredAttributeContainerSerializer.class);
         registration.add(MavenMutableModuleMetadataFactory.class);
         registration.add(IvyMutableModuleMetadataFactory.class);
+        registration.add(ParsedPomCache.class);
+        registration.add(DecodedModuleMetadataCache.class);
     }
 
     ComponentSelectionDescriptorFactory createComponentSelectionDescriptorFactory() {
@@ -25,6 +25,7 @@
 import org.gradle.api.internal.artifacts.transform.ImmutableTransformWorkspaceServices;
 import org.gradle.api.internal.artifacts.transform.ToPlannedTransformStepConverter;
 import org.gradle.api.internal.artifacts.transform.TransformExecutionResult;
+import org.gradle.api.internal.artifacts.verification.verifier.CrossBuildVerificationResultCache;
 import org.gradle.api.internal.cache.CacheConfigurationsInternal;
 import org.gradle.cache.Cache;
 import org.gradle.cache.CacheBuilder;
@@ -82,6 +83,14 @@ public void buildFinished(BuildResult result) {
         return artifactCachesProvider;
     }
 
+    CrossBuildVerificationResultCache createCrossBuildVerificationResultCache(
+        GlobalScopedCacheBuilderFactory cacheBuilderFactory,
+        FileAccessTimeJournal fileAccessTimeJournal,
+        CacheConfigurationsInternal cacheConfigurations
+    ) {
+        return new CrossBuildVerificationResultCache(cacheBuilderFactory, fileAccessTimeJournal, cacheConfigurations);
+    }
+
     ImmutableTransformWorkspaceServices createTransformWorkspaceServices(
         GlobalScopedCacheBuilderFactory cacheBuilderFactory,
         CrossBuildInMemoryCacheFactory crossBuildInMemoryCacheFactory,
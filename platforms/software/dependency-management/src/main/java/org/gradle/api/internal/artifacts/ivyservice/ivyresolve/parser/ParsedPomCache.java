@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.gradle.internal.hash.FileHasher;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.resource.local.LocallyAvailableExternalResource;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+
+/**
+ * Shares the parsed XML of POM files that are read over and over again during a build session, like parent POMs and imported BOMs.
+ *
+ * <p>Only the parsed element tree is shared, keyed by the content of the file. The effective model of a POM depends on the
+ * properties of the POM that inherits from it and on the repositories it is resolved from, so it is always rebuilt by {@link PomReader}.</p>
+ */
+@ServiceScope(Scope.BuildSession.class)
+public class ParsedPomCache {
+    private static final int MAX_ENTRIES = 500;
+
+    private final FileHasher fileHasher;
+    private final Cache<HashCode, PomElement> parsed = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).build();
+
+    public ParsedPomCache(FileHasher fileHasher) {
+        this.fileHasher = fileHasher;
+    }
+
+    public PomElement parse(LocallyAvailableExternalResource resource) {
+        HashCode hash = fileHasher.hash(resource.getFile());
+        PomElement projectElement = parsed.getIfPresent(hash);
+        if (projectElement == null) {
+            // Parsing the same file concurrently is harmless, both results are identical
+            projectElement = PomReader.parse(resource);
+            parsed.put(hash, projectElement);
+        }
+        return projectElement;
+    }
+}
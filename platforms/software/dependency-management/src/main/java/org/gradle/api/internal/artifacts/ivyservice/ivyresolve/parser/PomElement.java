@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * An element of a parsed POM file. Only holds what is required to read the POM: the element name, its direct text content,
+ * its child elements and its direct comments.
+ *
+ * <p>Instances are immutable, so the same parsed POM can be shared between threads.</p>
+ */
+public final class PomElement {
+    private final String name;
+    private final String textContent;
+    private final List<PomElement> children;
+    private final List<String> comments;
+
+    PomElement(String name, String textContent, List<PomElement> children, List<String> comments) {
+        this.name = name;
+        this.textContent = textContent;
+        this.children = ImmutableList.copyOf(children);
+        this.comments = ImmutableList.copyOf(comments);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The concatenated text and CDATA content directly contained in this element, excluding the content of child elements.
+     */
+    public String getTextContent() {
+        return textContent;
+    }
+
+    public List<PomElement> getChildren() {
+        return children;
+    }
+
+    /**
+     * The comments directly contained in this element.
+     */
+    public List<String> getComments() {
+        return comments;
+    }
+
+    @Nullable
+    public static PomElement getFirstChildElement(@Nullable PomElement parent, String name) {
+        if (parent == null) {
+            return null;
+        }
+        for (PomElement child : parent.children) {
+            if (name.equals(child.name)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    public static String getFirstChildText(@Nullable PomElement parent, String name) {
+        PomElement element = getFirstChildElement(parent, name);
+        return element == null ? null : element.textContent;
+    }
+
+    public static List<PomElement> getAllChilds(@Nullable PomElement parent) {
+        return parent == null ? ImmutableList.of() : parent.children;
+    }
+}
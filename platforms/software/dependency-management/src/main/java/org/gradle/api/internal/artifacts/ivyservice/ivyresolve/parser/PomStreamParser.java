@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.commons.io.IOUtils;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.classloader.ClassLoaderUtils;
+import org.gradle.internal.xml.XmlFactories;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses a POM file into a tree of {@link PomElement}s in a single streaming pass, without building a DOM.
+ *
+ * <p>Many published POMs use HTML entities like {@code &nbsp;} without declaring them. These are resolved using the same
+ * entity declarations as Maven 2, instead of failing the parse.</p>
+ */
+public final class PomStreamParser {
+    private static final Pattern ENTITY_DECLARATION = Pattern.compile("<!ENTITY\\s+(\\w+)\\s+\"&#(\\d+);\"\\s*>");
+    private static final Map<String, String> M2_ENTITIES;
+    private static final XMLInputFactory INPUT_FACTORY;
+
+    static {
+        M2_ENTITIES = loadM2Entities();
+
+        // Set the context classloader the bootstrap classloader, to work around the way that JAXP locates implementation classes
+        // This should ensure that the JAXP classes provided by the JVM are used, rather than some other implementation
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(ClassLoaderUtils.getPlatformClassLoader());
+        try {
+            INPUT_FACTORY = XmlFactories.newXMLInputFactory();
+            INPUT_FACTORY.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, false);
+            // Like the DOM parser used before, ignore namespaces: many published POMs use prefixes such as 'xsi:' without binding them
+            INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    private PomStreamParser() {
+    }
+
+    private static Map<String, String> loadM2Entities() {
+        String declarations;
+        try (InputStream inputStream = org.apache.ivy.plugins.parser.m2.PomReader.class.getResourceAsStream("m2-entities.ent")) {
+            declarations = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        ImmutableMap.Builder<String, String> entities = ImmutableMap.builder();
+        Matcher matcher = ENTITY_DECLARATION.matcher(declarations);
+        while (matcher.find()) {
+            entities.put(matcher.group(1), new String(Character.toChars(Integer.parseInt(matcher.group(2)))));
+        }
+        return entities.build();
+    }
+
+    /**
+     * Parses the given POM content and returns its root element.
+     */
+    public static PomElement parse(InputStream inputStream, String systemId) throws XMLStreamException {
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(systemId, inputStream);
+        try {
+            Deque<ElementBuilder> open = new ArrayDeque<>();
+            PomElement root = null;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        // Without namespace processing, the local name is the qualified name as written
+                        open.push(new ElementBuilder(reader.getLocalName()));
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        PomElement element = open.pop().build();
+                        if (open.isEmpty()) {
+                            root = element;
+                        } else {
+                            open.peek().children.add(element);
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (!open.isEmpty()) {
+                            open.peek().text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                        break;
+                    case XMLStreamConstants.ENTITY_REFERENCE:
+                        if (!open.isEmpty()) {
+                            open.peek().text.append(resolveEntity(reader));
+                        }
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                        if (!open.isEmpty()) {
+                            open.peek().comments().add(reader.getText());
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (root == null) {
+                throw new XMLStreamException("Premature end of file.", reader.getLocation());
+            }
+            return root;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static String resolveEntity(XMLStreamReader reader) throws XMLStreamException {
+        // DTDs are not processed, so no entity is ever declared by the POM itself
+        String name = reader.getLocalName();
+        String value = M2_ENTITIES.get(name);
+        if (value == null) {
+            throw new XMLStreamException("The entity \"" + name + "\" was referenced, but not declared.", reader.getLocation());
+        }
+        return value;
+    }
+
+    private static class ElementBuilder {
+        private final String name;
+        private final StringBuilder text = new StringBuilder();
+        private final List<PomElement> children = new ArrayList<>();
+        private List<String> comments;
+
+        ElementBuilder(String name) {
+            this.name = name;
+        }
+
+        List<String> comments() {
+            if (comments == null) {
+                comments = new ArrayList<>();
+            }
+            return comments;
+        }
+
+        PomElement build() {
+            return new PomElement(name, text.toString(), children, comments == null ? Collections.emptyList() : comments);
+        }
+    }
+}
@@ -35,6 +35,7 @@
 import org.gradle.api.internal.artifacts.verification.signatures.BuildTreeDefinedKeys;
 import org.gradle.api.internal.artifacts.verification.signatures.SignatureVerificationService;
 import org.gradle.api.internal.artifacts.verification.signatures.SignatureVerificationServiceFactory;
+import org.gradle.api.internal.artifacts.verification.verifier.CrossBuildVerificationResultCache;
 import org.gradle.api.internal.artifacts.verification.verifier.DependencyVerifier;
 import org.gradle.api.internal.properties.GradleProperties;
 import org.gradle.api.logging.Logger;
@@ -45,6 +46,9 @@
 import org.gradle.internal.component.external.model.ModuleComponentGraphResolveState;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.hash.ChecksumService;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
 import org.gradle.internal.logging.ConsoleRenderer;
 import org.gradle.internal.operations.BuildOperationContext;
 import org.gradle.internal.operations.BuildOperationDescriptor;
@@ -52,6 +56,7 @@
 import org.gradle.internal.operations.RunnableBuildOperation;
 import org.gradle.internal.resource.local.FileResourceListener;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -65,6 +70,7 @@
 
 public class ChecksumAndSignatureVerificationOverride implements DependencyVerificationOverride, ArtifactVerificationOperation, Stoppable {
     private final static Logger LOGGER = Logging.getLogger(ChecksumAndSignatureVerificationOverride.class);
+    private static final HashCode NO_KEYRING_FILE_HASH = Hashing.signature(ChecksumAndSignatureVerificationOverride.class);
 
     private final DependencyVerifier verifier;
     private final BuildOperationExecutor buildOperationExecutor;
@@ -76,6 +82,9 @@ public class ChecksumAndSignatureVerificationOverride implements DependencyVerif
     private final Deque<VerificationEvent> verificationEvents = Queues.newArrayDeque();
     private final AtomicBoolean closed = new AtomicBoolean();
     private final DependencyVerificationReportWriter reportWriter;
+    private final CrossBuildVerificationResultCache verificationResultCache;
+    private final HashCode keyringFileHash;
+    private final boolean refreshKeys;
 
     // Must hold lock on `failuresLock` to access `failures` or `hasFatalFailure`
     private final Object failuresLock = new Object();
@@ -92,12 +101,16 @@ public ChecksumAndSignatureVerificationOverride(
         DocumentationRegistry documentationRegistry,
         File reportsDirectory,
         Factory<GradleProperties> gradlePropertiesFactory,
-        FileResourceListener fileResourceListener
+        FileResourceListener fileResourceListener,
+        CrossBuildVerificationResultCache verificationResultCache,
+        boolean refreshKeys
     ) {
         this.buildOperationExecutor = buildOperationExecutor;
         this.checksumService = checksumService;
         this.verificationMode = verificationMode;
         this.fileResourceListener = fileResourceListener;
+        this.verificationResultCache = verificationResultCache;
+        this.refreshKeys = refreshKeys;
         try {
             this.verifier = DependencyVerificationsXmlReader.readFromXml(
                 new FileInputStream(observed(verificationsFile))
@@ -110,6 +123,8 @@ public ChecksumAndSignatureVerificationOverride(
         }
         BuildTreeDefinedKeys localKeyring = new BuildTreeDefinedKeys(verificationsFile.getParentFile(), verifier.getConfiguration().getKeyringFormat());
         this.signatureVerificationService = signatureVerificationServiceFactory.create(localKeyring, keyServers(), verifier.getConfiguration().isUseKeyServers());
+        File keyringFile = localKeyring.getEffectiveKeyringsFile();
+        this.keyringFileHash = keyringFile.exists() ? checksumService.sha256(keyringFile) : NO_KEYRING_FILE_HASH;
     }
 
     private List<URI> keyServers() {
@@ -144,7 +159,15 @@ private void verifyConcurrently() {
                     queue.add(new RunnableBuildOperation() {
                         @Override
                         public void run(BuildOperationContext context) {
-                            verifier.verify(checksumService, signatureVerificationService, ve.kind, ve.artifact, observed(ve.mainFile), observed(ve.signatureFile.create()), f -> {
+                            File mainFile = observed(ve.mainFile);
+                            File signatureFile = observed(ve.signatureFile.create());
+                            HashCode cacheKey = verificationResultCacheKey(ve, mainFile, signatureFile);
+                            if (cacheKey != null && !refreshKeys && verificationResultCache.isVerified(cacheKey)) {
+                                return;
+                            }
+                            AtomicBoolean failed = new AtomicBoolean();
+                            verifier.verify(checksumService, signatureVerificationService, ve.kind, ve.artifact, mainFile, signatureFile, f -> {
+                                failed.set(true);
                                 synchronized (failuresLock) {
                                     failures.put(ve.artifact, new RepositoryAwareVerificationFailure(f, ve.repositoryName));
                                     if (f.isFatal()) {
@@ -152,6 +175,9 @@ public void run(BuildOperationContext context) {
                                     }
                                 }
                             });
+                            if (cacheKey != null && !failed.get()) {
+                                verificationResultCache.markVerified(cacheKey);
+                            }
                         }
 
                         @Override
@@ -166,6 +192,27 @@ public BuildOperationDescriptor.Builder description() {
 
     }
 
+    /**
+     * Computes the key under which a successful verification of the artifact is remembered across builds,
+     * or null when the artifact cannot be verified from its files alone.
+     */
+    @Nullable
+    private HashCode verificationResultCacheKey(VerificationEvent event, File mainFile, @Nullable File signatureFile) {
+        if (!mainFile.exists()) {
+            return null;
+        }
+        Hasher hasher = Hashing.newHasher();
+        hasher.putHash(verifier.fingerprint(event.kind, event.artifact));
+        hasher.putHash(keyringFileHash);
+        hasher.putHash(checksumService.sha256(mainFile));
+        if (signatureFile != null && signatureFile.exists()) {
+            hasher.putHash(checksumService.sha256(signatureFile));
+        } else {
+            hasher.putNull();
+        }
+        return hasher.hash();
+    }
+
     @Override
     public ModuleComponentRepository<ModuleComponentGraphResolveState> overrideDependencyVerification(ModuleComponentRepository<ModuleComponentGraphResolveState> original) {
         return new DependencyVerifyingModuleComponentRepository(original, this, verifier.getConfiguration().isVerifySignatures());
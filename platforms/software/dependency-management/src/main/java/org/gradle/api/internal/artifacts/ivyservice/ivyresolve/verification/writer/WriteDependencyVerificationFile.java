@@ -55,6 +55,7 @@
 import org.gradle.internal.component.external.model.ModuleComponentGraphResolveState;
 import org.gradle.internal.deprecation.DeprecatableConfiguration;
 import org.gradle.internal.hash.ChecksumService;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.operations.BuildOperationContext;
 import org.gradle.internal.operations.BuildOperationDescriptor;
 import org.gradle.internal.operations.BuildOperationExecutor;
@@ -75,11 +76,15 @@
 import java.io.OutputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -409,6 +414,7 @@ public BuildOperationDescriptor.Builder description() {
     private void computeChecksumsConcurrently(SignatureVerificationService signatureVerificationService) {
         Set<String> collectedIgnoredKeys = generatePgpInfo ? Sets.newConcurrentHashSet() : null;
         buildOperationExecutor.runAll(queue -> {
+            Map<File, List<ChecksumEntry>> checksumEntriesByFile = new LinkedHashMap<>();
             for (VerificationEntry entry : entriesToBeWritten) {
                 if (shouldSkipVerification(entry.getArtifactKind())) {
                     continue;
@@ -418,11 +424,14 @@ private void computeChecksumsConcurrently(SignatureVerificationService signature
                     continue;
                 }
                 if (entry instanceof ChecksumEntry) {
-                    queueChecksumVerification(queue, (ChecksumEntry) entry);
+                    checksumEntriesByFile.computeIfAbsent(entry.getFile(), file -> new ArrayList<>()).add((ChecksumEntry) entry);
                 } else {
                     queueSignatureVerification(queue, signatureVerificationService, (PgpEntry) entry, collectedIgnoredKeys);
                 }
             }
+            for (List<ChecksumEntry> entries : checksumEntriesByFile.values()) {
+                queueChecksumVerification(queue, entries);
+            }
         });
         if (generatePgpInfo) {
             postProcessPgpResults(collectedIgnoredKeys);
@@ -456,17 +465,25 @@ public BuildOperationDescriptor.Builder description() {
         });
     }
 
-    private void queueChecksumVerification(BuildOperationQueue<RunnableBuildOperation> queue, ChecksumEntry entry) {
+    /**
+     * Computes all the checksums of a file at once, so that the file is only read once.
+     */
+    private void queueChecksumVerification(BuildOperationQueue<RunnableBuildOperation> queue, List<ChecksumEntry> entries) {
+        ChecksumEntry first = entries.get(0);
         queue.add(new RunnableBuildOperation() {
             @Override
             public void run(BuildOperationContext context) {
-                entry.setChecksum(createHash(entry.getFile(), entry.getChecksumKind()));
+                Map<String, HashCode> hashes = createHashes(first.getFile(), entries);
+                for (ChecksumEntry entry : entries) {
+                    HashCode hash = hashes.get(entry.getChecksumKind().getAlgorithm());
+                    entry.setChecksum(hash == null ? null : hash.toString());
+                }
             }
 
             @Override
             public BuildOperationDescriptor.Builder description() {
                 return BuildOperationDescriptor.displayName("Computing checksums")
-                    .progressDisplayName("Computing checksum of " + entry.id);
+                    .progressDisplayName("Computing checksums of " + first.id);
             }
         });
     }
@@ -504,12 +521,16 @@ private boolean isTrustedArtifact(ModuleComponentArtifactIdentifier id) {
         return verificationsBuilder.getTrustedArtifacts().stream().anyMatch(artifact -> artifact.matches(id));
     }
 
-    private String createHash(File file, ChecksumKind kind) {
+    private Map<String, HashCode> createHashes(File file, List<ChecksumEntry> entries) {
         try {
-            return checksumService.hash(file, kind.getAlgorithm()).toString();
+            Set<String> algorithms = new LinkedHashSet<>();
+            for (ChecksumEntry entry : entries) {
+                algorithms.add(entry.getChecksumKind().getAlgorithm());
+            }
+            return checksumService.hash(file, algorithms);
         } catch (Exception e) {
             LOGGER.debug("Error while snapshotting " + file, e);
-            return null;
+            return Collections.emptyMap();
         }
     }
 
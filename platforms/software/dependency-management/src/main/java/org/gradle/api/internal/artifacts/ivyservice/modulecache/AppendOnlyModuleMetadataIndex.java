@@ -0,0 +1,446 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache;
+
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only index of the module metadata cache entries, which can be read by any process without holding the artifact cache lock.
+ *
+ * <p>The index is stored in numbered segment files, of which only the one with the highest number is in use. A segment is made of a header
+ * followed by records. The header holds the offset up to which records are complete. Records are only ever appended, by a process holding
+ * the artifact cache lock, and the header is updated once a record is fully written. Readers read the records added since their last lookup.
+ * A later record for a key replaces any earlier one.</p>
+ *
+ * <p>Each record holds the cache entry and the length and checksum of the descriptor file at the time the entry was written,
+ * so that readers can detect descriptors which were rewritten or removed since then, in which case they need to look up the
+ * entry while holding the lock.</p>
+ *
+ * <p>When a segment is full, the latest record of each key is copied to a new segment, and the full segment is marked as superseded and deleted.
+ * New segments are written to a temporary file and moved into place, so files are never truncated or replaced while other processes read them.</p>
+ *
+ * <p>The segment in use is kept open until the index moves on to another segment or is closed, so lookups only read the header and the new records.</p>
+ */
+class AppendOnlyModuleMetadataIndex implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AppendOnlyModuleMetadataIndex.class);
+
+    private static final int MAGIC = 0x474d4d49;
+    private static final int VERSION = 2;
+    private static final int COMMITTED_OFFSET = 8;
+    private static final int LIMIT_OFFSET = 16;
+    private static final int HEADER_SIZE = 24;
+    private static final long SUPERSEDED = -1;
+    private static final long DEFAULT_MAX_SIZE = 64 * 1024 * 1024;
+    private static final int NO_DESCRIPTOR = -1;
+    private static final int MAX_SEGMENT_SWITCHES = 3;
+    private static final String SEGMENT_SUFFIX = ".bin";
+
+    private final File directory;
+    private final String segmentPrefix;
+    private final long maxSize;
+    private final Map<String, IndexedEntry> entries = new ConcurrentHashMap<>();
+    // The segment in use, or -1 when not known yet
+    private int segment = -1;
+    // The open segment in use, or null when not opened yet
+    @Nullable
+    private FileChannel channel;
+    private boolean writable;
+    private long scanned = HEADER_SIZE;
+
+    AppendOnlyModuleMetadataIndex(File directory, String name) {
+        this(directory, name, DEFAULT_MAX_SIZE);
+    }
+
+    AppendOnlyModuleMetadataIndex(File directory, String name, long maxSize) {
+        this.directory = directory;
+        this.segmentPrefix = name + "-";
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Looks up the most recently recorded entry for the given key, without locking the artifact cache.
+     *
+     * @return the entry, or null when the key is not indexed or the index cannot be used.
+     */
+    @Nullable
+    IndexedEntry find(ModuleComponentAtRepositoryKey key) {
+        try {
+            refresh();
+        } catch (IOException e) {
+            LOGGER.debug("Could not read module metadata index in {}", directory, e);
+            return null;
+        }
+        return entries.get(keyOf(key));
+    }
+
+    /**
+     * Reads the records committed to the segment in use since the last lookup, moving on to a newer segment when the one in use was superseded.
+     */
+    private synchronized void refresh() throws IOException {
+        for (int attempt = 0; attempt < MAX_SEGMENT_SWITCHES; attempt++) {
+            if (segment < 0) {
+                int latest = latestSegment();
+                if (latest < 0) {
+                    return;
+                }
+                useSegment(latest);
+            }
+            try {
+                FileChannel channel = openSegment(false);
+                ByteBuffer header = readHeader(channel);
+                long committed = committedOffsetOf(header, channel.size());
+                if (committed >= HEADER_SIZE) {
+                    if (committed > scanned) {
+                        scanned = readRecords(channel, scanned, committed, this::readRecord);
+                    }
+                    return;
+                }
+            } catch (NoSuchFileException e) {
+                // Deleted after it was superseded
+            }
+            int latest = latestSegment();
+            if (latest <= segment) {
+                // No usable segment, until the next entry is recorded
+                closeSegment();
+                entries.clear();
+                scanned = HEADER_SIZE;
+                return;
+            }
+            useSegment(latest);
+        }
+    }
+
+    /**
+     * Appends an entry to the index. Must only be called while holding the artifact cache lock.
+     *
+     * @param descriptor the content of the descriptor file of the entry, or null for a missing module.
+     */
+    synchronized void record(ModuleComponentAtRepositoryKey key, ModuleMetadataCacheEntry entry, @Nullable byte[] descriptor) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeUTF(keyOf(key));
+            output.writeByte(entry.type);
+            output.writeBoolean(entry.isChanging);
+            output.writeLong(entry.createTimestamp);
+            output.writeInt(descriptor == null ? NO_DESCRIPTOR : descriptor.length);
+            output.writeInt(descriptor == null ? 0 : crcOf(descriptor, descriptor.length));
+            output.flush();
+            byte[] record = recordOf(bytes.toByteArray());
+
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+                return;
+            }
+            for (int attempt = 0; attempt < MAX_SEGMENT_SWITCHES; attempt++) {
+                if (segment < 0) {
+                    int latest = latestSegment();
+                    if (latest < 0) {
+                        latest = 0;
+                        writeSegment(latest, new byte[0]);
+                    }
+                    useSegment(latest);
+                }
+                try {
+                    FileChannel channel = openSegment(true);
+                    ByteBuffer header = readHeader(channel);
+                    long committed = committedOffsetOf(header, channel.size());
+                    if (committed >= HEADER_SIZE) {
+                        if (committed + record.length <= header.getLong(LIMIT_OFFSET)) {
+                            channel.write(ByteBuffer.wrap(record), committed);
+                            writeCommittedOffset(channel, committed + record.length);
+                        } else {
+                            compact(channel, committed, record);
+                        }
+                        return;
+                    }
+                } catch (NoSuchFileException e) {
+                    // Deleted after it was superseded
+                }
+                int latest = latestSegment();
+                if (latest <= segment) {
+                    // The segment in use cannot be read, start over with an empty segment
+                    latest = segment + 1;
+                    writeSegment(latest, new byte[0]);
+                    closeSegment();
+                    deleteSegment(segment);
+                }
+                useSegment(latest);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Could not write to module metadata index in {}", directory, e);
+        }
+    }
+
+    /**
+     * Closes the segment in use.
+     */
+    @Override
+    public synchronized void close() {
+        closeSegment();
+    }
+
+    /**
+     * Returns the channel of the segment in use, opening it when it is not open yet or when it was opened read-only and needs to be written.
+     */
+    private FileChannel openSegment(boolean write) throws IOException {
+        if (channel != null && (writable || !write)) {
+            return channel;
+        }
+        closeSegment();
+        channel = write
+            ? FileChannel.open(segmentFile(segment).toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)
+            : FileChannel.open(segmentFile(segment).toPath(), StandardOpenOption.READ);
+        writable = write;
+        return channel;
+    }
+
+    private void closeSegment() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.debug("Could not close module metadata index segment {}", segmentFile(segment), e);
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Replaces the full segment in use with a new segment holding the latest record of each key, followed by the given record.
+     */
+    private void compact(FileChannel channel, long committed, byte[] record) throws IOException {
+        Map<String, byte[]> latestRecords = new LinkedHashMap<>();
+        readRecords(channel, HEADER_SIZE, committed, payload -> latestRecords.put(keyOfRecord(payload), recordOf(payload)));
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        for (byte[] latestRecord : latestRecords.values()) {
+            records.write(latestRecord);
+        }
+        records.write(record);
+
+        int next = segment + 1;
+        writeSegment(next, records.toByteArray());
+        // Readers move on to the new segment once they see this one is superseded
+        writeCommittedOffset(channel, SUPERSEDED);
+        int superseded = segment;
+        useSegment(next);
+        deleteSegment(superseded);
+    }
+
+    /**
+     * Writes a complete segment with the given records. The segment is written to a temporary file first, so that readers never see it partially written.
+     */
+    private void writeSegment(int number, byte[] records) throws IOException {
+        // Leave room to append at least as much as was copied, so that segments holding many distinct keys are not compacted over and over
+        long limit = Math.max(maxSize, HEADER_SIZE + 2L * records.length);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putLong(HEADER_SIZE + records.length);
+        header.putLong(limit);
+        File segmentFile = segmentFile(number);
+        File tempFile = new File(directory, segmentFile.getName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            header.flip();
+            channel.write(header, 0);
+            channel.write(ByteBuffer.wrap(records), HEADER_SIZE);
+        }
+        Files.move(tempFile.toPath(), segmentFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteSegment(int number) {
+        try {
+            Files.deleteIfExists(segmentFile(number).toPath());
+        } catch (IOException e) {
+            // Can fail on some file systems while another process has the segment open. It is superseded, so it is not used anymore.
+            LOGGER.debug("Could not delete module metadata index segment {}", segmentFile(number), e);
+        }
+    }
+
+    private void useSegment(int number) {
+        if (segment != number) {
+            closeSegment();
+            segment = number;
+            entries.clear();
+            scanned = HEADER_SIZE;
+        }
+    }
+
+    private int latestSegment() {
+        String[] names = directory.list();
+        int latest = -1;
+        if (names != null) {
+            for (String name : names) {
+                if (name.startsWith(segmentPrefix) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        latest = Math.max(latest, Integer.parseInt(name.substring(segmentPrefix.length(), name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // Not a segment
+                    }
+                }
+            }
+        }
+        return latest;
+    }
+
+    private File segmentFile(int number) {
+        return new File(directory, segmentPrefix + number + SEGMENT_SUFFIX);
+    }
+
+    private static ByteBuffer readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // Keep reading
+        }
+        return header;
+    }
+
+    /**
+     * Returns the offset up to which records are complete, or {@link #SUPERSEDED} when the segment was superseded or cannot be read.
+     */
+    private static long committedOffsetOf(ByteBuffer header, long size) {
+        if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            return SUPERSEDED;
+        }
+        long committed = header.getLong(COMMITTED_OFFSET);
+        return committed <= size ? committed : SUPERSEDED;
+    }
+
+    private static void writeCommittedOffset(FileChannel channel, long committed) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.putLong(committed);
+        buffer.flip();
+        channel.write(buffer, COMMITTED_OFFSET);
+    }
+
+    /**
+     * Reads the complete and valid records between the given offsets, and returns the offset after the last one.
+     */
+    private long readRecords(FileChannel channel, long from, long to, RecordVisitor visitor) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+        while (buffer.hasRemaining() && channel.read(buffer, from + buffer.position()) > 0) {
+            // Keep reading
+        }
+        buffer.flip();
+        long position = from;
+        while (buffer.remaining() >= 8) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (crcOf(payload, payload.length) != checksum) {
+                LOGGER.debug("Found corrupt record in module metadata index segment {} at offset {}", segmentFile(segment), position);
+                break;
+            }
+            try {
+                visitor.visit(payload);
+            } catch (IOException e) {
+                break;
+            }
+            position += 8 + length;
+        }
+        return position;
+    }
+
+    private void readRecord(byte[] payload) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+        String key = input.readUTF();
+        byte type = input.readByte();
+        boolean changing = input.readBoolean();
+        long createTimestamp = input.readLong();
+        int descriptorLength = input.readInt();
+        int descriptorChecksum = input.readInt();
+        ModuleMetadataCacheEntry entry = type == ModuleMetadataCacheEntry.TYPE_MISSING
+            ? ModuleMetadataCacheEntry.forMissingModule(createTimestamp)
+            : new ModuleMetadataCacheEntry(ModuleMetadataCacheEntry.TYPE_PRESENT, changing, createTimestamp);
+        entries.put(key, new IndexedEntry(entry, descriptorLength, descriptorChecksum));
+    }
+
+    private static String keyOfRecord(byte[] payload) throws IOException {
+        return new DataInputStream(new ByteArrayInputStream(payload)).readUTF();
+    }
+
+    private static byte[] recordOf(byte[] payload) {
+        ByteBuffer record = ByteBuffer.allocate(8 + payload.length);
+        record.putInt(payload.length);
+        record.putInt(crcOf(payload, payload.length));
+        record.put(payload);
+        return record.array();
+    }
+
+    private static String keyOf(ModuleComponentAtRepositoryKey key) {
+        ModuleComponentIdentifier id = key.getComponentId();
+        return key.getRepositoryId() + '\0' + id.getGroup() + '\0' + id.getModule() + '\0' + id.getVersion();
+    }
+
+    private static int crcOf(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+
+    private interface RecordVisitor {
+        void visit(byte[] payload) throws IOException;
+    }
+
+    static class IndexedEntry {
+        private final ModuleMetadataCacheEntry entry;
+        private final int descriptorLength;
+        private final int descriptorChecksum;
+
+        private IndexedEntry(ModuleMetadataCacheEntry entry, int descriptorLength, int descriptorChecksum) {
+            this.entry = entry;
+            this.descriptorLength = descriptorLength;
+            this.descriptorChecksum = descriptorChecksum;
+        }
+
+        ModuleMetadataCacheEntry getEntry() {
+            return entry;
+        }
+
+        /**
+         * Returns true when the given descriptor content is the one that was present when this entry was recorded.
+         */
+        boolean isDescriptor(byte[] descriptor) {
+            return descriptor.length == descriptorLength && crcOf(descriptor, descriptor.length) == descriptorChecksum;
+        }
+    }
+}
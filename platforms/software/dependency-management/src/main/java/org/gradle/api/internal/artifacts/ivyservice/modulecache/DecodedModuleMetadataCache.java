@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+
+import java.util.function.Supplier;
+
+/**
+ * Shares the module metadata decoded from the persistent module metadata cache between the builds of a build session.
+ *
+ * <p>When a build re-resolves a configuration after some of its dependency declarations changed, most of the components in the graph
+ * are the same as in the previous build. Their metadata is taken from here instead of being decoded again.
+ * Entries are keyed by the content of the cached descriptor, so a descriptor which was rewritten since is decoded again.
+ * Only the metadata as stored in the cache is shared: component metadata rules are applied again by each build.</p>
+ */
+@ServiceScope(Scope.BuildSession.class)
+public class DecodedModuleMetadataCache {
+    private static final int MAX_ENTRIES = 5000;
+
+    private final Cache<Key, ModuleComponentResolveMetadata> decoded = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).build();
+
+    /**
+     * Returns the metadata of the given descriptor, using the given decoder when it was not decoded yet.
+     */
+    ModuleComponentResolveMetadata get(ModuleComponentAtRepositoryKey component, byte[] descriptor, boolean changing, Supplier<ModuleComponentResolveMetadata> decoder) {
+        Key key = new Key(component, Hashing.hashBytes(descriptor), changing);
+        ModuleComponentResolveMetadata metadata = decoded.getIfPresent(key);
+        if (metadata == null) {
+            // Decoding the same descriptor concurrently is harmless, both results are equivalent
+            metadata = decoder.get();
+            decoded.put(key, metadata);
+        }
+        return metadata;
+    }
+
+    private static class Key {
+        private final ModuleComponentAtRepositoryKey component;
+        private final HashCode descriptorHash;
+        private final boolean changing;
+        private final int hashCode;
+
+        Key(ModuleComponentAtRepositoryKey component, HashCode descriptorHash, boolean changing) {
+            this.component = component;
+            this.descriptorHash = descriptorHash;
+            this.changing = changing;
+            this.hashCode = Objects.hashCode(component, descriptorHash, changing);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return changing == key.changing && descriptorHash.equals(key.descriptorHash) && component.equals(key.component);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
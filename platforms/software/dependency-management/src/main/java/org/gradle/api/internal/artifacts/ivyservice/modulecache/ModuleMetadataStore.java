@@ -27,8 +27,11 @@
 import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
 import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
 
-import java.io.FileInputStream;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.util.HashMap;
 
 public class ModuleMetadataStore {
@@ -49,14 +52,24 @@ public ModuleMetadataStore(PathKeyFileStore metaDataStore,
         this.stringInterner = stringInterner;
     }
 
+    @Nullable
     public MutableModuleComponentResolveMetadata getModuleDescriptor(ModuleComponentAtRepositoryKey component) {
+        byte[] content = getModuleDescriptorContent(component);
+        return content == null ? null : decodeModuleDescriptor(component, content);
+    }
+
+    /**
+     * Returns the serialized descriptor of the given component, or null when it is not present in the store.
+     */
+    @Nullable
+    public byte[] getModuleDescriptorContent(ModuleComponentAtRepositoryKey component) {
         String[] filePath = getFilePath(component);
         LocallyAvailableResource resource = metaDataStore.get(filePath);
         if (resource != null) {
             try {
-                try (StringDeduplicatingDecoder decoder = new StringDeduplicatingDecoder(new KryoBackedDecoder(new FileInputStream(resource.getFile())), stringInterner)) {
-                    return moduleMetadataSerializer.read(decoder, moduleIdentifierFactory, new HashMap<>());
-                }
+                return Files.readAllBytes(resource.getFile().toPath());
+            } catch (NoSuchFileException e) {
+                return null;
             } catch (Exception e) {
                 throw new RuntimeException("Could not load module metadata from " + resource.getDisplayName(), e);
             }
@@ -64,6 +77,16 @@ public MutableModuleComponentResolveMetadata getModuleDescriptor(ModuleComponent
         return null;
     }
 
+    public MutableModuleComponentResolveMetadata decodeModuleDescriptor(ModuleComponentAtRepositoryKey component, byte[] content) {
+        try {
+            try (StringDeduplicatingDecoder decoder = new StringDeduplicatingDecoder(new KryoBackedDecoder(new ByteArrayInputStream(content)), stringInterner)) {
+                return moduleMetadataSerializer.read(decoder, moduleIdentifierFactory, new HashMap<>());
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Could not load module metadata from " + PATH_JOINER.join(getFilePath(component)), e);
+        }
+    }
+
     public LocallyAvailableResource putModuleDescriptor(ModuleComponentAtRepositoryKey component, final ModuleComponentResolveMetadata metadata) {
         String[] filePath = getFilePath(component);
         return metaDataStore.add(PATH_JOINER.join(filePath), moduleDescriptorFile -> {
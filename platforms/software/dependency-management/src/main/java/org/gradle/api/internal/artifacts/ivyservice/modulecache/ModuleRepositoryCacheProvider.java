@@ -15,14 +15,26 @@
  */
 package org.gradle.api.internal.artifacts.ivyservice.modulecache;
 
-public class ModuleRepositoryCacheProvider {
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.Stoppable;
+
+public class ModuleRepositoryCacheProvider implements Stoppable {
     private final ModuleRepositoryCaches caches;
     private final ModuleRepositoryCaches inMemoryCaches;
+    private final Stoppable backingCaches;
     private final ResolvedArtifactCaches resolvedArtifactCaches = new ResolvedArtifactCaches();
 
     public ModuleRepositoryCacheProvider(ModuleRepositoryCaches caches, ModuleRepositoryCaches inMemoryCaches) {
+        this(caches, inMemoryCaches, CompositeStoppable.NO_OP_STOPPABLE);
+    }
+
+    /**
+     * @param backingCaches the caches the persistent caches delegate to, which are stopped along with this provider.
+     */
+    public ModuleRepositoryCacheProvider(ModuleRepositoryCaches caches, ModuleRepositoryCaches inMemoryCaches, Stoppable backingCaches) {
         this.caches = caches;
         this.inMemoryCaches = inMemoryCaches;
+        this.backingCaches = backingCaches;
     }
 
     /**
@@ -43,4 +55,9 @@ public ModuleRepositoryCaches getInMemoryOnlyCaches() {
     public ResolvedArtifactCaches getResolvedArtifactCaches() {
         return resolvedArtifactCaches;
     }
+
+    @Override
+    public void stop() {
+        CompositeStoppable.stoppable(resolvedArtifactCaches, backingCaches).stop();
+    }
 }
@@ -18,8 +18,10 @@
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.AbstractArtifactsCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ModuleArtifactCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.AbstractModuleVersionsCache;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.Stoppable;
 
-public class ModuleRepositoryCaches {
+public class ModuleRepositoryCaches implements Stoppable {
     public final AbstractModuleVersionsCache moduleVersionsCache;
     public final AbstractModuleMetadataCache moduleMetadataCache;
     public final AbstractArtifactsCache moduleArtifactsCache;
@@ -31,4 +33,12 @@ public ModuleRepositoryCaches(AbstractModuleVersionsCache moduleVersionsCache, A
         this.moduleArtifactsCache = moduleArtifactsCache;
         this.moduleArtifactCache = moduleArtifactCache;
     }
+
+    /**
+     * Releases the resources held by the caches, like open files.
+     */
+    @Override
+    public void stop() {
+        CompositeStoppable.stoppable(moduleVersionsCache, moduleMetadataCache, moduleArtifactsCache, moduleArtifactCache).stop();
+    }
 }
@@ -27,7 +27,6 @@
 import org.gradle.api.internal.artifacts.repositories.metadata.MavenMutableModuleMetadataFactory;
 import org.gradle.cache.IndexedCache;
 import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata;
-import org.gradle.internal.component.external.model.MutableModuleComponentResolveMetadata;
 import org.gradle.internal.hash.ChecksumService;
 import org.gradle.internal.resource.local.DefaultPathKeyFileStore;
 import org.gradle.internal.serialize.AbstractSerializer;
@@ -35,11 +34,16 @@
 import org.gradle.internal.serialize.Encoder;
 import org.gradle.util.internal.BuildCommencedTimeProvider;
 
-public class PersistentModuleMetadataCache extends AbstractModuleMetadataCache {
+import javax.annotation.Nullable;
+import java.io.Closeable;
+
+public class PersistentModuleMetadataCache extends AbstractModuleMetadataCache implements Closeable {
 
     private IndexedCache<ModuleComponentAtRepositoryKey, ModuleMetadataCacheEntry> cache;
     private final ModuleMetadataStore moduleMetadataStore;
     private final ArtifactCacheLockingAccessCoordinator artifactCacheLockingManager;
+    private final AppendOnlyModuleMetadataIndex index;
+    private final DecodedModuleMetadataCache decodedMetadataCache;
 
     public PersistentModuleMetadataCache(BuildCommencedTimeProvider timeProvider,
                                          ArtifactCacheLockingAccessCoordinator cacheAccessCoordinator,
@@ -50,10 +54,18 @@ public PersistentModuleMetadataCache(BuildCommencedTimeProvider timeProvider,
                                          IvyMutableModuleMetadataFactory ivyMetadataFactory,
                                          Interner<String> stringInterner,
                                          ModuleSourcesSerializer moduleSourcesSerializer,
-                                         ChecksumService checksumService) {
+                                         ChecksumService checksumService,
+                                         DecodedModuleMetadataCache decodedMetadataCache) {
         super(timeProvider);
         moduleMetadataStore = new ModuleMetadataStore(new DefaultPathKeyFileStore(checksumService, artifactCacheMetadata.getMetaDataStoreDirectory()), new ModuleMetadataSerializer(attributeContainerSerializer, mavenMetadataFactory, ivyMetadataFactory, moduleSourcesSerializer), moduleIdentifierFactory, stringInterner);
         this.artifactCacheLockingManager = cacheAccessCoordinator;
+        this.decodedMetadataCache = decodedMetadataCache;
+        this.index = new AppendOnlyModuleMetadataIndex(artifactCacheMetadata.getMetaDataStoreDirectory().getParentFile(), "module-metadata-index");
+    }
+
+    @Override
+    public void close() {
+        index.close();
     }
 
     private IndexedCache<ModuleComponentAtRepositoryKey, ModuleMetadataCacheEntry> getCache() {
@@ -69,6 +81,10 @@ private IndexedCache<ModuleComponentAtRepositoryKey, ModuleMetadataCacheEntry> i
 
     @Override
     protected CachedMetadata get(ModuleComponentAtRepositoryKey key) {
+        CachedMetadata indexed = getFromIndex(key);
+        if (indexed != null) {
+            return indexed;
+        }
         final IndexedCache<ModuleComponentAtRepositoryKey, ModuleMetadataCacheEntry> cache = getCache();
         return artifactCacheLockingManager.useCache(() -> {
             ModuleMetadataCacheEntry entry = cache.getIfPresent(key);
@@ -76,33 +92,74 @@ protected CachedMetadata get(ModuleComponentAtRepositoryKey key) {
                 return null;
             }
             if (entry.isMissing()) {
+                recordInIndex(key, entry, null);
                 return new DefaultCachedMetadata(entry, null, timeProvider);
             }
-            MutableModuleComponentResolveMetadata metadata = moduleMetadataStore.getModuleDescriptor(key);
-            if (metadata == null) {
+            byte[] descriptor = moduleMetadataStore.getModuleDescriptorContent(key);
+            if (descriptor == null) {
                 // Descriptor file has been deleted - ignore the entry
                 cache.remove(key);
                 return null;
             }
-            return new DefaultCachedMetadata(entry, entry.configure(metadata), timeProvider);
+            ModuleComponentResolveMetadata metadata = decode(key, entry, descriptor);
+            recordInIndex(key, entry, descriptor);
+            return new DefaultCachedMetadata(entry, metadata, timeProvider);
         });
     }
 
+    /**
+     * Looks up the entry in the index without locking the cache. Returns null when the entry is not indexed
+     * or when its descriptor has changed since it was indexed, in which case the cache needs to be queried.
+     */
+    @Nullable
+    private CachedMetadata getFromIndex(ModuleComponentAtRepositoryKey key) {
+        AppendOnlyModuleMetadataIndex.IndexedEntry indexed = index.find(key);
+        if (indexed == null) {
+            return null;
+        }
+        ModuleMetadataCacheEntry entry = indexed.getEntry();
+        try {
+            byte[] descriptor = moduleMetadataStore.getModuleDescriptorContent(key);
+            if (entry.isMissing()) {
+                return descriptor == null ? new DefaultCachedMetadata(entry, null, timeProvider) : null;
+            }
+            if (descriptor == null || !indexed.isDescriptor(descriptor)) {
+                return null;
+            }
+            return new DefaultCachedMetadata(entry, decode(key, entry, descriptor), timeProvider);
+        } catch (RuntimeException e) {
+            // The descriptor may be written concurrently, fall back to reading it while holding the lock
+            return null;
+        }
+    }
+
+    private ModuleComponentResolveMetadata decode(ModuleComponentAtRepositoryKey key, ModuleMetadataCacheEntry entry, byte[] descriptor) {
+        return decodedMetadataCache.get(key, descriptor, entry.isChanging, () -> entry.configure(moduleMetadataStore.decodeModuleDescriptor(key, descriptor)));
+    }
+
     @Override
     protected CachedMetadata store(final ModuleComponentAtRepositoryKey key, final ModuleMetadataCacheEntry entry, final CachedMetadata cachedMetadata) {
-        if (entry.isMissing()) {
-            getCache().put(key, entry);
-        } else {
-            // Need to lock the cache in order to write to the module metadata store
-            artifactCacheLockingManager.useCache(() -> {
+        // Need to lock the cache in order to write to the module metadata store and to the index
+        artifactCacheLockingManager.useCache(() -> {
+            byte[] descriptor = null;
+            if (!entry.isMissing()) {
                 final ModuleComponentResolveMetadata metadata = cachedMetadata.getMetadata();
                 moduleMetadataStore.putModuleDescriptor(key, metadata);
-                getCache().put(key, entry);
-            });
-        }
+                descriptor = moduleMetadataStore.getModuleDescriptorContent(key);
+            }
+            getCache().put(key, entry);
+            recordInIndex(key, entry, descriptor);
+        });
         return cachedMetadata;
     }
 
+    /**
+     * Adds an entry read from or written to the cache to the index. Called while holding the cache lock.
+     */
+    protected void recordInIndex(ModuleComponentAtRepositoryKey key, ModuleMetadataCacheEntry entry, @Nullable byte[] descriptor) {
+        index.record(key, entry, descriptor);
+    }
+
     private static class RevisionKeySerializer extends AbstractSerializer<ModuleComponentAtRepositoryKey> {
         private final ComponentIdentifierSerializer componentIdSerializer = new ComponentIdentifierSerializer();
 
@@ -17,9 +17,9 @@
 
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.specs.ExcludeSpec;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
 /**
@@ -142,15 +142,20 @@ public int hashCode() {
 
     /**
      * A shareable backing cache for different caching exclude factories.
-     * Synchronization is ad-hoc, since `computeIfAbsent` on a concurrent hash map
+     * Merge results are computed outside of any lock, since `computeIfAbsent` on a concurrent hash map
      * will not allow for recursion, which is the case for us whenever a cache is
-     * found at different levels.
+     * found at different levels. Concurrent misses for the same key may compute the same result
+     * more than once, in which case the first stored result wins.
+     *
+     * All merge results are canonicalized, so that equal specs produced by different merges are
+     * the same instance. This makes most equality checks of specs and of cache keys reference checks.
      */
     public static class MergeCaches {
-        private final ConcurrentCache<ExcludePair, ExcludeSpec> allOfPairCache = ConcurrentCache.of();
-        private final ConcurrentCache<ExcludePair, ExcludeSpec> anyOfPairCache = ConcurrentCache.of();
-        private final ConcurrentCache<ExcludesKey, ExcludeSpec> allOfListCache = ConcurrentCache.of();
-        private final ConcurrentCache<ExcludesKey, ExcludeSpec> anyOfListCache = ConcurrentCache.of();
+        private final ConcurrentMap<ExcludeSpec, ExcludeSpec> canonicalSpecs = new ConcurrentHashMap<>();
+        private final ConcurrentCache<ExcludePair> allOfPairCache = new ConcurrentCache<>(this);
+        private final ConcurrentCache<ExcludePair> anyOfPairCache = new ConcurrentCache<>(this);
+        private final ConcurrentCache<ExcludesKey> allOfListCache = new ConcurrentCache<>(this);
+        private final ConcurrentCache<ExcludesKey> anyOfListCache = new ConcurrentCache<>(this);
 
         ExcludeSpec getAnyPair(ExcludePair pair, Function<ExcludePair, ExcludeSpec> onMiss) {
             return anyOfPairCache.computeIfAbsent(pair, onMiss);
@@ -167,25 +172,29 @@ ExcludeSpec getAnyOf(ExcludesKey list, Function<ExcludesKey, ExcludeSpec> onMiss
         ExcludeSpec getAllOf(ExcludesKey list, Function<ExcludesKey, ExcludeSpec> onMiss) {
             return allOfListCache.computeIfAbsent(list, onMiss);
         }
+
+        private ExcludeSpec canonicalize(ExcludeSpec spec) {
+            ExcludeSpec existing = canonicalSpecs.putIfAbsent(spec, spec);
+            return existing != null ? existing : spec;
+        }
     }
 
-    private static class ConcurrentCache<K, V> {
-        private final Map<K, V> backingMap = new HashMap<>();
+    private static class ConcurrentCache<K> {
+        private final ConcurrentMap<K, ExcludeSpec> backingMap = new ConcurrentHashMap<>();
+        private final MergeCaches caches;
 
-        static <K, V> ConcurrentCache<K, V> of() {
-            return new ConcurrentCache<>();
+        ConcurrentCache(MergeCaches caches) {
+            this.caches = caches;
         }
 
-        V computeIfAbsent(K key, Function<K, V> producer) {
-            synchronized (backingMap) {
-                V value = backingMap.get(key);
-                if (value != null) {
-                    return value;
-                }
-                value = producer.apply(key);
-                backingMap.put(key, value);
+        ExcludeSpec computeIfAbsent(K key, Function<K, ExcludeSpec> producer) {
+            ExcludeSpec value = backingMap.get(key);
+            if (value != null) {
                 return value;
             }
+            value = caches.canonicalize(producer.apply(key));
+            ExcludeSpec existing = backingMap.putIfAbsent(key, value);
+            return existing != null ? existing : value;
         }
     }
 }
@@ -45,7 +45,6 @@
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -58,7 +57,8 @@ public class ComponentState implements ComponentResolutionState, DependencyGraph
     private final ComponentIdentifier componentIdentifier;
     private final ModuleVersionIdentifier id;
     private final ComponentMetaDataResolver resolver;
-    private final List<NodeState> nodes = new LinkedList<>();
+    // Most components have a single node
+    private final List<NodeState> nodes = new ArrayList<>(2);
     private final Long resultId;
     private final ModuleResolveState module;
     private final List<ComponentSelectionDescriptorInternal> selectionCauses = new ArrayList<>();
@@ -262,6 +262,19 @@ public void addConfiguration(NodeState node) {
         nodes.add(node);
     }
 
+    /**
+     * Returns the node of this component for the given variant, if it has been created.
+     */
+    @Nullable
+    NodeState getNode(String variantName) {
+        for (NodeState node : nodes) {
+            if (node.getResolvedConfigurationId().getConfiguration().equals(variantName)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
     private ComponentSelectionReason cachedReason;
 
     @Override
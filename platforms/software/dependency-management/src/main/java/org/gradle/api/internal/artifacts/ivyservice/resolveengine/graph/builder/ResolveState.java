@@ -54,6 +54,7 @@
 
 import javax.annotation.Nullable;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Deque;
@@ -61,7 +62,6 @@
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * Global resolution state.
@@ -69,8 +69,9 @@
 class ResolveState implements ComponentStateFactory<ComponentState> {
     private final Spec<? super DependencyMetadata> edgeFilter;
     private final Map<ModuleIdentifier, ModuleResolveState> modules;
-    private final Map<ResolvedConfigurationIdentifier, NodeState> nodes;
-    private final Map<SelectorCacheKey, SelectorState> selectors;
+    private final List<NodeState> nodes;
+    private final List<SelectorState> selectors;
+    private final SelectorTable selectorTable;
     private final RootNode root;
     private final ComponentIdGenerator idGenerator;
     private final DependencyToComponentIdResolver idResolver;
@@ -135,8 +136,9 @@ public ResolveState(
 
         int graphSize = estimateGraphSize(root);
         this.modules = new LinkedHashMap<>(graphSize);
-        this.nodes = new LinkedHashMap<>(3 * graphSize / 2);
-        this.selectors = new LinkedHashMap<>(5 * graphSize / 2);
+        this.nodes = new ArrayList<>(3 * graphSize / 2);
+        this.selectors = new ArrayList<>(5 * graphSize / 2);
+        this.selectorTable = new SelectorTable(5 * graphSize / 2);
         this.queue = new ArrayDeque<>(graphSize);
 
         LocalComponentGraphResolveState rootComponentState = root.getRootComponent();
@@ -157,7 +159,7 @@ public ResolveState(
         ResolvedConfigurationIdentifier rootNodeId = new ResolvedConfigurationIdentifier(moduleVersionId, root.getRootConfigurationName());
         VariantGraphResolveState rootVariant = root.getRootVariant();
         this.root = new RootNode(idGenerator.nextGraphNodeId(), rootComponent, rootNodeId, this, syntheticDependencies, rootVariant);
-        nodes.put(rootNodeId, this.root);
+        nodes.add(this.root);
     }
 
     public ComponentIdGenerator getIdGenerator() {
@@ -202,24 +204,34 @@ public ComponentState getRevision(ComponentIdentifier componentIdentifier, Modul
     }
 
     public Collection<NodeState> getNodes() {
-        return nodes.values();
+        return nodes;
     }
 
     public NodeState getNode(ComponentState module, VariantGraphResolveState variant, boolean selectedByVariantAwareResolution) {
-        ResolvedConfigurationIdentifier id = new ResolvedConfigurationIdentifier(module.getId(), variant.getName());
-        return nodes.computeIfAbsent(id, rci -> new NodeState(idGenerator.nextGraphNodeId(), id, module, this, variant, selectedByVariantAwareResolution));
+        // Nodes are looked up through their component, which only has a few of them, so no identifier is created for lookups
+        NodeState node = module.getNode(variant.getName());
+        if (node == null) {
+            ResolvedConfigurationIdentifier id = new ResolvedConfigurationIdentifier(module.getId(), variant.getName());
+            node = new NodeState(idGenerator.nextGraphNodeId(), id, module, this, variant, selectedByVariantAwareResolution);
+            nodes.add(node);
+        }
+        return node;
     }
 
     public Collection<SelectorState> getSelectors() {
-        return selectors.values();
+        return selectors;
     }
 
     public SelectorState getSelector(DependencyState dependencyState, boolean ignoreVersion) {
         boolean isVirtualPlatformEdge = dependencyState.getDependency() instanceof LenientPlatformDependencyMetadata;
-        SelectorState selectorState = selectors.computeIfAbsent(new SelectorCacheKey(dependencyState.getRequested(), ignoreVersion, isVirtualPlatformEdge), req -> {
+        Map<ComponentSelector, SelectorState> table = selectorTable.get(ignoreVersion, isVirtualPlatformEdge);
+        SelectorState selectorState = table.get(dependencyState.getRequested());
+        if (selectorState == null) {
             ModuleIdentifier moduleIdentifier = dependencyState.getModuleIdentifier();
-            return new SelectorState(idGenerator.nextGraphNodeId(), dependencyState, idResolver, this, moduleIdentifier, ignoreVersion);
-        });
+            selectorState = new SelectorState(idGenerator.nextGraphNodeId(), dependencyState, idResolver, this, moduleIdentifier, ignoreVersion);
+            table.put(dependencyState.getRequested(), selectorState);
+            selectors.add(selectorState);
+        }
         selectorState.update(dependencyState);
         return selectorState;
     }
@@ -315,34 +327,24 @@ public GraphVariantSelector getVariantSelector() {
         return variantSelector;
     }
 
-    private static class SelectorCacheKey {
-        private final ComponentSelector componentSelector;
-        private final boolean ignoreVersion;
-        private final boolean virtualPlatformEdge;
-
-        private SelectorCacheKey(ComponentSelector componentSelector, boolean ignoreVersion, boolean virtualPlatformEdge) {
-            this.componentSelector = componentSelector;
-            this.ignoreVersion = ignoreVersion;
-            this.virtualPlatformEdge = virtualPlatformEdge;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (o == null || getClass() != o.getClass()) {
-                return false;
+    /**
+     * The selectors of the graph, indexed by whether they ignore the version and whether they are virtual platform edges.
+     * Looking up a selector does not allocate a composite key.
+     */
+    private static class SelectorTable {
+        @SuppressWarnings("unchecked")
+        private final Map<ComponentSelector, SelectorState>[] tables = new Map[4];
+
+        SelectorTable(int expectedSize) {
+            // Almost all selectors are regular edges that do not ignore the version
+            tables[0] = new HashMap<>(expectedSize);
+            for (int i = 1; i < tables.length; i++) {
+                tables[i] = new HashMap<>();
             }
-            SelectorCacheKey that = (SelectorCacheKey) o;
-            return ignoreVersion == that.ignoreVersion &&
-                virtualPlatformEdge == that.virtualPlatformEdge &&
-                componentSelector.equals(that.componentSelector);
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(componentSelector, ignoreVersion, virtualPlatformEdge);
+        Map<ComponentSelector, SelectorState> get(boolean ignoreVersion, boolean virtualPlatformEdge) {
+            return tables[(ignoreVersion ? 1 : 0) | (virtualPlatformEdge ? 2 : 0)];
         }
     }
 
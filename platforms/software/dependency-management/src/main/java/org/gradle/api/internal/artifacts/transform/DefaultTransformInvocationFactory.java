@@ -151,6 +151,34 @@ public Deferrable<Try<ImmutableList<File>>> createInvocation(
                 .mapFailure(failure -> new TransformException(String.format("Execution failed for %s.", execution.getDisplayName()), failure)));
     }
 
+    @Override
+    public Deferrable<Try<ImmutableList<File>>> createFusedInvocation(
+        ImmutableList<Transform> transforms,
+        File inputArtifact,
+        ImmutableList<TransformDependencies> dependencies,
+        TransformStepSubject subject,
+        InputFingerprinter inputFingerprinter
+    ) {
+        UnitOfWork execution = new FusedImmutableTransformExecution(
+            transforms,
+            inputArtifact,
+            dependencies,
+            subject,
+
+            transformExecutionListener,
+            buildOperationRunner,
+            fileCollectionFactory,
+            inputFingerprinter,
+            fileSystemAccess,
+            immutableWorkspaceServices.getWorkspaceProvider()
+        );
+        return executionEngine.createRequest(execution)
+            .executeDeferred(immutableWorkspaceServices.getIdentityCache())
+            .map(result -> result
+                .map(successfulResult -> successfulResult.resolveForInputArtifact(inputArtifact))
+                .mapFailure(failure -> new TransformException(String.format("Execution failed for %s.", execution.getDisplayName()), failure)));
+    }
+
     @Nullable
     private ProjectInternal determineProducerProject(TransformStepSubject subject) {
         ComponentIdentifier componentIdentifier = subject.getInitialComponentIdentifier();
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.transform;
+
+import com.google.common.collect.ImmutableList;
+import org.gradle.api.internal.file.DefaultFileSystemLocation;
+import org.gradle.api.internal.file.FileCollectionFactory;
+import org.gradle.api.internal.provider.Providers;
+import org.gradle.internal.execution.ImmutableUnitOfWork;
+import org.gradle.internal.execution.InputFingerprinter;
+import org.gradle.internal.execution.caching.CachingDisabledReason;
+import org.gradle.internal.execution.caching.CachingDisabledReasonCategory;
+import org.gradle.internal.execution.history.OverlappingOutputs;
+import org.gradle.internal.execution.model.InputNormalizer;
+import org.gradle.internal.execution.workspace.ImmutableWorkspaceProvider;
+import org.gradle.internal.fingerprint.CurrentFileCollectionFingerprint;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationRunner;
+import org.gradle.internal.operations.CallableBuildOperation;
+import org.gradle.internal.operations.UncategorizedBuildOperations;
+import org.gradle.internal.snapshot.ValueSnapshot;
+import org.gradle.internal.vfs.FileSystemAccess;
+import org.gradle.operations.dependencies.transforms.ExecuteTransformActionBuildOperationType;
+import org.gradle.util.internal.GFileUtils;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.gradle.internal.file.TreeType.DIRECTORY;
+import static org.gradle.internal.file.TreeType.FILE;
+import static org.gradle.internal.properties.InputBehavior.NON_INCREMENTAL;
+
+/**
+ * Runs a series of non-incremental transforms on an external artifact back-to-back in a single immutable workspace.
+ *
+ * <p>The outputs of the intermediate transforms are only kept while the work executes. They are neither cached nor fingerprinted.
+ * The identity of the work is computed from the input artifact and the inputs of every transform in the series,
+ * the same way as {@link NonNormalizedIdentityImmutableTransformExecution} does for a single transform.</p>
+ */
+class FusedImmutableTransformExecution implements ImmutableUnitOfWork {
+    private static final CachingDisabledReason NOT_CACHEABLE = new CachingDisabledReason(CachingDisabledReasonCategory.NOT_CACHEABLE, "Caching not enabled.");
+    private static final String INPUT_ARTIFACT_PATH_PROPERTY_NAME = "inputArtifactPath";
+    private static final String SECONDARY_INPUTS_HASH_PROPERTY_NAME = "inputPropertiesHash";
+    private static final String DEPENDENCIES_PROPERTY_NAME = "inputArtifactDependencies";
+    private static final String OUTPUT_DIRECTORY_PROPERTY_NAME = "outputDirectory";
+    private static final String RESULTS_FILE_PROPERTY_NAME = "resultsFile";
+
+    private final ImmutableList<Transform> transforms;
+    private final File inputArtifact;
+    private final ImmutableList<TransformDependencies> dependencies;
+    private final TransformStepSubject subject;
+
+    private final TransformExecutionListener transformExecutionListener;
+    private final BuildOperationRunner buildOperationRunner;
+    private final FileCollectionFactory fileCollectionFactory;
+    private final InputFingerprinter inputFingerprinter;
+    private final FileSystemAccess fileSystemAccess;
+    private final ImmutableWorkspaceProvider workspaceProvider;
+
+    public FusedImmutableTransformExecution(
+        ImmutableList<Transform> transforms,
+        File inputArtifact,
+        ImmutableList<TransformDependencies> dependencies,
+        TransformStepSubject subject,
+
+        TransformExecutionListener transformExecutionListener,
+        BuildOperationRunner buildOperationRunner,
+        FileCollectionFactory fileCollectionFactory,
+        InputFingerprinter inputFingerprinter,
+        FileSystemAccess fileSystemAccess,
+        ImmutableWorkspaceProvider workspaceProvider
+    ) {
+        this.transforms = transforms;
+        this.inputArtifact = inputArtifact;
+        this.dependencies = dependencies;
+        this.subject = subject;
+        this.transformExecutionListener = transformExecutionListener;
+        this.buildOperationRunner = buildOperationRunner;
+        this.fileCollectionFactory = fileCollectionFactory;
+        this.inputFingerprinter = inputFingerprinter;
+        this.fileSystemAccess = fileSystemAccess;
+        this.workspaceProvider = workspaceProvider;
+    }
+
+    @Override
+    public ImmutableWorkspaceProvider getWorkspaceProvider() {
+        return workspaceProvider;
+    }
+
+    @Override
+    public Optional<String> getBuildOperationWorkType() {
+        return Optional.of("TRANSFORM");
+    }
+
+    @Override
+    public Identity identify(Map<String, ValueSnapshot> identityInputs, Map<String, CurrentFileCollectionFingerprint> identityFileInputs) {
+        // See NonNormalizedIdentityImmutableTransformExecution for why the raw content hash of the input artifact is used
+        Hasher hasher = Hashing.newHasher();
+        hasher.put(identityInputs.get(INPUT_ARTIFACT_PATH_PROPERTY_NAME));
+        hasher.putHash(fileSystemAccess.read(inputArtifact.getAbsolutePath()).getHash());
+        ValueSnapshot lastSecondaryInputs = null;
+        for (int i = 0; i < transforms.size(); i++) {
+            lastSecondaryInputs = identityInputs.get(stepProperty(SECONDARY_INPUTS_HASH_PROPERTY_NAME, i));
+            hasher.put(lastSecondaryInputs);
+            hasher.putHash(identityFileInputs.get(stepProperty(DEPENDENCIES_PROPERTY_NAME, i)).getHash());
+        }
+        return TransformWorkspaceIdentity.createFused(lastSecondaryInputs, hasher.hash());
+    }
+
+    @Override
+    public void visitIdentityInputs(InputVisitor visitor) {
+        visitor.visitInputProperty(INPUT_ARTIFACT_PATH_PROPERTY_NAME, () ->
+            transforms.get(0).getInputArtifactNormalizer() == InputNormalizer.ABSOLUTE_PATH
+                ? inputArtifact.getAbsolutePath()
+                : inputArtifact.getName());
+        for (int i = 0; i < transforms.size(); i++) {
+            Transform transform = transforms.get(i);
+            TransformDependencies stepDependencies = dependencies.get(i);
+            visitor.visitInputProperty(stepProperty(SECONDARY_INPUTS_HASH_PROPERTY_NAME, i), transform::getSecondaryInputHash);
+            visitor.visitInputFileProperty(stepProperty(DEPENDENCIES_PROPERTY_NAME, i), NON_INCREMENTAL,
+                new InputFileValueSupplier(
+                    stepDependencies,
+                    transform.getInputArtifactDependenciesNormalizer(),
+                    transform.getInputArtifactDependenciesDirectorySensitivity(),
+                    transform.getInputArtifactDependenciesLineEndingNormalization(),
+                    () -> stepDependencies.getFiles()
+                        .orElse(FileCollectionFactory.empty())));
+        }
+    }
+
+    private static String stepProperty(String name, int step) {
+        return name + "." + step;
+    }
+
+    @Override
+    public WorkOutput execute(ExecutionRequest executionRequest) {
+        File workspace = executionRequest.getWorkspace();
+        File outputDir = getOutputDir(workspace);
+        File intermediateDir = new File(workspace, "intermediate");
+        try {
+            ImmutableList<File> inputs = ImmutableList.of(inputArtifact);
+            for (int i = 0; i < transforms.size(); i++) {
+                File stepOutputDir = i == transforms.size() - 1 ? outputDir : new File(intermediateDir, String.valueOf(i));
+                inputs = executeStep(transforms.get(i), dependencies.get(i), inputs, stepOutputDir);
+            }
+            TransformExecutionResult result = collectResult(inputs, outputDir);
+            new TransformExecutionResultSerializer().writeToFile(getResultsFile(workspace), result);
+            return new WorkOutput() {
+                @Override
+                public WorkResult getDidWork() {
+                    return WorkResult.DID_WORK;
+                }
+
+                @Override
+                public Object getOutput(File workspace) {
+                    return result.resolveForWorkspace(getOutputDir(workspace));
+                }
+            };
+        } finally {
+            GFileUtils.deleteQuietly(intermediateDir);
+        }
+    }
+
+    /**
+     * Runs a transform on each of the given files, each in its own subdirectory of the step output directory.
+     */
+    private ImmutableList<File> executeStep(Transform transform, TransformDependencies stepDependencies, ImmutableList<File> inputs, File stepOutputDir) {
+        transformExecutionListener.beforeTransformExecution(transform, subject);
+        try {
+            ImmutableList.Builder<File> outputs = ImmutableList.builder();
+            for (int i = 0; i < inputs.size(); i++) {
+                File input = inputs.get(i);
+                File outputDir = new File(stepOutputDir, String.valueOf(i));
+                GFileUtils.mkdirs(outputDir);
+                TransformExecutionResult result = buildOperationRunner.call(new CallableBuildOperation<TransformExecutionResult>() {
+                    @Override
+                    public TransformExecutionResult call(BuildOperationContext context) {
+                        try {
+                            return transform.transform(Providers.of(new DefaultFileSystemLocation(input)), outputDir, stepDependencies, null);
+                        } finally {
+                            context.setResult(ExecuteTransformActionBuildOperationType.RESULT_INSTANCE);
+                        }
+                    }
+
+                    @Override
+                    public BuildOperationDescriptor.Builder description() {
+                        String displayName = transform.getDisplayName() + " " + input.getName();
+                        return BuildOperationDescriptor.displayName(displayName)
+                            .details(ExecuteTransformActionBuildOperationType.DETAILS_INSTANCE)
+                            .metadata(UncategorizedBuildOperations.TRANSFORM_ACTION)
+                            .progressDisplayName(displayName);
+                    }
+                });
+                outputs.addAll(result.resolveForWorkspace(outputDir).resolveForInputArtifact(input));
+            }
+            return outputs.build();
+        } finally {
+            transformExecutionListener.afterTransformExecution(transform, subject);
+        }
+    }
+
+    /**
+     * Creates the result of the whole series relative to the output directory and the original input artifact.
+     * Outputs of the last transform that are part of an intermediate output are copied to the output directory, since intermediate outputs are discarded.
+     */
+    private TransformExecutionResult collectResult(ImmutableList<File> outputs, File outputDir) {
+        TransformExecutionResult.OutputTypeInferringBuilder builder = TransformExecutionResult.builderFor(inputArtifact, outputDir);
+        String inputArtifactPrefix = inputArtifact.getPath() + File.separator;
+        String outputDirPrefix = outputDir.getPath() + File.separator;
+        File retainedDir = new File(outputDir, "retained");
+        for (int i = 0; i < outputs.size(); i++) {
+            File output = outputs.get(i);
+            boolean keptInPlace = output.equals(inputArtifact) || output.getPath().startsWith(inputArtifactPrefix)
+                || output.equals(outputDir) || output.getPath().startsWith(outputDirPrefix);
+            if (!keptInPlace) {
+                File retained = new File(new File(retainedDir, String.valueOf(i)), output.getName());
+                if (output.isDirectory()) {
+                    GFileUtils.copyDirectory(output, retained);
+                } else {
+                    GFileUtils.copyFile(output, retained);
+                }
+                output = retained;
+            }
+            builder.addOutput(output, produced -> {});
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Object loadAlreadyProducedOutput(File workspace) {
+        TransformExecutionResultSerializer resultSerializer = new TransformExecutionResultSerializer();
+        return resultSerializer.readResultsFile(getResultsFile(workspace)).resolveForWorkspace(getOutputDir(workspace));
+    }
+
+    @Override
+    public InputFingerprinter getInputFingerprinter() {
+        return inputFingerprinter;
+    }
+
+    private static File getOutputDir(File workspace) {
+        return new File(workspace, "transformed");
+    }
+
+    private static File getResultsFile(File workspace) {
+        return new File(workspace, "results.bin");
+    }
+
+    @Override
+    public void visitImplementations(ImplementationVisitor visitor) {
+        for (Transform transform : transforms) {
+            visitor.visitImplementation(transform.getImplementationClass());
+        }
+    }
+
+    @Override
+    public void visitOutputs(File workspace, OutputVisitor visitor) {
+        File outputDir = getOutputDir(workspace);
+        File resultsFile = getResultsFile(workspace);
+        visitor.visitOutputProperty(OUTPUT_DIRECTORY_PROPERTY_NAME, DIRECTORY,
+            OutputFileValueSupplier.fromStatic(outputDir, fileCollectionFactory.fixed(outputDir)));
+        visitor.visitOutputProperty(RESULTS_FILE_PROPERTY_NAME, FILE,
+            OutputFileValueSupplier.fromStatic(resultsFile, fileCollectionFactory.fixed(resultsFile)));
+    }
+
+    @Override
+    public Optional<CachingDisabledReason> shouldDisableCaching(@Nullable OverlappingOutputs detectedOverlappingOutputs) {
+        for (Transform transform : transforms) {
+            if (!transform.isCacheable()) {
+                return Optional.of(NOT_CACHEABLE);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public String getDisplayName() {
+        StringBuilder displayName = new StringBuilder();
+        for (Transform transform : transforms) {
+            if (displayName.length() > 0) {
+                displayName.append(" -> ");
+            }
+            displayName.append(transform.getDisplayName());
+        }
+        return displayName.append(": ").append(inputArtifact).toString();
+    }
+}
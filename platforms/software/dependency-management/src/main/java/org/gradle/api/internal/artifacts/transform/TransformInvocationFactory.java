@@ -35,4 +35,15 @@ Deferrable<Try<ImmutableList<File>>> createInvocation(
         TransformDependencies dependencies,
         TransformStepSubject subject,
         InputFingerprinter inputFingerprinter);
+
+    /**
+     * Returns an invocation which runs the given non-incremental transforms one after the other on an external artifact,
+     * and only keeps the outputs of the last transform.
+     */
+    Deferrable<Try<ImmutableList<File>>> createFusedInvocation(
+        ImmutableList<Transform> transforms,
+        File inputArtifact,
+        ImmutableList<TransformDependencies> dependencies,
+        TransformStepSubject subject,
+        InputFingerprinter inputFingerprinter);
 }
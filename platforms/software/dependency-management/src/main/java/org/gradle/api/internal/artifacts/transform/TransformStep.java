@@ -33,6 +33,7 @@
 
 import javax.annotation.Nullable;
 import java.io.File;
+import java.util.List;
 
 /**
  * A single transform step in a transform chain.
@@ -91,6 +92,34 @@ public Deferrable<Try<TransformStepSubject>> createInvocation(TransformStepSubje
             .getOrMapFailure(failure -> Deferrable.completed(Try.failure(failure)));
     }
 
+    /**
+     * Creates an invocation which runs all the given steps on an external artifact within a single unit of work.
+     * Only the outputs of the last step are kept.
+     *
+     * @see FusedImmutableTransformExecution
+     */
+    public static Deferrable<Try<TransformStepSubject>> createFusedInvocation(TransformStepSubject subjectToTransform, List<BoundTransformStep> steps) {
+        TransformStep initialStep = steps.get(0).getTransformStep();
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Transforming {} with {} fused steps starting with {}", subjectToTransform.getDisplayName(), steps.size(), initialStep.getDisplayName());
+        }
+
+        ImmutableList.Builder<Transform> transforms = ImmutableList.builderWithExpectedSize(steps.size());
+        ImmutableList.Builder<TransformDependencies> dependencies = ImmutableList.builderWithExpectedSize(steps.size());
+        for (BoundTransformStep step : steps) {
+            Try<TransformDependencies> resolvedDependencies = step.getUpstreamDependencies().computeArtifacts();
+            if (!resolvedDependencies.isSuccessful()) {
+                return Deferrable.completed(Cast.uncheckedCast(resolvedDependencies));
+            }
+            transforms.add(step.getTransformStep().getTransform());
+            dependencies.add(resolvedDependencies.get());
+        }
+
+        File inputArtifact = subjectToTransform.getFiles().get(0);
+        return initialStep.transformInvocationFactory.createFusedInvocation(transforms.build(), inputArtifact, dependencies.build(), subjectToTransform, initialStep.globalInputFingerprinter)
+            .map(result -> result.map(subjectToTransform::createSubjectFromResult));
+    }
+
     private Try<TransformStepSubject> doTransform(TransformStepSubject subjectToTransform, InputFingerprinter inputFingerprinter, TransformDependencies dependencies, ImmutableList<File> inputArtifacts) {
         ImmutableList.Builder<File> builder = ImmutableList.builder();
         for (File inputArtifact : inputArtifacts) {
@@ -101,4 +101,11 @@ public static TransformWorkspaceIdentity createNormalizedImmutable(
         hasher.putHash(dependenciesHash);
         return new TransformWorkspaceIdentity(secondaryInputsSnapshot, hasher.hash());
     }
+
+    public static TransformWorkspaceIdentity createFused(
+        ValueSnapshot lastSecondaryInputsSnapshot,
+        HashCode chainHash
+    ) {
+        return new TransformWorkspaceIdentity(lastSecondaryInputsSnapshot, chainHash);
+    }
 }
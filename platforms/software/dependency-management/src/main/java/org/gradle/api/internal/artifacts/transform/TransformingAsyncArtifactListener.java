@@ -17,6 +17,7 @@
 package org.gradle.api.internal.artifacts.transform;
 
 import com.google.common.collect.ImmutableList;
+import org.gradle.api.artifacts.component.ProjectComponentIdentifier;
 import org.gradle.api.attributes.AttributeContainer;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.ArtifactVisitor;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.BrokenArtifacts;
@@ -39,6 +40,12 @@
 import java.util.List;
 
 public class TransformingAsyncArtifactListener implements ResolvedArtifactSet.Visitor {
+    /**
+     * When enabled, chains of non-incremental transforms on external artifacts run as a single unit of work,
+     * without caching the outputs of the intermediate transforms.
+     */
+    private static final boolean FUSE_TRANSFORM_CHAINS = Boolean.getBoolean("org.gradle.internal.transforms.fused");
+
     private final List<BoundTransformStep> transformSteps;
     private final ImmutableAttributes target;
     private final ImmutableCapabilities capabilities;
@@ -215,6 +222,9 @@ private Try<TransformStepSubject> finalizeValue() {
 
         private Deferrable<Try<TransformStepSubject>> createInvocation() {
             TransformStepSubject initialSubject = TransformStepSubject.initial(artifact);
+            if (canFuseSteps()) {
+                return TransformStep.createFusedInvocation(initialSubject, transformSteps);
+            }
             BoundTransformStep initialStep = transformSteps.get(0);
             Deferrable<Try<TransformStepSubject>> invocation = initialStep.getTransformStep()
                 .createInvocation(initialSubject, initialStep.getUpstreamDependencies(), null);
@@ -229,6 +239,22 @@ private Deferrable<Try<TransformStepSubject>> createInvocation() {
             return invocation;
         }
 
+        private boolean canFuseSteps() {
+            if (!FUSE_TRANSFORM_CHAINS || transformSteps.size() < 2) {
+                return false;
+            }
+            if (artifact.getId().getComponentIdentifier() instanceof ProjectComponentIdentifier) {
+                // Project artifacts may be produced by incremental transforms in mutable workspaces
+                return false;
+            }
+            for (BoundTransformStep step : transformSteps) {
+                if (step.getTransformStep().getTransform().requiresInputChanges()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         @Override
         public void visit(ArtifactVisitor visitor) {
             Try<TransformStepSubject> transformedSubject = finalizeValue();
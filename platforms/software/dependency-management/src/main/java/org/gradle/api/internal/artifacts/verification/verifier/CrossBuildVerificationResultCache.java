@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.verification.verifier;
+
+import org.gradle.api.UncheckedIOException;
+import org.gradle.api.internal.cache.CacheConfigurationsInternal;
+import org.gradle.cache.DefaultCacheCleanupStrategy;
+import org.gradle.cache.FileLockManager;
+import org.gradle.cache.PersistentCache;
+import org.gradle.cache.internal.LeastRecentlyUsedCacheCleanup;
+import org.gradle.cache.internal.SingleDepthFilesFinder;
+import org.gradle.cache.scopes.GlobalScopedCacheBuilderFactory;
+import org.gradle.internal.file.FileAccessTimeJournal;
+import org.gradle.internal.file.FileAccessTracker;
+import org.gradle.internal.file.impl.SingleDepthFileAccessTracker;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+
+/**
+ * Remembers, across builds and daemons, which artifacts have been verified successfully.
+ *
+ * <p>Only positive outcomes are recorded, keyed by a hash of the artifact file, the signature file,
+ * the verification metadata relevant to the artifact and the keyring, so any change to one of them
+ * causes the artifact to be verified again. Failures are never cached, so that they are always reported
+ * with up-to-date details.</p>
+ *
+ * <p>Each outcome is an empty marker file named after its key. Markers that have not been used
+ * recently are removed by cache cleanup, like the other created resources in the Gradle user home.</p>
+ */
+@ServiceScope(Scope.UserHome.class)
+public class CrossBuildVerificationResultCache implements Closeable {
+    private static final int FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP = 1;
+
+    private final PersistentCache store;
+    private final FileAccessTracker fileAccessTracker;
+
+    public CrossBuildVerificationResultCache(GlobalScopedCacheBuilderFactory cacheBuilderFactory, FileAccessTimeJournal fileAccessTimeJournal, CacheConfigurationsInternal cacheConfigurations) {
+        store = cacheBuilderFactory.createCacheBuilder("dependency-verification")
+            .withDisplayName("Dependency verification results cache")
+            // Markers are created atomically and never modified, so no lock is needed to read or write them
+            .withInitialLockMode(FileLockManager.LockMode.None)
+            .withCleanupStrategy(DefaultCacheCleanupStrategy.from(
+                new LeastRecentlyUsedCacheCleanup(
+                    new SingleDepthFilesFinder(FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP),
+                    fileAccessTimeJournal,
+                    cacheConfigurations.getCreatedResources().getRemoveUnusedEntriesOlderThanAsSupplier()
+                ),
+                cacheConfigurations.getCleanupFrequency()::get
+            ))
+            .open();
+        fileAccessTracker = new SingleDepthFileAccessTracker(fileAccessTimeJournal, store.getBaseDir(), FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP);
+    }
+
+    public boolean isVerified(HashCode key) {
+        File marker = markerFor(key);
+        if (marker.isFile()) {
+            fileAccessTracker.markAccessed(marker);
+            return true;
+        }
+        return false;
+    }
+
+    public void markVerified(HashCode key) {
+        File marker = markerFor(key);
+        try {
+            Files.createFile(marker.toPath());
+        } catch (FileAlreadyExistsException e) {
+            // Verified concurrently by another build
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        fileAccessTracker.markAccessed(marker);
+    }
+
+    private File markerFor(HashCode key) {
+        return new File(store.getBaseDir(), key.toString());
+    }
+
+    @Override
+    public void close() {
+        store.close();
+    }
+}
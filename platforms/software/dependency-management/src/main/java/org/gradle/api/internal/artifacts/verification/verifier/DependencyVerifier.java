@@ -31,6 +31,8 @@
 import org.gradle.internal.component.external.model.ModuleComponentArtifactIdentifier;
 import org.gradle.internal.hash.ChecksumService;
 import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
 import org.gradle.security.internal.Fingerprint;
 import org.gradle.security.internal.PublicKeyService;
 
@@ -83,6 +85,56 @@ public void verify(ChecksumService checksumService,
             });
     }
 
+    /**
+     * Returns a hash of everything in the verification metadata that affects the verification of the given artifact.
+     * The outcome of verifying the same artifact and signature files can be reused as long as this hash does not change.
+     */
+    public HashCode fingerprint(ArtifactVerificationOperation.ArtifactKind kind, ModuleComponentArtifactIdentifier artifact) {
+        Hasher hasher = Hashing.newHasher();
+        hasher.putString(kind.name());
+        hasher.putString(toStringKey(artifact.getComponentIdentifier()));
+        hasher.putString(artifact.getFileName());
+        hasher.putBoolean(config.isVerifyMetadata());
+        hasher.putBoolean(config.isVerifySignatures());
+        hasher.putBoolean(config.isUseKeyServers());
+        hasher.putString(config.getKeyringFormat() == null ? "" : config.getKeyringFormat().name());
+        hasher.putBoolean(isTrustedArtifact(artifact));
+        putSorted(hasher, allTrustedKeys(artifact, Collections.emptySet()));
+        putSorted(hasher, allIgnoredKeys(Collections.emptySet()));
+        ArtifactVerificationMetadata verification = findVerification(artifact);
+        if (verification == null) {
+            hasher.putNull();
+        } else {
+            hasher.putInt(verification.getChecksums().size());
+            for (Checksum checksum : verification.getChecksums()) {
+                hasher.putString(checksum.getKind().name());
+                hasher.putString(checksum.getValue());
+                putSorted(hasher, checksum.getAlternatives() == null ? Collections.emptySet() : checksum.getAlternatives());
+            }
+            putSorted(hasher, verification.getTrustedPgpKeys());
+            putSorted(hasher, verification.getIgnoredPgpKeys().stream().map(IgnoredKey::getKeyId).collect(Collectors.toSet()));
+        }
+        return hasher.hash();
+    }
+
+    private static void putSorted(Hasher hasher, Collection<String> values) {
+        hasher.putInt(values.size());
+        values.stream().sorted().forEach(hasher::putString);
+    }
+
+    @Nullable
+    private ArtifactVerificationMetadata findVerification(ModuleComponentArtifactIdentifier artifact) {
+        ComponentVerificationMetadata componentVerification = verificationMetadata.get(toStringKey(artifact.getComponentIdentifier()));
+        if (componentVerification != null) {
+            for (ArtifactVerificationMetadata verification : componentVerification.getArtifactVerifications()) {
+                if (verification.getArtifactName().equals(artifact.getFileName())) {
+                    return verification;
+                }
+            }
+        }
+        return null;
+    }
+
     private boolean shouldSkipVerification(ArtifactVerificationOperation.ArtifactKind kind) {
         return kind == ArtifactVerificationOperation.ArtifactKind.METADATA && !config.isVerifyMetadata();
     }
@@ -195,13 +247,24 @@ private void verifySignature(SignatureVerificationService signatureVerificationS
 
     private void verifyChecksums(ChecksumService checksumService, File file, ArtifactVerificationMetadata verification, ArtifactVerificationResultBuilder builder) {
         List<Checksum> checksums = verification.getChecksums();
+        if (checksums.size() == 1) {
+            Checksum checksum = checksums.get(0);
+            verifyChecksum(checksum.getKind(), file, checksum.getValue(), checksum.getAlternatives(), checksumOf(checksum.getKind(), file, checksumService), builder);
+            return;
+        }
+        // Compute all the checksums in a single pass over the file
+        List<String> algorithms = new ArrayList<>(checksums.size());
+        for (Checksum checksum : checksums) {
+            algorithms.add(checksum.getKind().getAlgorithm());
+        }
+        Map<String, HashCode> actualChecksums = checksumService.hash(file, algorithms);
         for (Checksum checksum : checksums) {
-            verifyChecksum(checksum.getKind(), file, checksum.getValue(), checksum.getAlternatives(), checksumService, builder);
+            String actualChecksum = actualChecksums.get(checksum.getKind().getAlgorithm()).toString();
+            verifyChecksum(checksum.getKind(), file, checksum.getValue(), checksum.getAlternatives(), actualChecksum, builder);
         }
     }
 
-    private static void verifyChecksum(ChecksumKind algorithm, File file, String expected, Set<String> alternatives, ChecksumService cache, ArtifactVerificationResultBuilder builder) {
-        String actualChecksum = checksumOf(algorithm, file, cache);
+    private static void verifyChecksum(ChecksumKind algorithm, File file, String expected, Set<String> alternatives, String actualChecksum, ArtifactVerificationResultBuilder builder) {
         if (expected.equals(actualChecksum)) {
             return;
         }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser
+
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.internal.resource.local.LocalFileStandInExternalResource
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import javax.xml.stream.XMLStreamException
+import java.nio.charset.StandardCharsets
+
+class PomStreamParserTest extends Specification {
+    @Rule
+    public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    def "parses elements, text and comments"() {
+        when:
+        def project = parse("""<?xml version="1.0" encoding="UTF-8"?>
+<!-- before the root -->
+<project>
+    <!-- inside the root -->
+    <groupId>group-one</groupId>
+    <description><![CDATA[a <b>bold</b> description]]></description>
+    <dependencies>
+        <dependency><artifactId>one</artifactId></dependency>
+        <dependency><artifactId>two</artifactId></dependency>
+    </dependencies>
+</project>
+""")
+
+        then:
+        project.name == "project"
+        project.children*.name == ["groupId", "description", "dependencies"]
+        project.comments == [" inside the root "]
+        PomElement.getFirstChildText(project, "groupId") == "group-one"
+        PomElement.getFirstChildText(project, "description") == "a <b>bold</b> description"
+        PomElement.getAllChilds(PomElement.getFirstChildElement(project, "dependencies")).collect { PomElement.getFirstChildText(it, "artifactId") } == ["one", "two"]
+        PomElement.getFirstChildText(project, "missing") == null
+    }
+
+    def "resolves undeclared HTML entities"() {
+        when:
+        def project = parse("<project><name>a&nbsp;b &amp; &copy; c</name></project>")
+
+        then:
+        PomElement.getFirstChildText(project, "name") == "a\u00A0b & \u00A9 c"
+    }
+
+    def "fails on unknown entities"() {
+        when:
+        parse("<project><name>&unknown;</name></project>")
+
+        then:
+        def e = thrown(XMLStreamException)
+        e.message.contains('The entity "unknown" was referenced, but not declared.')
+    }
+
+    def "fails on empty content"() {
+        when:
+        parse("")
+
+        then:
+        thrown(XMLStreamException)
+    }
+
+    def "keeps namespace prefixes of element names"() {
+        when:
+        def project = parse("<pom:project xmlns:pom='http://maven.apache.org/POM/4.0.0'><pom:version>1.0</pom:version></pom:project>")
+
+        then:
+        project.name == "pom:project"
+        PomElement.getFirstChildText(project, "pom:version") == "1.0"
+    }
+
+    def "ignores unbound namespace prefixes"() {
+        when:
+        def project = parse('<project xsi:schemaLocation="http://maven.apache.org/POM/4.0.0 http://maven.apache.org/maven-v4_0_0.xsd"><m:groupId>group-one</m:groupId></project>')
+
+        then:
+        project.name == "project"
+        PomElement.getFirstChildText(project, "m:groupId") == "group-one"
+    }
+
+    def "parses each distinct POM content once"() {
+        def cache = new ParsedPomCache(TestFiles.fileHasher())
+        def first = tmpDir.file("first.pom") << "<project><version>1.0</version></project>"
+        def second = tmpDir.file("second.pom") << "<project><version>1.0</version></project>"
+        def other = tmpDir.file("other.pom") << "<project><version>2.0</version></project>"
+
+        expect:
+        def parsed = cache.parse(resource(first))
+        cache.parse(resource(second)).is(parsed)
+        !cache.parse(resource(other)).is(parsed)
+        PomElement.getFirstChildText(cache.parse(resource(other)), "version") == "2.0"
+    }
+
+    private static PomElement parse(String content) {
+        return PomStreamParser.parse(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "test.pom")
+    }
+
+    private static LocalFileStandInExternalResource resource(File file) {
+        return new LocalFileStandInExternalResource(file, TestFiles.fileSystem())
+    }
+}
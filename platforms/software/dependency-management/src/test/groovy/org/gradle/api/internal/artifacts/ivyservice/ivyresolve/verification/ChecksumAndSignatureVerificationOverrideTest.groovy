@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.verification
+
+import org.gradle.api.artifacts.verification.DependencyVerificationMode
+import org.gradle.api.internal.DocumentationRegistry
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.api.internal.artifacts.verification.exceptions.DependencyVerificationException
+import org.gradle.api.internal.artifacts.verification.signatures.SignatureVerificationService
+import org.gradle.api.internal.artifacts.verification.signatures.SignatureVerificationServiceFactory
+import org.gradle.api.internal.artifacts.verification.verifier.CrossBuildVerificationResultCache
+import org.gradle.api.internal.properties.GradleProperties
+import org.gradle.internal.Factory
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
+import org.gradle.internal.component.external.model.ModuleComponentFileArtifactIdentifier
+import org.gradle.internal.hash.ChecksumService
+import org.gradle.internal.hash.Hashing
+import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.internal.resource.local.FileResourceListener
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class ChecksumAndSignatureVerificationOverrideTest extends Specification {
+    @Rule
+    final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    def verificationResultCache = Mock(CrossBuildVerificationResultCache)
+    def checksumService = Stub(ChecksumService) {
+        sha256(_) >> { File file -> Hashing.sha256().hashBytes(file.bytes) }
+    }
+    def signatureVerificationServiceFactory = Stub(SignatureVerificationServiceFactory) {
+        create(_, _, _) >> Stub(SignatureVerificationService)
+    }
+    def artifact = new ModuleComponentFileArtifactIdentifier(DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("org", "foo"), "1.0"), "foo-1.0.jar")
+    TestFile artifactFile = tmpDir.file("foo-1.0.jar").createFile()
+
+    def setup() {
+        artifactFile.text = "artifact content"
+    }
+
+    def "remembers successful verifications"() {
+        def override = verificationOverride(Hashing.sha256().hashBytes(artifactFile.bytes).toString())
+
+        when:
+        verify(override)
+
+        then:
+        1 * verificationResultCache.isVerified(_) >> false
+        1 * verificationResultCache.markVerified(_)
+        0 * verificationResultCache._
+    }
+
+    def "skips verification of artifacts verified by a previous build"() {
+        def override = verificationOverride("0123456789abcdef")
+
+        when:
+        verify(override)
+
+        then:
+        noExceptionThrown()
+        1 * verificationResultCache.isVerified(_) >> true
+        0 * verificationResultCache._
+    }
+
+    def "never remembers failed verifications"() {
+        def override = verificationOverride("0123456789abcdef")
+
+        when:
+        verify(override)
+
+        then:
+        thrown(DependencyVerificationException)
+        1 * verificationResultCache.isVerified(_) >> false
+        0 * verificationResultCache._
+    }
+
+    def "does not reuse verifications when refreshing keys"() {
+        def override = verificationOverride("0123456789abcdef", true)
+
+        when:
+        verify(override)
+
+        then:
+        thrown(DependencyVerificationException)
+        0 * verificationResultCache._
+    }
+
+    private void verify(ChecksumAndSignatureVerificationOverride override) {
+        override.onArtifact(ArtifactVerificationOperation.ArtifactKind.REGULAR, artifact, artifactFile, { null } as Factory<File>, "repo", "repo-id")
+        override.artifactsAccessed("test")
+    }
+
+    private ChecksumAndSignatureVerificationOverride verificationOverride(String sha256, boolean refreshKeys = false) {
+        def verificationsFile = tmpDir.file("gradle/verification-metadata.xml")
+        verificationsFile.text = """<?xml version="1.0" encoding="UTF-8"?>
+<verification-metadata>
+   <configuration>
+      <verify-metadata>true</verify-metadata>
+      <verify-signatures>false</verify-signatures>
+   </configuration>
+   <components>
+      <component group="org" name="foo" version="1.0">
+         <artifact name="foo-1.0.jar">
+            <sha256 value="$sha256"/>
+         </artifact>
+      </component>
+   </components>
+</verification-metadata>
+"""
+        new ChecksumAndSignatureVerificationOverride(
+            new TestBuildOperationExecutor(),
+            tmpDir.file("user-home"),
+            verificationsFile,
+            checksumService,
+            signatureVerificationServiceFactory,
+            DependencyVerificationMode.STRICT,
+            new DocumentationRegistry(),
+            tmpDir.file("reports"),
+            { Stub(GradleProperties) } as Factory<GradleProperties>,
+            Stub(FileResourceListener),
+            verificationResultCache,
+            refreshKeys
+        )
+    }
+}
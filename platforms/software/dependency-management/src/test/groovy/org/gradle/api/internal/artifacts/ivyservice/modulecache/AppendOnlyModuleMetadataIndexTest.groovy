@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache
+
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class AppendOnlyModuleMetadataIndexTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+    def indexDir = tmpDir.file("metadata")
+    def writer = new AppendOnlyModuleMetadataIndex(indexDir, "module-metadata-index")
+    def reader = new AppendOnlyModuleMetadataIndex(indexDir, "module-metadata-index")
+
+    def cleanup() {
+        writer.close()
+        reader.close()
+    }
+
+    def "finds nothing when there is no index file"() {
+        expect:
+        reader.find(key("a")) == null
+    }
+
+    def "finds recorded entries"() {
+        def descriptor = [1, 2, 3] as byte[]
+
+        when:
+        writer.record(key("a"), ModuleMetadataCacheEntry.forMissingModule(12), null)
+        writer.record(key("b"), new ModuleMetadataCacheEntry(ModuleMetadataCacheEntry.TYPE_PRESENT, true, 34), descriptor)
+
+        then:
+        def missing = reader.find(key("a"))
+        missing.entry.isMissing()
+        missing.entry.createTimestamp == 12
+
+        def present = reader.find(key("b"))
+        !present.entry.isMissing()
+        present.entry.isChanging
+        present.entry.createTimestamp == 34
+        present.isDescriptor([1, 2, 3] as byte[])
+        !present.isDescriptor([1, 2, 4] as byte[])
+        !present.isDescriptor([1, 2] as byte[])
+
+        reader.find(key("c")) == null
+        reader.find(new ModuleComponentAtRepositoryKey("other-repo", id("a"))) == null
+    }
+
+    def "sees entries recorded after its first lookup"() {
+        given:
+        writer.record(key("a"), ModuleMetadataCacheEntry.forMissingModule(1), null)
+        assert reader.find(key("a")).entry.createTimestamp == 1
+        assert reader.find(key("b")) == null
+
+        when:
+        writer.record(key("a"), ModuleMetadataCacheEntry.forMissingModule(2), null)
+        (1..1000).each {
+            writer.record(key("b$it"), ModuleMetadataCacheEntry.forMissingModule(it), null)
+        }
+
+        then:
+        reader.find(key("a")).entry.createTimestamp == 2
+        reader.find(key("b1000")).entry.createTimestamp == 1000
+    }
+
+    def "sees entries recorded while it was closed"() {
+        given:
+        writer.record(key("a"), ModuleMetadataCacheEntry.forMissingModule(1), null)
+        assert reader.find(key("a")).entry.createTimestamp == 1
+
+        when:
+        reader.close()
+        writer.record(key("b"), ModuleMetadataCacheEntry.forMissingModule(2), null)
+
+        then:
+        reader.find(key("a")).entry.createTimestamp == 1
+        reader.find(key("b")).entry.createTimestamp == 2
+    }
+
+    def "keeps serving entries once the index is full"() {
+        def writer = new AppendOnlyModuleMetadataIndex(indexDir, "module-metadata-index", 200)
+
+        given:
+        writer.record(key("a"), ModuleMetadataCacheEntry.forMissingModule(1), null)
+        assert reader.find(key("a")) != null
+
+        when:
+        (1..10).each {
+            writer.record(key("b$it"), ModuleMetadataCacheEntry.forMissingModule(it), null)
+        }
+
+        then:
+        reader.find(key("a")).entry.createTimestamp == 1
+        reader.find(key("b10")).entry.createTimestamp == 10
+        new AppendOnlyModuleMetadataIndex(indexDir, "module-metadata-index").find(key("b3")).entry.createTimestamp == 3
+    }
+
+    def "keeps only the latest entry of each key when the index is full"() {
+        def writer = new AppendOnlyModuleMetadataIndex(indexDir, "module-metadata-index", 200)
+
+        when:
+        (1..100).each {
+            writer.record(key("a"), ModuleMetadataCacheEntry.forMissingModule(it), null)
+        }
+
+        then:
+        reader.find(key("a")).entry.createTimestamp == 100
+        indexDir.list().length == 1
+        indexDir.listFiles()[0].length() <= 200
+    }
+
+    def "replaces index file with unknown format"() {
+        given:
+        indexDir.mkdirs()
+        indexDir.file("module-metadata-index-0.bin").bytes = new byte[64]
+        assert reader.find(key("a")) == null
+
+        when:
+        writer.record(key("a"), ModuleMetadataCacheEntry.forMissingModule(1), null)
+
+        then:
+        reader.find(key("a")).entry.createTimestamp == 1
+        !indexDir.file("module-metadata-index-0.bin").exists()
+    }
+
+    private static ModuleComponentAtRepositoryKey key(String module) {
+        new ModuleComponentAtRepositoryKey("repo", id(module))
+    }
+
+    private static DefaultModuleComponentIdentifier id(String module) {
+        DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("org", module), "1.0") as DefaultModuleComponentIdentifier
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache
+
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
+import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata
+import spock.lang.Specification
+
+import java.util.function.Supplier
+
+class DecodedModuleMetadataCacheTest extends Specification {
+    def cache = new DecodedModuleMetadataCache()
+    def key = new ModuleComponentAtRepositoryKey("repo", DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("org", "foo"), "1.0"))
+    def decoder = Mock(Supplier)
+
+    def "decodes each descriptor content once"() {
+        def metadata = Stub(ModuleComponentResolveMetadata)
+
+        when:
+        def first = cache.get(key, [1, 2, 3] as byte[], false, decoder)
+        def second = cache.get(key, [1, 2, 3] as byte[], false, decoder)
+
+        then:
+        1 * decoder.get() >> metadata
+        first.is(metadata)
+        second.is(metadata)
+    }
+
+    def "decodes again when the descriptor or the changing flag differ"() {
+        when:
+        cache.get(key, [1, 2, 3] as byte[], false, decoder)
+        cache.get(key, [1, 2, 4] as byte[], false, decoder)
+        cache.get(key, [1, 2, 3] as byte[], true, decoder)
+        cache.get(new ModuleComponentAtRepositoryKey("other", key.componentId), [1, 2, 3] as byte[], false, decoder)
+
+        then:
+        4 * decoder.get() >> { Stub(ModuleComponentResolveMetadata) }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.factories
+
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.simple.DefaultExcludeFactory
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.specs.ExcludeSpec
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class CachingExcludeFactoryTest extends Specification implements ExcludeTestSupport {
+    def caches = new CachingExcludeFactory.MergeCaches()
+    def defaultFactory = Spy(DefaultExcludeFactory)
+
+    def setup() {
+        factory = new CachingExcludeFactory(defaultFactory, caches)
+    }
+
+    def "caches merges regardless of the order of operands"() {
+        def foo = group("foo")
+        def bar = group("bar")
+
+        when:
+        def first = factory.anyOf(foo, bar)
+        def second = factory.anyOf(bar, foo)
+
+        then:
+        1 * defaultFactory.anyOf(_ as ExcludeSpec, _ as ExcludeSpec)
+        second.is(first)
+    }
+
+    def "equal results of different merges are the same instance"() {
+        def foo = group("foo")
+        def bar = group("bar")
+        def baz = group("baz")
+
+        when:
+        def pair = factory.allOf(foo, bar)
+        def set = factory.allOf([foo, bar] as Set<ExcludeSpec>)
+        def other = new CachingExcludeFactory(new DefaultExcludeFactory(), caches).allOf([bar, foo] as Set<ExcludeSpec>)
+
+        then:
+        pair == set
+        set.is(pair)
+        other.is(pair)
+        !factory.allOf(foo, baz).is(pair)
+    }
+
+    def "supports recursive merges through factories sharing the same caches"() {
+        def inner = new CachingExcludeFactory(new DefaultExcludeFactory(), caches)
+        def outer = new CachingExcludeFactory(new DelegatingExcludeFactory(inner) {
+            @Override
+            ExcludeSpec anyOf(ExcludeSpec one, ExcludeSpec two) {
+                // merge through the inner factory which uses the same caches
+                return delegate.anyOf([one, two] as Set<ExcludeSpec>)
+            }
+        }, caches)
+
+        expect:
+        outer.anyOf(group("foo"), group("bar")).is(inner.anyOf([group("bar"), group("foo")] as Set<ExcludeSpec>))
+    }
+
+    def "returns the same instance for concurrent merges of the same specs"() {
+        def threads = 8
+        def executor = Executors.newFixedThreadPool(threads)
+        def start = new CountDownLatch(1)
+        def specs = (0..<50).collect { group("group$it") }
+
+        when:
+        def futures = (1..threads).collect {
+            executor.submit({
+                start.await()
+                specs.collect { factory.anyOf(it, specs[0]) }
+            } as Callable<List<ExcludeSpec>>)
+        }
+        start.countDown()
+        def results = futures*.get(10, TimeUnit.SECONDS)
+
+        then:
+        results.every { result -> (0..<specs.size()).every { result[it].is(results[0][it]) } }
+
+        cleanup:
+        executor.shutdownNow()
+    }
+}
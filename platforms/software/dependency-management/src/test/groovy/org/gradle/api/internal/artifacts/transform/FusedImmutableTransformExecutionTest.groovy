@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.transform
+
+import com.google.common.collect.ImmutableList
+import org.gradle.api.file.FileSystemLocation
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.api.provider.Provider
+import org.gradle.internal.execution.InputFingerprinter
+import org.gradle.internal.execution.UnitOfWork
+import org.gradle.internal.execution.workspace.ImmutableWorkspaceProvider
+import org.gradle.internal.operations.TestBuildOperationRunner
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class FusedImmutableTransformExecutionTest extends Specification {
+    @Rule
+    public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    def listener = Mock(TransformExecutionListener)
+    def inputArtifact = tmpDir.file("input.txt") << "input"
+    def workspace = tmpDir.file("workspace")
+    def executionRequest = Stub(UnitOfWork.ExecutionRequest) {
+        getWorkspace() >> workspace
+    }
+
+    def "runs each transform on the outputs of the previous one and only keeps the outputs of the last one"() {
+        def first = step("first") { File input, File outputDir ->
+            def output = new File(outputDir, "first.txt")
+            output.text = input.text + " first"
+            output
+        }
+        def second = step("second") { File input, File outputDir ->
+            def output = new File(outputDir, "second.txt")
+            output.text = input.text + " second"
+            output
+        }
+        def execution = execution(first, second)
+
+        when:
+        def result = execution.execute(executionRequest).getOutput(workspace) as TransformExecutionResult.TransformWorkspaceResult
+        def outputs = result.resolveForInputArtifact(inputArtifact)
+
+        then:
+        1 * listener.beforeTransformExecution(first, _)
+        1 * listener.afterTransformExecution(first, _)
+
+        then:
+        1 * listener.beforeTransformExecution(second, _)
+        1 * listener.afterTransformExecution(second, _)
+
+        and:
+        outputs.size() == 1
+        outputs[0].text == "input first second"
+        outputs[0].path.startsWith(new File(workspace, "transformed").path)
+        !new File(workspace, "intermediate").exists()
+
+        and:
+        execution.loadAlreadyProducedOutput(workspace).resolveForInputArtifact(inputArtifact) == outputs
+    }
+
+    def "retains outputs of the last transform which are part of an intermediate output"() {
+        def first = step("first") { File input, File outputDir ->
+            def output = new File(outputDir, "first.txt")
+            output.text = "first"
+            output
+        }
+        def passThrough = step("pass-through") { File input, File outputDir -> input }
+        def execution = execution(first, passThrough)
+
+        when:
+        def outputs = execution.execute(executionRequest).getOutput(workspace).resolveForInputArtifact(inputArtifact)
+
+        then:
+        outputs.size() == 1
+        outputs[0].name == "first.txt"
+        outputs[0].text == "first"
+        outputs[0].path.startsWith(new File(workspace, "transformed").path)
+        !new File(workspace, "intermediate").exists()
+    }
+
+    def "keeps the input artifact as output when all transforms pass it through"() {
+        def execution = execution(
+            step("one") { File input, File outputDir -> input },
+            step("two") { File input, File outputDir -> input }
+        )
+
+        when:
+        def outputs = execution.execute(executionRequest).getOutput(workspace).resolveForInputArtifact(inputArtifact)
+
+        then:
+        outputs == [inputArtifact]
+    }
+
+    def "disables caching unless all transforms are cacheable"() {
+        def cacheable = Stub(Transform) {
+            isCacheable() >> true
+        }
+        def notCacheable = Stub(Transform) {
+            isCacheable() >> false
+        }
+
+        expect:
+        !execution(cacheable, cacheable).shouldDisableCaching(null).present
+        execution(cacheable, notCacheable).shouldDisableCaching(null).present
+    }
+
+    private Transform step(String name, Closure<File> action) {
+        Stub(Transform) {
+            getDisplayName() >> name
+            transform(_, _, _, _) >> { Provider<FileSystemLocation> input, File outputDir, TransformDependencies dependencies, inputChanges ->
+                def output = action(input.get().asFile, outputDir)
+                def builder = TransformExecutionResult.builderFor(input.get().asFile, outputDir)
+                builder.addOutput(output) {}
+                builder.build()
+            }
+        }
+    }
+
+    private FusedImmutableTransformExecution execution(Transform... transforms) {
+        new FusedImmutableTransformExecution(
+            ImmutableList.copyOf(transforms),
+            inputArtifact,
+            ImmutableList.copyOf(transforms.collect { Stub(TransformDependencies) }),
+            Stub(TransformStepSubject),
+            listener,
+            new TestBuildOperationRunner(),
+            TestFiles.fileCollectionFactory(),
+            Stub(InputFingerprinter),
+            TestFiles.fileSystemAccess(),
+            Stub(ImmutableWorkspaceProvider)
+        )
+    }
+}
@@ -93,6 +93,32 @@ class DependencyVerifierTest extends Specification {
         0 * result.failWith(_)
     }
 
+    def "fingerprint only changes when verification metadata of the artifact changes"() {
+        def foo = DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("org", "foo"), "1.0")
+        def bar = DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("org", "bar"), "1.0")
+        def config = new DependencyVerificationConfiguration(true, false, [], true, [], [] as Set, [], null)
+        def verifierFor = { String fooChecksum, String barChecksum ->
+            new DependencyVerifier([
+                (foo): componentVerification(foo, "foo-1.0.jar", fooChecksum),
+                (bar): componentVerification(bar, "bar-1.0.jar", barChecksum)
+            ], config, [])
+        }
+        def fooArtifact = new ModuleComponentFileArtifactIdentifier(foo, "foo-1.0.jar")
+        def artifactKind = ArtifactVerificationOperation.ArtifactKind.REGULAR
+
+        expect:
+        def fingerprint = verifierFor("abc", "def").fingerprint(artifactKind, fooArtifact)
+        verifierFor("abc", "def").fingerprint(artifactKind, fooArtifact) == fingerprint
+        verifierFor("abc", "other").fingerprint(artifactKind, fooArtifact) == fingerprint
+        verifierFor("other", "def").fingerprint(artifactKind, fooArtifact) != fingerprint
+        verifierFor("abc", "def").fingerprint(artifactKind, new ModuleComponentFileArtifactIdentifier(foo, "foo-1.0-sources.jar")) != fingerprint
+        verifierFor("abc", "def").fingerprint(ArtifactVerificationOperation.ArtifactKind.METADATA, fooArtifact) != fingerprint
+    }
+
+    private static ImmutableComponentVerificationMetadata componentVerification(ModuleComponentIdentifier id, String artifactName, String checksum) {
+        new ImmutableComponentVerificationMetadata(id, [new ImmutableArtifactVerificationMetadata(artifactName, [new Checksum(ChecksumKind.sha256, checksum, [] as Set<String>, "", "")], [] as Set, [] as Set)])
+    }
+
     private void artifact(String group, String name, String version) {
         artifact = new ModuleComponentFileArtifactIdentifier(
             DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId(group, name), version),
@@ -19,6 +19,7 @@
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.StatusLine;
+import org.apache.http.client.entity.DecompressingEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.utils.HttpClientUtils;
 
@@ -65,6 +66,13 @@ public void close() {
         }
     }
 
+    /**
+     * Whether the content was sent with a content encoding, such as gzip, and is decoded while it is read.
+     */
+    boolean isContentDecoded() {
+        return httpResponse.getEntity() instanceof DecompressingEntity;
+    }
+
     String getMethod() {
         return method;
     }
@@ -24,6 +24,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -35,13 +36,22 @@ public class HttpResponseResource implements ExternalResourceReadResponse {
     private final String method;
     private final URI source;
     private final HttpClientResponse response;
+    private final HttpClientHelper resumeWith;
     private final ExternalResourceMetaData metaData;
     private boolean wasOpened;
 
     public HttpResponseResource(String method, URI source, HttpClientResponse response) {
+        this(method, source, response, null);
+    }
+
+    /**
+     * @param resumeWith the client to resume an interrupted download with, or null if downloads should not be resumed.
+     */
+    public HttpResponseResource(String method, URI source, HttpClientResponse response, @Nullable HttpClientHelper resumeWith) {
         this.method = method;
         this.source = source;
         this.response = response;
+        this.resumeWith = resumeWith;
 
         String etag = getEtag(response);
         this.metaData = new DefaultExternalResourceMetaData(source, getLastModified(), getContentLength(), getContentType(), etag, getSha1(response, etag), getFilename(), response.wasMissing());
@@ -139,6 +149,9 @@ public InputStream openStream() throws IOException {
         }
         LOGGER.debug("Attempting to download resource {}.", source);
         this.wasOpened = true;
+        if (resumeWith != null) {
+            return ResumableHttpInputStream.open(resumeWith, response);
+        }
         return response.getContent();
     }
 
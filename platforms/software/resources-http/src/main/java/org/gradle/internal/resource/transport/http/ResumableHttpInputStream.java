@@ -0,0 +1,162 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resource.transport.http;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.gradle.internal.IoActions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the content of a GET response. When the connection fails part way through, the download continues
+ * from where it stopped using a range request, instead of failing and starting again from the first byte.
+ *
+ * <p>A download is only resumed when the server advertises byte range support and the response has a validator.
+ * The validator is sent as {@code If-Range}, so the remaining bytes are guaranteed to be from the same version of the resource.
+ * When the resource has changed, the original failure is rethrown.</p>
+ *
+ * <p>Content sent with a content encoding, such as gzip, is decoded while it is read, so the number of bytes read is not an offset
+ * into what the server sent, and the download is not resumed. Range requests ask for the content without encoding.</p>
+ */
+class ResumableHttpInputStream extends InputStream {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResumableHttpInputStream.class);
+    private static final int MAX_RESUMES = 3;
+
+    private final HttpClientHelper http;
+    private final String validator;
+    private HttpClientResponse response;
+    private InputStream content;
+    private long position;
+    private int resumes;
+
+    private ResumableHttpInputStream(HttpClientHelper http, String validator, HttpClientResponse response, InputStream content) {
+        this.http = http;
+        this.validator = validator;
+        this.response = response;
+        this.content = content;
+    }
+
+    /**
+     * Returns a stream over the content of the given response, which resumes the download when possible.
+     */
+    static InputStream open(HttpClientHelper http, HttpClientResponse response) throws IOException {
+        InputStream content = response.getContent();
+        String validator = validatorOf(response);
+        if (validator == null
+            || response.getStatusLine().getStatusCode() != HttpStatus.SC_OK
+            || !"bytes".equals(response.getHeader(HttpHeaders.ACCEPT_RANGES))
+            || response.isContentDecoded()) {
+            return content;
+        }
+        return new ResumableHttpInputStream(http, validator, response, content);
+    }
+
+    /**
+     * A strong ETag or else the last modified date, which identify the version of the resource.
+     */
+    @Nullable
+    private static String validatorOf(HttpClientResponse response) {
+        String etag = response.getHeader(HttpHeaders.ETAG);
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return response.getHeader(HttpHeaders.LAST_MODIFIED);
+    }
+
+    @Override
+    public int read() throws IOException {
+        while (true) {
+            try {
+                int value = content.read();
+                if (value >= 0) {
+                    position++;
+                }
+                return value;
+            } catch (IOException e) {
+                resume(e);
+            }
+        }
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        while (true) {
+            try {
+                int count = content.read(buffer, offset, length);
+                if (count > 0) {
+                    position += count;
+                }
+                return count;
+            } catch (IOException e) {
+                resume(e);
+            }
+        }
+    }
+
+    private void resume(IOException failure) throws IOException {
+        if (resumes >= MAX_RESUMES) {
+            throw failure;
+        }
+        resumes++;
+        IoActions.closeQuietly(content);
+        response.close();
+
+        LOGGER.info("Download of {} failed after {} bytes, resuming. ({})", HttpClientHelper.stripUserCredentials(response.getEffectiveUri()), position, failure.getMessage());
+        HttpGet request = new HttpGet(response.getEffectiveUri());
+        request.addHeader(HttpHeaders.RANGE, "bytes=" + position + "-");
+        request.addHeader(HttpHeaders.IF_RANGE, validator);
+        // The position counts bytes of the unencoded content
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "identity");
+        HttpClientResponse resumed;
+        try {
+            resumed = http.performHttpRequest(request);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+            throw failure;
+        }
+        if (!continuesAt(resumed, position)) {
+            // Range not supported after all, or the resource has changed
+            resumed.close();
+            throw failure;
+        }
+        response = resumed;
+        content = resumed.getContent();
+    }
+
+    private static boolean continuesAt(HttpClientResponse response, long position) {
+        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_PARTIAL_CONTENT || response.isContentDecoded()) {
+            return false;
+        }
+        String contentRange = response.getHeader(HttpHeaders.CONTENT_RANGE);
+        return contentRange != null && contentRange.startsWith("bytes " + position + "-");
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            content.close();
+        } finally {
+            response.close();
+        }
+    }
+}
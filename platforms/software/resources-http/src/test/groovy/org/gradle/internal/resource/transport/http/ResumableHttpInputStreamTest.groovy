@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resource.transport.http
+
+import org.apache.http.ssl.SSLContexts
+import org.gradle.api.internal.DocumentationRegistry
+import org.gradle.internal.resource.ExternalResourceName
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.test.fixtures.server.http.HttpServer
+import org.junit.Rule
+import spock.lang.Specification
+
+class ResumableHttpInputStreamTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+    @Rule HttpServer httpServer = new HttpServer()
+    def client = new HttpClientHelper(new DocumentationRegistry(), httpSettings)
+    def accessor = new HttpResourceAccessor(client)
+    def file = tmpDir.file("artifact.bin")
+
+    def setup() {
+        byte[] content = new byte[256 * 1024]
+        new Random(1).nextBytes(content)
+        file.bytes = content
+        httpServer.start()
+    }
+
+    def cleanup() {
+        client.close()
+    }
+
+    def "resumes download with a range request when the connection is closed part way through"() {
+        given:
+        httpServer.expectGetInterrupted("/artifact.bin", file, 100_000, '"v1"')
+        httpServer.expectGetRange("/artifact.bin", file, '"v1"')
+
+        when:
+        def content = download()
+
+        then:
+        content == file.bytes
+    }
+
+    def "does not resume download when the response has no strong validator"() {
+        given:
+        httpServer.expectGetInterrupted("/artifact.bin", file, 100_000, 'W/"v1"')
+
+        when:
+        download()
+
+        then:
+        thrown(IOException)
+    }
+
+    def "does not resume download when the resource has changed"() {
+        given:
+        httpServer.expectGetInterrupted("/artifact.bin", file, 100_000, '"v1"')
+        httpServer.expectGetRange("/artifact.bin", file, '"v2"')
+
+        when:
+        download()
+
+        then:
+        thrown(IOException)
+    }
+
+    def "does not resume download of gzip encoded content"() {
+        given:
+        httpServer.expectGetGZippedInterrupted("/artifact.bin", file, 100_000, '"v1"')
+
+        when:
+        download()
+
+        then:
+        thrown(IOException)
+    }
+
+    private byte[] download() {
+        def resource = accessor.openResource(new ExternalResourceName(new URI("${httpServer.uri}/artifact.bin")), false)
+        try {
+            def stream = resource.openStream()
+            try {
+                return stream.bytes
+            } finally {
+                stream.close()
+            }
+        } finally {
+            resource.close()
+        }
+    }
+
+    private HttpSettings getHttpSettings() {
+        Stub(HttpSettings) {
+            getProxySettings() >> Mock(HttpProxySettings)
+            getSecureProxySettings() >> Mock(HttpProxySettings)
+            getTimeoutSettings() >> { new JavaSystemPropertiesHttpTimeoutSettings() }
+            getSslContextFactory() >> Mock(SslContextFactory) {
+                createSslContext() >> SSLContexts.createDefault()
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 plugins {
     id("gradlebuild.distribution.api-java")
     id("gradlebuild.instrumented-project")
+    id("gradlebuild.jmh")
 }
 
 description = "Public and internal 'core' Gradle APIs with implementation"
@@ -283,6 +284,8 @@ dependencies {
     testInterceptorsImplementation(platform(project(":distributions-dependencies")))
     "testInterceptorsAnnotationProcessor"(project(":internal-instrumentation-processor"))
     "testInterceptorsAnnotationProcessor"(platform(project(":distributions-dependencies")))
+
+    jmhImplementation(platform(project(":distributions-dependencies")))
 }
 
 strictCompile {
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal;
+
+import org.gradle.api.Named;
+import org.gradle.api.NamedDomainObjectProvider;
+import org.gradle.internal.reflect.DirectInstantiator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of working with a container holding many registered elements, such as the task container of a large project:
+ * realizing the elements one at a time, looking them up by name, and configuring the elements of a type which has no registered element.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class NamedDomainObjectContainerBenchmark {
+
+    @Param({"1000"})
+    int registrations;
+
+    @Benchmark
+    public void realizeRegisteredElements(Blackhole blackhole) {
+        DefaultPolymorphicDomainObjectContainer<Element> container = newContainer();
+        for (NamedDomainObjectProvider<? extends Element> provider : registerElements(container)) {
+            blackhole.consume(provider.get());
+        }
+    }
+
+    @Benchmark
+    public void lookUpRegisteredElementsByName(Blackhole blackhole) {
+        DefaultPolymorphicDomainObjectContainer<Element> container = newContainer();
+        registerElements(container);
+        for (int i = 0; i < registrations; i++) {
+            blackhole.consume(container.named(nameOf(i)));
+        }
+    }
+
+    @Benchmark
+    public void configureElementsOfUnregisteredType(Blackhole blackhole) {
+        DefaultPolymorphicDomainObjectContainer<Element> container = newContainer();
+        registerElements(container);
+        for (int i = 0; i < registrations; i++) {
+            container.withType(OtherElement.class).configureEach(blackhole::consume);
+        }
+    }
+
+    private static DefaultPolymorphicDomainObjectContainer<Element> newContainer() {
+        DefaultPolymorphicDomainObjectContainer<Element> container = new DefaultPolymorphicDomainObjectContainer<>(Element.class, DirectInstantiator.INSTANCE, CollectionCallbackActionDecorator.NOOP);
+        container.registerFactory(Element.class, Element::new);
+        container.registerFactory(OtherElement.class, OtherElement::new);
+        return container;
+    }
+
+    private List<NamedDomainObjectProvider<? extends Element>> registerElements(DefaultPolymorphicDomainObjectContainer<Element> container) {
+        List<NamedDomainObjectProvider<? extends Element>> providers = new ArrayList<>(registrations);
+        for (int i = 0; i < registrations; i++) {
+            providers.add(container.register(nameOf(i), Element.class));
+        }
+        return providers;
+    }
+
+    private static String nameOf(int index) {
+        return "element" + index;
+    }
+
+    public static class Element implements Named {
+        private final String name;
+
+        public Element(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    public static class OtherElement extends Element {
+        public OtherElement(String name) {
+            super(name);
+        }
+    }
+}
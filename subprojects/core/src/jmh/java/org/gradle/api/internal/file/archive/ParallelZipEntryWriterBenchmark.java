@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.file.archive;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing a deflated zip archive on a single thread with {@link ParallelZipEntryWriter}.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ParallelZipEntryWriterBenchmark {
+
+    @Param({"2000"})
+    int entryCount;
+
+    @Param({"4096", "262144"})
+    int entrySize;
+
+    @Param({"1", "4"})
+    int threads;
+
+    private byte[][] contents;
+    private File archive;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Random random = new Random(1234L);
+        contents = new byte[entryCount][];
+        for (int i = 0; i < entryCount; i++) {
+            // Half random, half repetitive content, so deflate has some work to do
+            byte[] content = new byte[entrySize];
+            random.nextBytes(content);
+            for (int j = entrySize / 2; j < entrySize; j++) {
+                content[j] = (byte) (j % 31);
+            }
+            contents[i] = content;
+        }
+        archive = Files.createTempFile("parallel-zip", ".zip").toFile();
+        executor = threads == 1 ? null : Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        archive.delete();
+    }
+
+    @Benchmark
+    public long writeArchive() throws IOException {
+        try (ZipArchiveOutputStream zipOutStr = new ZipArchiveOutputStream(archive)) {
+            zipOutStr.setMethod(ZipArchiveOutputStream.DEFLATED);
+            if (executor == null) {
+                for (int i = 0; i < entryCount; i++) {
+                    zipOutStr.putArchiveEntry(entry(i));
+                    zipOutStr.write(contents[i]);
+                    zipOutStr.closeArchiveEntry();
+                }
+            } else {
+                ParallelZipEntryWriter entryWriter = new ParallelZipEntryWriter(zipOutStr, executor, threads);
+                for (int i = 0; i < entryCount; i++) {
+                    entryWriter.addEntry(entry(i), new ByteArrayInputStream(contents[i]));
+                }
+                entryWriter.finish();
+            }
+        }
+        return archive.length();
+    }
+
+    private static ZipArchiveEntry entry(int index) {
+        ZipArchiveEntry entry = new ZipArchiveEntry("org/gradle/entry" + index + ".bin");
+        entry.setTime(ZipCopyAction.CONSTANT_TIME_FOR_ZIP_ENTRIES);
+        return entry;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.internal.hash;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares computing the SHA-256 and SHA-512 checksums of the files of a repository, as done when writing
+ * dependency verification metadata with {@code --write-verification-metadata sha256,sha512},
+ * with one pass over each file per checksum and with a single pass over each file for both checksums.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ChecksumHasherBenchmark {
+    private static final List<HashFunction> HASH_FUNCTIONS = ImmutableList.of(Hashing.sha256(), Hashing.sha512());
+
+    @Param({"500"})
+    int fileCount;
+
+    @Param({"16384", "1048576"})
+    int fileSize;
+
+    private File repository;
+    private File[] files;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Random random = new Random(1234L);
+        repository = Files.createTempDirectory("checksum-repository").toFile();
+        files = new File[fileCount];
+        byte[] content = new byte[fileSize];
+        for (int i = 0; i < fileCount; i++) {
+            random.nextBytes(content);
+            files[i] = new File(repository, "artifact-" + i + ".jar");
+            Files.write(files[i].toPath(), content);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (File file : files) {
+            file.delete();
+        }
+        repository.delete();
+    }
+
+    @Benchmark
+    public void onePassPerChecksum(Blackhole blackhole) {
+        for (File file : files) {
+            for (HashFunction hashFunction : HASH_FUNCTIONS) {
+                blackhole.consume(new ChecksumHasher(hashFunction).hash(file));
+            }
+        }
+    }
+
+    @Benchmark
+    public void singlePassForAllChecksums(Blackhole blackhole) {
+        for (File file : files) {
+            blackhole.consume(ChecksumHasher.hash(file, HASH_FUNCTIONS));
+        }
+    }
+}
@@ -657,6 +657,14 @@ public void removePending(String name) {
 
         @Override
         public void removePending(ProviderInternal<? extends T> provider) {
+            if (provider instanceof Named) {
+                // Look the provider up by name rather than searching all pending providers
+                String name = ((Named) provider).getName();
+                if (provider.equals(pendingMap.get(name))) {
+                    pendingMap.remove(name);
+                }
+                return;
+            }
             pendingMap.values().remove(provider);
         }
 
@@ -30,6 +30,7 @@
 import org.gradle.internal.serialize.HashCodeSerializer;
 import org.gradle.internal.serialize.InterningStringSerializer;
 
+import javax.annotation.Nullable;
 import java.io.File;
 
 public class CachingFileHasher implements FileHasher {
@@ -82,7 +83,33 @@ private FileInfo snapshot(File file) {
     }
 
     private FileInfo snapshot(File file, long length, long timestamp) {
-        String absolutePath = file.getAbsolutePath();
+        FileInfo info = getCachedInfo(file.getAbsolutePath(), length, timestamp);
+        if (info != null) {
+            return info;
+        }
+
+        HashCode hash = delegate.hash(file);
+        return record(file, hash, length, timestamp);
+    }
+
+    /**
+     * Returns the cached hash of the given file, when the file has not changed since it has been hashed.
+     */
+    @Nullable
+    public HashCode getCachedHash(File file, long length, long lastModified) {
+        FileInfo info = getCachedInfo(file.getAbsolutePath(), length, lastModified);
+        return info == null ? null : info.getHash();
+    }
+
+    /**
+     * Records the hash of the given file, which has been calculated elsewhere with the same hash function as this hasher.
+     */
+    public void recordHash(File file, HashCode hash, long length, long lastModified) {
+        record(file, hash, length, lastModified);
+    }
+
+    @Nullable
+    private FileInfo getCachedInfo(String absolutePath, long length, long timestamp) {
         if (timestampInspector.timestampCanBeUsedToDetectFileChange(absolutePath, timestamp)) {
             FileInfo info = cache.getIfPresent(absolutePath);
 
@@ -90,10 +117,12 @@ private FileInfo snapshot(File file, long length, long timestamp) {
                 return info;
             }
         }
+        return null;
+    }
 
-        HashCode hash = delegate.hash(file);
+    private FileInfo record(File file, HashCode hash, long length, long timestamp) {
         FileInfo info = new FileInfo(hash, length, timestamp);
-        cache.put(stringInterner.intern(absolutePath), info);
+        cache.put(stringInterner.intern(file.getAbsolutePath()), info);
         statisticsCollector.reportFileHashed(length);
         return info;
     }
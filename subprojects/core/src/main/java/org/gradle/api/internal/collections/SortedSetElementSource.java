@@ -16,8 +16,9 @@
 
 package org.gradle.api.internal.collections;
 
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
 import org.gradle.api.Action;
 import org.gradle.api.internal.DefaultMutationGuard;
 import org.gradle.api.internal.MutationGuard;
@@ -27,19 +28,23 @@
 import org.gradle.api.internal.provider.ProviderInternal;
 import org.gradle.internal.Cast;
 
-import java.util.ArrayList;
+import javax.annotation.Nullable;
+
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.TreeSet;
 
 public class SortedSetElementSource<T> implements ElementSource<T> {
     private final TreeSet<T> values;
-    private final Set<Collectors.TypedCollector<T>> pending = new LinkedHashSet<>();
+    // Pending collectors keyed by their provider, so that a provider realized elsewhere can be removed without searching
+    private final Map<ProviderInternal<?>, Collectors.TypedCollector<T>> pending = new LinkedHashMap<>();
+    // The declared types of the pending collectors, so that realizing pending elements of a type which has none is cheap
+    private final Multiset<Class<?>> pendingTypes = HashMultiset.create();
     private Action<T> addRealizedAction;
     private EventSubscriptionVerifier<T> subscriptionVerifier = type -> false;
     private final MutationGuard mutationGuard = new DefaultMutationGuard();
@@ -61,7 +66,7 @@ public boolean constantTimeIsEmpty() {
     @Override
     public int size() {
         int pendingSize = 0;
-        for (Collectors.TypedCollector<T> collector : pending) {
+        for (Collectors.TypedCollector<T> collector : pending.values()) {
             pendingSize += collector.size();
         }
 
@@ -70,7 +75,8 @@ public int size() {
 
     @Override
     public int estimatedSize() {
-        return size();
+        // Count each pending provider once, rather than asking collection providers for their size
+        return values.size() + pending.size();
     }
 
     @Override
@@ -109,33 +115,47 @@ public boolean remove(Object o) {
     @Override
     public void clear() {
         pending.clear();
+        pendingTypes.clear();
         values.clear();
     }
 
     @Override
     public void realizePending() {
         if (!pending.isEmpty()) {
-            List<Collectors.TypedCollector<T>> copied = Lists.newArrayList(pending);
-            realize(copied);
+            realize(new LinkedHashMap<>(pending));
         }
     }
 
     @Override
     public void realizePending(Class<?> type) {
-        if (!pending.isEmpty()) {
-            List<Collectors.TypedCollector<T>> copied = new ArrayList<>();
-            for (Collectors.TypedCollector<T> collector : pending) {
-                if (collector.getType() == null || type.isAssignableFrom(collector.getType())) {
-                    copied.add(collector);
+        if (!pending.isEmpty() && hasPendingOfType(type)) {
+            Map<ProviderInternal<?>, Collectors.TypedCollector<T>> copied = new LinkedHashMap<>();
+            for (Map.Entry<ProviderInternal<?>, Collectors.TypedCollector<T>> entry : pending.entrySet()) {
+                if (isOfType(entry.getValue().getType(), type)) {
+                    copied.put(entry.getKey(), entry.getValue());
                 }
             }
             realize(copied);
         }
     }
 
-    private void realize(Iterable<Collectors.TypedCollector<T>> collectors) {
-        for (Collectors.TypedCollector<T> collector : collectors) {
-            pending.remove(collector);
+    private boolean hasPendingOfType(Class<?> type) {
+        for (Class<?> pendingType : pendingTypes.elementSet()) {
+            if (isOfType(pendingType, type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOfType(@Nullable Class<?> pendingType, Class<?> type) {
+        return pendingType == null || type.isAssignableFrom(pendingType);
+    }
+
+    private void realize(Map<ProviderInternal<?>, Collectors.TypedCollector<T>> collectors) {
+        for (Map.Entry<ProviderInternal<?>, Collectors.TypedCollector<T>> entry : collectors.entrySet()) {
+            removeByProvider(entry.getKey());
+            Collectors.TypedCollector<T> collector = entry.getValue();
             ImmutableList.Builder<T> builder = ImmutableList.builder();
             // Collect elements discarding potential side effects aggregated in the returned value
             collector.collectInto(builder);
@@ -157,22 +177,22 @@ public boolean addPending(final ProviderInternal<? extends T> provider) {
         if (provider instanceof ChangingValue) {
             Cast.<ChangingValue<T>>uncheckedNonnullCast(provider).onValueChange(previousValue -> {
                 values.remove(previousValue);
-                pending.add(collectorFromProvider(provider));
+                addToPending(provider, collectorFromProvider(provider));
             });
         }
         Collectors.TypedCollector<T> collector = collectorFromProvider(provider);
 
-        boolean added = pending.add(collector);
+        boolean added = addToPending(provider, collector);
         // TODO: We likely want to also immediately realize ChangingValue providers in the
         //  onValueChange callback above.
         if (subscriptionVerifier.isSubscribed(provider.getType())) {
-            realize(Collections.singleton(collector));
+            realize(Collections.singletonMap(provider, collector));
 
             // Ugly backwards-compatibility hack. Previous implementations would notify listeners without
             // actually telling the ElementSource that the element was realized.
             // We can avoid this in the future if we make ChangingValue more widespread -- particularly
             // if we make CollectionProviders implement ChangingValue
-            pending.add(collector);
+            addToPending(provider, collector);
         }
         return added;
     }
@@ -186,16 +206,21 @@ public boolean removePending(ProviderInternal<? extends T> provider) {
         return removeByProvider(provider);
     }
 
+    private boolean addToPending(ProviderInternal<?> provider, Collectors.TypedCollector<T> collector) {
+        if (pending.putIfAbsent(provider, collector) != null) {
+            return false;
+        }
+        pendingTypes.add(collector.getType());
+        return true;
+    }
+
     private boolean removeByProvider(ProviderInternal<?> provider) {
-        Iterator<Collectors.TypedCollector<T>> iterator = pending.iterator();
-        while (iterator.hasNext()) {
-            Collectors.TypedCollector<T> collector = iterator.next();
-            if (collector.isProvidedBy(provider)) {
-                iterator.remove();
-                return true;
-            }
+        Collectors.TypedCollector<T> collector = pending.remove(provider);
+        if (collector == null) {
+            return false;
         }
-        return false;
+        pendingTypes.remove(collector.getType());
+        return true;
     }
 
     @Override
@@ -205,22 +230,22 @@ public boolean addPendingCollection(final CollectionProviderInternal<T, ? extend
                 for (T value : previousValues) {
                     values.remove(value);
                 }
-                pending.add(collectorFromCollectionProvider(provider));
+                addToPending(provider, collectorFromCollectionProvider(provider));
             });
         }
         Collectors.TypedCollector<T> collector = collectorFromCollectionProvider(provider);
 
-        boolean added = pending.add(collector);
+        boolean added = addToPending(provider, collector);
         // TODO: We likely want to also immediately realize ChangingValue providers in the
         //  onValueChange callback above.
         if (subscriptionVerifier.isSubscribed(provider.getElementType())) {
-            realize(Collections.singleton(collector));
+            realize(Collections.singletonMap(provider, collector));
 
             // Ugly backwards-compatibility hack. Previous implementations would notify listeners without
             // actually telling the ElementSource that the element was realized.
             // We can avoid this in the future if we make ChangingValue more widespread -- particularly
             // if we make CollectionProviders implement ChangingValue
-            pending.add(collector);
+            addToPending(provider, collector);
         }
         return added;
     }
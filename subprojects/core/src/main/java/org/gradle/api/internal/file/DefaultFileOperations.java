@@ -67,6 +67,8 @@
 import java.io.IOException;
 import java.net.URI;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.gradle.api.internal.lambdas.SerializableLambdas.transformer;
 
@@ -196,6 +198,11 @@ public void close() throws IOException {
             public void exclusiveAccessTo(File expandedDir, Runnable action) {
                 action.run();
             }
+
+            @Override
+            public void exclusiveAccessOnDemandTo(Supplier<File> expandedDir, Consumer<Runnable> action) {
+                action.accept(() -> {});
+            }
         };
 
         return new FileTreeAdapter(new ZipFileTree(fileProvider, fileSystem, directoryFileTreeFactory, fileHasher, nonLockingCache, temporaryFileProvider), taskDependencyFactory, patternSetFactory);
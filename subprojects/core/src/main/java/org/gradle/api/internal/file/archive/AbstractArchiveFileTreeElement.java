@@ -26,15 +26,18 @@
 
 import java.io.File;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * An implementation of {@link org.gradle.api.file.FileTreeElement FileTreeElement} meant
  * for use with archive files when subclassing {@link org.gradle.api.internal.file.AbstractFileTree AbstractFileTree}.
  * <p>
- * This implementation extracts the files from the archive to the supplied expansion directory.
+ * The content of the element is streamed from the archive. Only when {@link #getFile()} is called, the file is extracted
+ * from the archive to the supplied expansion directory, after acquiring exclusive access to that directory for the rest of the visit.
  */
 public abstract class AbstractArchiveFileTreeElement extends AbstractFileTreeElement implements FileVisitDetails {
-    private final File expandedDir;
+    private final Supplier<File> expandedDir;
+    private final Runnable exclusiveAccess;
     private File file;
     private final AtomicBoolean stopFlag;
 
@@ -42,12 +45,14 @@ public abstract class AbstractArchiveFileTreeElement extends AbstractFileTreeEle
      * Creates a new instance.
      *
      * @param chmod the chmod instance to use
-     * @param expandedDir the directory to extract the archived file to
+     * @param expandedDir supplies the directory to extract the archived file to, only queried when the file is extracted
+     * @param exclusiveAccess acquires exclusive access to the expanded directory for the rest of the visit, see {@link DecompressionCoordinator#exclusiveAccessOnDemandTo}
      * @param stopFlag the stop flag to use
      */
-    protected AbstractArchiveFileTreeElement(Chmod chmod, File expandedDir, AtomicBoolean stopFlag) {
+    protected AbstractArchiveFileTreeElement(Chmod chmod, Supplier<File> expandedDir, Runnable exclusiveAccess, AtomicBoolean stopFlag) {
         super(chmod);
         this.expandedDir = expandedDir;
+        this.exclusiveAccess = exclusiveAccess;
         this.stopFlag = stopFlag;
     }
 
@@ -78,11 +83,13 @@ protected String safeEntryName() {
     @Override
     public File getFile() {
         if (file == null) {
-            file = new File(expandedDir, safeEntryName());
-            if (!file.exists()) {
-                GFileUtils.mkdirs(file.getParentFile());
-                copyTo(file);
+            File entryFile = new File(expandedDir.get(), safeEntryName());
+            exclusiveAccess.run();
+            if (!entryFile.exists()) {
+                GFileUtils.mkdirs(entryFile.getParentFile());
+                copyTo(entryFile);
             }
+            file = entryFile;
         }
         return file;
     }
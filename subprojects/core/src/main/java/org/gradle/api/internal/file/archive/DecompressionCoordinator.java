@@ -18,6 +18,8 @@
 
 import java.io.Closeable;
 import java.io.File;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * A coordinator that can be used to manage access to decompressed data extracted from archive files like zip and tars.
@@ -46,4 +48,16 @@ public interface DecompressionCoordinator extends Closeable {
      * @param action The action to run while the cache is held for the given key
      */
     void exclusiveAccessTo(File expandedDir, Runnable action);
+
+    /**
+     * Runs the given action, which asks for exclusive access to the given expanded directory only when it needs it.
+     * <p>
+     * The action is given a {@link Runnable} which it runs before it uses the expanded directory. Exclusive access is acquired the first time
+     * the {@link Runnable} is run, and is then held until the action completes. This way, a visit of an archive which extracts many entries
+     * acquires exclusive access once, and the extracted files cannot be written by others while the visit uses them.
+     *
+     * @param expandedDir Supplies the directory in use for the action, only queried when exclusive access is first asked for
+     * @param action The action to run
+     */
+    void exclusiveAccessOnDemandTo(Supplier<File> expandedDir, Consumer<Runnable> action);
 }
@@ -19,10 +19,14 @@
 import com.google.common.annotations.VisibleForTesting;
 import org.gradle.cache.FileLockManager;
 import org.gradle.cache.PersistentCache;
-import org.gradle.cache.internal.ProducerGuard;
 import org.gradle.cache.scopes.ScopedCacheBuilderFactory;
+import org.gradle.internal.UncheckedException;
 
 import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * The default implementation of {@link DecompressionCoordinator} that can be used to store decompressed data extracted from archive files like zip and tars.
@@ -33,7 +37,7 @@ public class DefaultDecompressionCoordinator implements DecompressionCoordinator
     private static final String EXPANSION_CACHE_KEY = "expanded";
     private static final String EXPANSION_CACHE_NAME = "Compressed Files Expansion Cache";
     private final PersistentCache cache;
-    private final ProducerGuard<File> guard = ProducerGuard.adaptive();
+    private final Map<File, Thread> owners = new HashMap<>();
 
     public DefaultDecompressionCoordinator(ScopedCacheBuilderFactory cacheBuilderFactory) {
         this.cache = cacheBuilderFactory.createCacheBuilder(EXPANSION_CACHE_KEY)
@@ -52,14 +56,92 @@ public void exclusiveAccessTo(File expandedDir, Runnable action) {
         // withFileLock prevents other processes from extracting into the expandedDir at the same time
         // but multiple threads in this process could still try to extract into the same directory.
         cache.withFileLock(() -> {
-            // guardByKey prevents multiple threads in this process from extracting into the same directory at the same time.
-            guard.guardByKey(expandedDir, () -> {
+            // the owners prevent multiple threads in this process from extracting into the same directory at the same time.
+            boolean acquired = acquire(expandedDir);
+            try {
                 action.run();
-                return null;
-            });
+            } finally {
+                if (acquired) {
+                    release(expandedDir);
+                }
+            }
         });
     }
 
+    @Override
+    public void exclusiveAccessOnDemandTo(Supplier<File> expandedDir, Consumer<Runnable> action) {
+        // The file lock is held for the whole action, which is cheap as the cache is locked on demand, so that files extracted early in the action
+        // are not written by other processes while the action still uses them.
+        cache.withFileLock(() -> {
+            OnDemandAccess access = new OnDemandAccess(expandedDir);
+            try {
+                action.accept(access);
+            } finally {
+                access.release();
+            }
+        });
+    }
+
+    /**
+     * Gives the current thread exclusive access to the directory, waiting for other threads to release it.
+     *
+     * @return whether access was acquired by this call, false when the current thread already has exclusive access.
+     */
+    private boolean acquire(File expandedDir) {
+        Thread currentThread = Thread.currentThread();
+        synchronized (owners) {
+            Thread owner = owners.get(expandedDir);
+            if (owner == currentThread) {
+                return false;
+            }
+            while (owner != null) {
+                try {
+                    owners.wait();
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+                owner = owners.get(expandedDir);
+            }
+            owners.put(expandedDir, currentThread);
+            return true;
+        }
+    }
+
+    private void release(File expandedDir) {
+        synchronized (owners) {
+            owners.remove(expandedDir);
+            owners.notifyAll();
+        }
+    }
+
+    private class OnDemandAccess implements Runnable {
+        private final Supplier<File> expandedDir;
+        private File acquiredDir;
+        private boolean requested;
+
+        OnDemandAccess(Supplier<File> expandedDir) {
+            this.expandedDir = expandedDir;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (!requested) {
+                requested = true;
+                File dir = expandedDir.get();
+                if (acquire(dir)) {
+                    acquiredDir = dir;
+                }
+            }
+        }
+
+        synchronized void release() {
+            if (acquiredDir != null) {
+                DefaultDecompressionCoordinator.this.release(acquiredDir);
+                acquiredDir = null;
+            }
+        }
+    }
+
     @Override
     public void close() {
         cache.close();
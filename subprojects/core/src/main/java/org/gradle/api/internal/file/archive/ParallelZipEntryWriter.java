@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive;
+
+import com.google.common.io.ByteStreams;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.io.IoConsumer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes entries to a {@link ZipArchiveOutputStream}, deflating the content of the entries concurrently.
+ *
+ * <p>The content of each file is read on the calling thread, deflated on the given executor and then written
+ * as a raw entry to the archive. Entries are written in the order they have been added, so the resulting archive
+ * is the same as when writing the entries one after the other.</p>
+ *
+ * <p>Files larger than {@link #MAX_BUFFERED_ENTRY_SIZE} are not buffered in memory, but streamed to the archive
+ * on the calling thread once all previously added entries have been written.</p>
+ */
+public class ParallelZipEntryWriter {
+    static final int MAX_BUFFERED_ENTRY_SIZE = 8 * 1024 * 1024;
+    private static final long MAX_PENDING_BYTES = 64 * 1024 * 1024;
+
+    private final ZipArchiveOutputStream zipOutStr;
+    private final Executor executor;
+    private final int maxPendingEntries;
+    private final Deque<PendingEntry> pendingEntries = new ArrayDeque<>();
+    private final byte[] readBuffer = new byte[64 * 1024];
+    private long pendingBytes;
+
+    public ParallelZipEntryWriter(ZipArchiveOutputStream zipOutStr, Executor executor, int parallelism) {
+        this.zipOutStr = zipOutStr;
+        this.executor = executor;
+        this.maxPendingEntries = parallelism * 4;
+    }
+
+    /**
+     * Adds an entry without content, like a directory.
+     */
+    public void addEmptyEntry(ZipArchiveEntry archiveEntry) throws IOException {
+        enqueue(new PendingEntry(0, CompletableFuture.completedFuture(zipOutStr -> {
+            zipOutStr.putArchiveEntry(archiveEntry);
+            zipOutStr.closeArchiveEntry();
+        })));
+    }
+
+    /**
+     * Adds an entry with the given content. The content is read before this method returns.
+     */
+    public void addEntry(ZipArchiveEntry archiveEntry, InputStream content) throws IOException {
+        ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+        int length = 0;
+        int read;
+        while ((read = content.read(readBuffer)) != -1) {
+            buffered.write(readBuffer, 0, read);
+            length += read;
+            if (length > MAX_BUFFERED_ENTRY_SIZE) {
+                // Too large to keep in memory, stream it to the archive once all previous entries have been written
+                writePendingEntries();
+                zipOutStr.putArchiveEntry(archiveEntry);
+                buffered.writeTo(zipOutStr);
+                ByteStreams.copy(content, zipOutStr);
+                zipOutStr.closeArchiveEntry();
+                return;
+            }
+        }
+        byte[] bytes = buffered.toByteArray();
+        enqueue(new PendingEntry(bytes.length, CompletableFuture.supplyAsync(() -> deflate(archiveEntry, bytes), executor)));
+    }
+
+    /**
+     * Writes all remaining entries to the archive.
+     */
+    public void finish() throws IOException {
+        writePendingEntries();
+    }
+
+    private void enqueue(PendingEntry entry) throws IOException {
+        pendingEntries.addLast(entry);
+        pendingBytes += entry.size;
+        writeCompletedEntries();
+        while (pendingEntries.size() > maxPendingEntries || pendingBytes > MAX_PENDING_BYTES) {
+            writeNextEntry();
+        }
+    }
+
+    private void writeCompletedEntries() throws IOException {
+        while (!pendingEntries.isEmpty() && pendingEntries.peekFirst().writer.isDone()) {
+            writeNextEntry();
+        }
+    }
+
+    private void writePendingEntries() throws IOException {
+        while (!pendingEntries.isEmpty()) {
+            writeNextEntry();
+        }
+    }
+
+    private void writeNextEntry() throws IOException {
+        PendingEntry entry = pendingEntries.removeFirst();
+        pendingBytes -= entry.size;
+        IoConsumer<ZipArchiveOutputStream> writer;
+        try {
+            writer = entry.writer.join();
+        } catch (CompletionException e) {
+            throw UncheckedException.throwAsUncheckedException(e.getCause());
+        }
+        writer.accept(zipOutStr);
+    }
+
+    private static IoConsumer<ZipArchiveOutputStream> deflate(ZipArchiveEntry archiveEntry, byte[] content) {
+        int length = content.length;
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, length);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(length / 2, 64));
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(content, 0, length);
+            deflater.finish();
+            byte[] buffer = new byte[Math.min(Math.max(length, 512), 64 * 1024)];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                compressed.write(buffer, 0, count);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        archiveEntry.setMethod(ZipArchiveEntry.DEFLATED);
+        archiveEntry.setSize(length);
+        archiveEntry.setCompressedSize(compressed.size());
+        archiveEntry.setCrc(crc.getValue());
+        return zipOutStr -> zipOutStr.addRawArchiveEntry(archiveEntry, new ByteArrayInputStream(compressed.toByteArray()));
+    }
+
+    private static class PendingEntry {
+        final long size;
+        final CompletableFuture<IoConsumer<ZipArchiveOutputStream>> writer;
+
+        PendingEntry(long size, CompletableFuture<IoConsumer<ZipArchiveOutputStream>> writer) {
+            this.size = size;
+            this.writer = writer;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.gradle.api.internal.file.archive;
 
+import com.google.common.base.Suppliers;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.utils.IOUtils;
@@ -41,6 +42,7 @@
 import java.io.InputStream;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import static java.lang.String.format;
 
@@ -92,8 +94,10 @@ public void visit(FileVisitor visitor) {
             throw new InvalidUserDataException(format("Cannot expand %s as it is not a file.", getDisplayName()));
         }
 
-        File expandedDir = getExpandedDir();
-        decompressionCoordinator.exclusiveAccessTo(expandedDir, () -> {
+        // Entries are streamed from the tar file, and only extracted when a visitor asks for the file
+        Supplier<File> expandedDir = Suppliers.memoize(this::getExpandedDir);
+        // Exclusive access to the expanded directory is acquired by the first extracted entry, and held for the rest of the visit
+        decompressionCoordinator.exclusiveAccessOnDemandTo(expandedDir, exclusiveAccess -> {
             InputStream inputStream;
             try {
                 inputStream = new BufferedInputStream(resource.get().read());
@@ -104,7 +108,7 @@ public void visit(FileVisitor visitor) {
             try {
                 try {
                     Objects.requireNonNull(visitor);
-                    visitImpl(visitor, expandedDir, inputStream);
+                    visitImpl(visitor, expandedDir, exclusiveAccess, inputStream);
                 } finally {
                     inputStream.close();
                 }
@@ -120,7 +124,7 @@ public void visit(FileVisitor visitor) {
         });
     }
 
-    private void visitImpl(FileVisitor visitor, File expandedDir, InputStream inputStream) throws IOException {
+    private void visitImpl(FileVisitor visitor, Supplier<File> expandedDir, Runnable exclusiveAccess, InputStream inputStream) throws IOException {
         checkFormat(inputStream);
 
         AtomicBoolean stopFlag = new AtomicBoolean();
@@ -129,9 +133,9 @@ private void visitImpl(FileVisitor visitor, File expandedDir, InputStream inputS
         TarArchiveEntry entry;
         while (!stopFlag.get() && (entry = tar.getNextEntry()) != null) {
             if (entry.isDirectory()) {
-                visitor.visitDir(new DetailsImpl(resource, expandedDir, entry, tar, stopFlag, chmod));
+                visitor.visitDir(new DetailsImpl(resource, expandedDir, exclusiveAccess, entry, tar, stopFlag, chmod));
             } else {
-                visitor.visitFile(new DetailsImpl(resource, expandedDir, entry, tar, stopFlag, chmod));
+                visitor.visitFile(new DetailsImpl(resource, expandedDir, exclusiveAccess, entry, tar, stopFlag, chmod));
             }
         }
     }
@@ -205,8 +209,8 @@ private static final class DetailsImpl extends AbstractArchiveFileTreeElement {
         private final ReadableResourceInternal resource;
         private boolean read;
 
-        public DetailsImpl(ReadableResourceInternal resource, File expandedDir, TarArchiveEntry entry, NoCloseTarArchiveInputStream tar, AtomicBoolean stopFlag, Chmod chmod) {
-            super(chmod, expandedDir, stopFlag);
+        public DetailsImpl(ReadableResourceInternal resource, Supplier<File> expandedDir, Runnable exclusiveAccess, TarArchiveEntry entry, NoCloseTarArchiveInputStream tar, AtomicBoolean stopFlag, Chmod chmod) {
+            super(chmod, expandedDir, exclusiveAccess, stopFlag);
             this.resource = resource;
             this.entry = entry;
             this.tar = tar;
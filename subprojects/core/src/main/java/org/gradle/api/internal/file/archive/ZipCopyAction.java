@@ -31,8 +31,12 @@
 import org.gradle.api.tasks.WorkResults;
 import org.gradle.api.tasks.bundling.Zip;
 import org.gradle.internal.IoActions;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.io.InputStream;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 
@@ -59,13 +63,29 @@ public class ZipCopyAction implements CopyAction {
     private final DocumentationRegistry documentationRegistry;
     private final String encoding;
     private final boolean preserveFileTimestamps;
+    private final ExecutorFactory compressionExecutorFactory;
+    private final int maxCompressionThreads;
 
     public ZipCopyAction(File zipFile, ZipCompressor compressor, DocumentationRegistry documentationRegistry, String encoding, boolean preserveFileTimestamps) {
+        this(zipFile, compressor, documentationRegistry, encoding, preserveFileTimestamps, null, 1);
+    }
+
+    /**
+     * Creates an action which deflates the entries of the archive on up to {@code maxCompressionThreads} threads, when a {@code compressionExecutorFactory} is given.
+     *
+     * <p>The entries are deflated on a single thread when the compressor allows zip64. With zip64, the archive stream writes different local headers
+     * for streamed entries and for pre-compressed entries, so the archive would not be the same as when compressing sequentially.</p>
+     *
+     * <p>Entries of a compressor that stores them without compression are always written on a single thread, as there is nothing to deflate.</p>
+     */
+    public ZipCopyAction(File zipFile, ZipCompressor compressor, DocumentationRegistry documentationRegistry, String encoding, boolean preserveFileTimestamps, @Nullable ExecutorFactory compressionExecutorFactory, int maxCompressionThreads) {
         this.zipFile = zipFile;
         this.compressor = compressor;
         this.documentationRegistry = documentationRegistry;
         this.encoding = encoding;
         this.preserveFileTimestamps = preserveFileTimestamps;
+        this.compressionExecutorFactory = compressionExecutorFactory;
+        this.maxCompressionThreads = maxCompressionThreads;
     }
 
     @Override
@@ -80,7 +100,11 @@ public WorkResult execute(final CopyActionProcessingStream stream) {
 
         try {
             IoActions.withResource(zipOutStr, outputStream -> {
-                stream.process(new StreamAction(outputStream, encoding));
+                if (compressionExecutorFactory == null || compressor.isZip64Allowed() || compressor.getEntryCompressionMethod() != ZipArchiveOutputStream.DEFLATED) {
+                    stream.process(new StreamAction(outputStream, encoding, null));
+                } else {
+                    processWithParallelCompression(stream, outputStream, compressionExecutorFactory);
+                }
             });
         } catch (Exception e) {
             if (e.getCause() instanceof Zip64RequiredException) {
@@ -95,11 +119,29 @@ public WorkResult execute(final CopyActionProcessingStream stream) {
         return WorkResults.didWork(true);
     }
 
+    private void processWithParallelCompression(CopyActionProcessingStream stream, ZipArchiveOutputStream zipOutStr, ExecutorFactory executorFactory) {
+        int parallelism = Math.max(1, maxCompressionThreads);
+        ManagedExecutor executor = executorFactory.create("zip compression", parallelism);
+        try {
+            ParallelZipEntryWriter entryWriter = new ParallelZipEntryWriter(zipOutStr, executor, parallelism);
+            stream.process(new StreamAction(zipOutStr, encoding, entryWriter));
+            try {
+                entryWriter.finish();
+            } catch (Exception e) {
+                throw new GradleException(String.format("Could not add entries to ZIP '%s'.", zipFile), e);
+            }
+        } finally {
+            executor.stop();
+        }
+    }
+
     private class StreamAction implements CopyActionProcessingStreamAction {
         private final ZipArchiveOutputStream zipOutStr;
+        private final ParallelZipEntryWriter entryWriter;
 
-        public StreamAction(ZipArchiveOutputStream zipOutStr, String encoding) {
+        public StreamAction(ZipArchiveOutputStream zipOutStr, String encoding, @Nullable ParallelZipEntryWriter entryWriter) {
             this.zipOutStr = zipOutStr;
+            this.entryWriter = entryWriter;
             if (encoding != null) {
                 this.zipOutStr.setEncoding(encoding);
             }
@@ -119,6 +161,12 @@ private void visitFile(FileCopyDetails fileDetails) {
                 ZipArchiveEntry archiveEntry = new ZipArchiveEntry(fileDetails.getRelativePath().getPathString());
                 archiveEntry.setTime(getArchiveTimeFor(fileDetails));
                 archiveEntry.setUnixMode(UnixStat.FILE_FLAG | fileDetails.getPermissions().toUnixNumeric());
+                if (entryWriter != null) {
+                    try (InputStream content = fileDetails.open()) {
+                        entryWriter.addEntry(archiveEntry, content);
+                    }
+                    return;
+                }
                 zipOutStr.putArchiveEntry(archiveEntry);
                 fileDetails.copyTo(zipOutStr);
                 zipOutStr.closeArchiveEntry();
@@ -133,6 +181,10 @@ private void visitDir(FileCopyDetails dirDetails) {
                 ZipArchiveEntry archiveEntry = new ZipArchiveEntry(dirDetails.getRelativePath().getPathString() + '/');
                 archiveEntry.setTime(getArchiveTimeFor(dirDetails));
                 archiveEntry.setUnixMode(UnixStat.DIR_FLAG | dirDetails.getPermissions().toUnixNumeric());
+                if (entryWriter != null) {
+                    entryWriter.addEmptyEntry(archiveEntry);
+                    return;
+                }
                 zipOutStr.putArchiveEntry(archiveEntry);
                 zipOutStr.closeArchiveEntry();
             } catch (Exception e) {
@@ -15,6 +15,7 @@
  */
 package org.gradle.api.internal.file.archive;
 
+import com.google.common.base.Suppliers;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.gradle.api.GradleException;
@@ -38,6 +39,7 @@
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import static java.lang.String.format;
 
@@ -91,16 +93,18 @@ public void visit(FileVisitor visitor) {
             throw new InvalidUserDataException(format("Cannot expand %s as it is not a file.", getDisplayName()));
         }
 
-        File expandedDir = getExpandedDir();
-        decompressionCoordinator.exclusiveAccessTo(expandedDir, () -> {
-            AtomicBoolean stopFlag = new AtomicBoolean();
+        // Entries are streamed from the zip file, and only extracted when a visitor asks for the file
+        Supplier<File> expandedDir = Suppliers.memoize(this::getExpandedDir);
+        AtomicBoolean stopFlag = new AtomicBoolean();
+        // Exclusive access to the expanded directory is acquired by the first extracted entry, and held for the rest of the visit
+        decompressionCoordinator.exclusiveAccessOnDemandTo(expandedDir, exclusiveAccess -> {
             try (ZipFile zip = ZipFile.builder().setFile(zipFile).get()) {
                 // The iteration order of zip.getEntries() is based on the hash of the zip entry. This isn't much use
                 // to us. So, collect the entries in a map and iterate over them in alphabetical order.
                 Iterator<ZipArchiveEntry> sortedEntries = entriesSortedByName(zip);
                 while (!stopFlag.get() && sortedEntries.hasNext()) {
                     ZipArchiveEntry entry = sortedEntries.next();
-                    DetailsImpl details = new DetailsImpl(zipFile, expandedDir, entry, zip, stopFlag, chmod);
+                    DetailsImpl details = new DetailsImpl(zipFile, expandedDir, exclusiveAccess, entry, zip, stopFlag, chmod);
                     if (entry.isDirectory()) {
                         visitor.visitDir(details);
                     } else {
@@ -141,8 +145,8 @@ private static final class DetailsImpl extends AbstractArchiveFileTreeElement {
         private final ZipArchiveEntry entry;
         private final ZipFile zip;
 
-        public DetailsImpl(File originalFile, File expandedDir, ZipArchiveEntry entry, ZipFile zip, AtomicBoolean stopFlag, Chmod chmod) {
-            super(chmod, expandedDir, stopFlag);
+        public DetailsImpl(File originalFile, Supplier<File> expandedDir, Runnable exclusiveAccess, ZipArchiveEntry entry, ZipFile zip, AtomicBoolean stopFlag, Chmod chmod) {
+            super(chmod, expandedDir, exclusiveAccess, stopFlag);
             this.originalFile = originalFile;
             this.entry = entry;
             this.zip = zip;
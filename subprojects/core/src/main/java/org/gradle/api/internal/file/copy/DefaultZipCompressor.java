@@ -46,4 +46,13 @@ public ZipArchiveOutputStream createArchiveOutputStream(File destination) throws
         }
     }
 
+    @Override
+    public boolean isZip64Allowed() {
+        return zip64Mode != Zip64Mode.Never;
+    }
+
+    @Override
+    public int getEntryCompressionMethod() {
+        return entryCompressionMethod;
+    }
 }
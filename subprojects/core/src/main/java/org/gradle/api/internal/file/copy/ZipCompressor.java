@@ -26,4 +26,14 @@ public interface ZipCompressor extends ArchiveOutputStreamFactory {
     @Override
     ZipArchiveOutputStream createArchiveOutputStream(File destination) throws IOException;
 
+    /**
+     * Returns whether the created streams may use the zip64 extensions.
+     */
+    boolean isZip64Allowed();
+
+    /**
+     * Returns the compression method of the entries written to the created streams, either {@link ZipArchiveOutputStream#DEFLATED} or {@link ZipArchiveOutputStream#STORED}.
+     */
+    int getEntryCompressionMethod();
+
 }
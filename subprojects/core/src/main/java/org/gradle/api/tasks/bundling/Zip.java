@@ -16,15 +16,19 @@
 package org.gradle.api.tasks.bundling;
 
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.gradle.api.Incubating;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.internal.DocumentationRegistry;
 import org.gradle.api.internal.file.archive.ZipCopyAction;
 import org.gradle.api.internal.file.copy.CopyAction;
 import org.gradle.api.internal.file.copy.DefaultZipCompressor;
 import org.gradle.api.internal.file.copy.ZipCompressor;
+import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.WorkerLimits;
 import org.gradle.work.DisableCachingByDefault;
 
 import javax.annotation.Nullable;
@@ -45,6 +49,7 @@ public abstract class Zip extends AbstractArchiveTask {
     public Zip() {
         getArchiveExtension().set(ZIP_EXTENSION);
         allowZip64 = false;
+        getParallelCompression().convention(false);
     }
 
     @Internal
@@ -62,9 +67,31 @@ protected ZipCompressor getCompressor() {
     @Override
     protected CopyAction createCopyAction() {
         DocumentationRegistry documentationRegistry = getServices().get(DocumentationRegistry.class);
+        if (entryCompression == ZipEntryCompression.DEFLATED && !allowZip64 && getParallelCompression().get()) {
+            ExecutorFactory executorFactory = getServices().get(ExecutorFactory.class);
+            int maxWorkerCount = getServices().get(WorkerLimits.class).getMaxWorkerCount();
+            return new ZipCopyAction(getArchiveFile().get().getAsFile(), getCompressor(), documentationRegistry, metadataCharset, isPreserveFileTimestamps(), executorFactory, maxWorkerCount);
+        }
         return new ZipCopyAction(getArchiveFile().get().getAsFile(), getCompressor(), documentationRegistry, metadataCharset, isPreserveFileTimestamps());
     }
 
+    /**
+     * Whether the entries of the archive are compressed on multiple threads.
+     * <p>
+     * The entries are still written to the archive in the same order, so the archive is the same as when compressing on a single thread.
+     * This is most useful for large archives with many entries, for example fat jars or distributions.
+     * The number of threads is limited by the maximum number of workers of the build.
+     * Has no effect when the {@link #getEntryCompression() entry compression} is {@link ZipEntryCompression#STORED}
+     * or when the {@link #isZip64() zip64 extension} is enabled.
+     * <p>
+     * Defaults to {@code false}.
+     *
+     * @since 8.9
+     */
+    @Incubating
+    @Internal("Does not change the content of the archive")
+    public abstract Property<Boolean> getParallelCompression();
+
     /**
      * Returns the compression level of the entries of the archive. If set to {@link ZipEntryCompression#DEFLATED} (the default), each entry is
      * compressed using the DEFLATE algorithm. If set to {@link ZipEntryCompression#STORED} the entries of the archive are left uncompressed.
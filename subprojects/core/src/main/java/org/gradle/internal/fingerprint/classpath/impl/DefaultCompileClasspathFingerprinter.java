@@ -26,6 +26,8 @@
 import org.gradle.internal.fingerprint.classpath.CompileClasspathFingerprinter;
 import org.gradle.internal.fingerprint.impl.AbstractFileCollectionFingerprinter;
 
+import java.util.concurrent.Executor;
+
 public class DefaultCompileClasspathFingerprinter extends AbstractFileCollectionFingerprinter implements CompileClasspathFingerprinter {
     public DefaultCompileClasspathFingerprinter(ResourceSnapshotterCacheService cacheService, FileCollectionSnapshotter fileCollectionSnapshotter, StringInterner stringInterner) {
         super(ClasspathFingerprintingStrategy.compileClasspath(
@@ -35,6 +37,15 @@ public DefaultCompileClasspathFingerprinter(ResourceSnapshotterCacheService cach
         ), fileCollectionSnapshotter);
     }
 
+    public DefaultCompileClasspathFingerprinter(ResourceSnapshotterCacheService cacheService, FileCollectionSnapshotter fileCollectionSnapshotter, StringInterner stringInterner, Executor zipEntryHashingExecutor) {
+        super(ClasspathFingerprintingStrategy.compileClasspath(
+            new CachingResourceHasher(AbiExtractingClasspathResourceHasher.DEFAULT, cacheService),
+            cacheService,
+            stringInterner,
+            zipEntryHashingExecutor
+        ), fileCollectionSnapshotter);
+    }
+
     @Override
     public FileNormalizer getNormalizer() {
         return InputNormalizer.COMPILE_CLASSPATH;
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.fingerprint.classpath.impl;
+
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.WorkerLimits;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+
+import java.io.Closeable;
+import java.util.concurrent.Executor;
+
+/**
+ * Executes the normalization of individual jar entries when fingerprinting compile classpaths.
+ *
+ * Extracting the ABI of a class is CPU bound, so hashing the classes of a large jar which is not yet
+ * in the resource hash cache benefits from using multiple cores.
+ * The number of threads is bounded by the {@link WorkerLimits maximum number of workers} of the build session,
+ * so {@code --max-workers} also caps this.
+ */
+@ServiceScope(Scope.BuildSession.class)
+public class ZipEntryHashingExecutor implements Executor, Closeable {
+    private final ManagedExecutor executor;
+
+    public ZipEntryHashingExecutor(ExecutorFactory executorFactory, WorkerLimits workerLimits) {
+        this.executor = executorFactory.create("zip entry hashing", workerLimits.getMaxWorkerCount());
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    @Override
+    public void close() {
+        executor.stop();
+    }
+}
@@ -21,6 +21,9 @@
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 class ChecksumHasher implements FileHasher {
 
@@ -32,16 +35,32 @@ public ChecksumHasher(HashFunction hashFunction) {
 
     @Override
     public HashCode hash(File file) {
+        return hash(file, Collections.singletonList(hashFunction)).get(0);
+    }
+
+    /**
+     * Hashes the file with each of the given hash functions, reading the content of the file only once.
+     */
+    static List<HashCode> hash(File file, List<HashFunction> hashFunctions) {
         try {
-            PrimitiveHasher hasher = hashFunction.newPrimitiveHasher();
+            List<PrimitiveHasher> hashers = new ArrayList<>(hashFunctions.size());
+            for (HashFunction hashFunction : hashFunctions) {
+                hashers.add(hashFunction.newPrimitiveHasher());
+            }
             byte[] buffer = new byte[4096];
             int len;
             try (InputStream in = new FileInputStream(file)) {
                 while ((len = in.read(buffer)) >= 0) {
-                    hasher.putBytes(buffer, 0, len);
+                    for (PrimitiveHasher hasher : hashers) {
+                        hasher.putBytes(buffer, 0, len);
+                    }
                 }
             }
-            return hasher.hash();
+            List<HashCode> hashes = new ArrayList<>(hashers.size());
+            for (PrimitiveHasher hasher : hashers) {
+                hashes.add(hasher.hash());
+            }
+            return hashes;
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
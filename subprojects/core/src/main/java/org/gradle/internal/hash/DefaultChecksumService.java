@@ -20,15 +20,22 @@
 import org.gradle.api.internal.changedetection.state.CrossBuildFileHashCache;
 import org.gradle.api.internal.changedetection.state.FileHasherStatistics;
 import org.gradle.api.internal.changedetection.state.FileTimeStampInspector;
+import org.gradle.internal.file.FileMetadata;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class DefaultChecksumService implements ChecksumService {
     private final CachingFileHasher md5;
     private final CachingFileHasher sha1;
     private final CachingFileHasher sha256;
     private final CachingFileHasher sha512;
+    private final FileSystem fileSystem;
 
     public DefaultChecksumService(
         StringInterner stringInterner,
@@ -37,6 +44,7 @@ public DefaultChecksumService(
         FileTimeStampInspector fileTimeStampInspector,
         FileHasherStatistics.Collector statisticsCollector
     ) {
+        this.fileSystem = fileSystem;
         md5 = createCache(stringInterner, fileStore, fileSystem, fileTimeStampInspector, "md5", Hashing.md5(), statisticsCollector);
         sha1 = createCache(stringInterner, fileStore, fileSystem, fileTimeStampInspector, "sha1", Hashing.sha1(), statisticsCollector);
         sha256 = createCache(stringInterner, fileStore, fileSystem, fileTimeStampInspector, "sha256", Hashing.sha256(), statisticsCollector);
@@ -77,18 +85,72 @@ public HashCode sha512(File file) {
 
     @Override
     public HashCode hash(File src, String algorithm) {
+        return doHash(src, hasherFor(algorithm));
+    }
+
+    @Override
+    public Map<String, HashCode> hash(File src, Collection<String> algorithms) {
+        FileMetadata metadata = fileSystem.stat(src);
+        long length = metadata.getLength();
+        long lastModified = metadata.getLastModified();
+
+        Map<String, HashCode> hashes = new LinkedHashMap<>();
+        List<String> missingAlgorithms = new ArrayList<>();
+        List<HashFunction> missingHashFunctions = new ArrayList<>();
+        for (String algorithm : algorithms) {
+            HashCode hash = hasherFor(algorithm).getCachedHash(src, length, lastModified);
+            if (hash != null) {
+                hashes.put(algorithm, hash);
+            } else if (!missingAlgorithms.contains(algorithm)) {
+                missingAlgorithms.add(algorithm);
+                missingHashFunctions.add(hashFunctionFor(algorithm));
+            }
+        }
+        if (missingAlgorithms.isEmpty()) {
+            return hashes;
+        }
+
+        // Read the file once for all the hashes that are not cached yet
+        List<HashCode> computed = ChecksumHasher.hash(src, missingHashFunctions);
+        for (int i = 0; i < missingAlgorithms.size(); i++) {
+            String algorithm = missingAlgorithms.get(i);
+            HashCode hash = computed.get(i);
+            hasherFor(algorithm).recordHash(src, hash, length, lastModified);
+            hashes.put(algorithm, hash);
+        }
+        return hashes;
+    }
+
+    private CachingFileHasher hasherFor(String algorithm) {
+        switch (algorithm.toLowerCase()) {
+            case "md5":
+                return md5;
+            case "sha1":
+            case "sha-1":
+                return sha1;
+            case "sha256":
+            case "sha-256":
+                return sha256;
+            case "sha512":
+            case "sha-512":
+                return sha512;
+        }
+        throw new UnsupportedOperationException("Cannot hash with algorith " + algorithm);
+    }
+
+    private static HashFunction hashFunctionFor(String algorithm) {
         switch (algorithm.toLowerCase()) {
             case "md5":
-                return md5(src);
+                return Hashing.md5();
             case "sha1":
             case "sha-1":
-                return sha1(src);
+                return Hashing.sha1();
             case "sha256":
             case "sha-256":
-                return sha256(src);
+                return Hashing.sha256();
             case "sha512":
             case "sha-512":
-                return sha512(src);
+                return Hashing.sha512();
         }
         throw new UnsupportedOperationException("Cannot hash with algorith " + algorithm);
     }
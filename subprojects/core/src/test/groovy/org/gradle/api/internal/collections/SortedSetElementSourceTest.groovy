@@ -231,6 +231,77 @@ class SortedSetElementSourceTest extends ElementSourceSpec {
         source.iterator().collect() == []
     }
 
+    def "does not realize pending elements when none has a given type"() {
+        given:
+        _ * provider1.getType() >> SomeOtherType.class
+        _ * provider2.getType() >> SomeOtherType.class
+
+        when:
+        source.addPending(provider1)
+        source.addPending(provider2)
+        source.realizePending(SomeType.class)
+
+        then:
+        0 * provider1.calculateValue(_)
+        0 * provider2.calculateValue(_)
+        source.iteratorNoFlush().collect() == []
+        source.size() == 2
+    }
+
+    def "realizes pending elements with a given type once others are removed"() {
+        given:
+        _ * provider1.getType() >> SomeType.class
+        _ * provider2.getType() >> SomeOtherType.class
+
+        when:
+        source.addPending(provider1)
+        source.addPending(provider2)
+        source.removePending(provider1)
+        source.realizePending(SomeType.class)
+
+        then:
+        source.iteratorNoFlush().collect() == []
+
+        when:
+        source.realizePending(SomeOtherType.class)
+
+        then:
+        source.iteratorNoFlush().collect() == ["provider2"]
+    }
+
+    def "does not add the same pending provider twice"() {
+        when:
+        def added1 = source.addPending(provider1)
+        def added2 = source.addPending(provider1)
+
+        then:
+        added1
+        !added2
+        source.size() == 1
+
+        when:
+        source.realizeExternal(provider1)
+
+        then:
+        source.isEmpty()
+    }
+
+    def "estimates size from realized and pending elements"() {
+        when:
+        source.add("foo")
+        source.addPending(provider1)
+        source.addPending(provider2)
+
+        then:
+        source.estimatedSize() == 3
+
+        when:
+        source.removePending(provider2)
+
+        then:
+        source.estimatedSize() == 2
+    }
+
     class BaseType {}
     class SomeType extends BaseType {}
     class SomeOtherType extends BaseType {}
@@ -17,6 +17,8 @@
 package org.gradle.api.internal.file.archive;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.gradle.api.file.EmptyFileVisitor;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.FileVisitor;
 import org.gradle.test.fixtures.file.TestFile;
@@ -26,8 +28,12 @@
 import org.junit.Test;
 import spock.lang.Issue;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -41,6 +47,7 @@
 import static org.gradle.api.file.FileVisitorUtil.assertVisits;
 import static org.gradle.api.tasks.AntBuilderAwareUtil.assertSetContainsForAllTypes;
 import static org.gradle.util.internal.WrapUtil.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -119,10 +126,10 @@ public List<Long> call() {
         List<Future<List<Long>>> results = executorService.invokeAll(callables);
 
         // And check that each visitor counted the complete number of lines in each file in the archive
-        // (i.e. that the archive was not visited by the second visitor before the first visitor had finished fully decompressing it)
+        // (i.e. that no visitor read a file before another visitor had finished fully extracting it)
         results.forEach(f -> {
             try {
-                f.get().forEach(result -> assertEquals("Files should only be read after full expansion when all lines are present", numLines, result));
+                f.get().forEach(result -> assertEquals("Files should only be read after full extraction when all lines are present", numLines, result));
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
@@ -142,6 +149,45 @@ public void doesNotOverwriteFilesOnSecondVisit() {
         contentFile.assertHasNotChangedSince(snapshot);
     }
 
+    @Test
+    public void readsContentWithoutExpandingArchive() {
+        rootDir.file("subdir/file1.txt").write("content");
+        archiveFileToRoot(getArchiveFile());
+        TestFile expansionDir = tempDirProvider.getTestDirectory().file(".cache/expanded");
+
+        List<String> contents = new ArrayList<>();
+        getTree().visit(new EmptyFileVisitor() {
+            @Override
+            public void visitFile(FileVisitDetails fileDetails) {
+                try (InputStream inputStream = fileDetails.open()) {
+                    contents.add(IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+
+        assertEquals(toList("content"), contents);
+        expansionDir.assertDoesNotExist();
+    }
+
+    @Test
+    public void expandsFileWhenRequested() {
+        rootDir.file("subdir/file1.txt").write("content");
+        archiveFileToRoot(getArchiveFile());
+
+        List<File> files = new ArrayList<>();
+        getTree().visit(new EmptyFileVisitor() {
+            @Override
+            public void visitFile(FileVisitDetails fileDetails) {
+                files.add(fileDetails.getFile());
+            }
+        });
+
+        assertEquals(1, files.size());
+        new TestFile(files.get(0)).assertContents(equalTo("content"));
+    }
+
     @Test
     public void visitsContentsOfArchiveFile() {
         rootDir.file("subdir/file1.txt").write("content");
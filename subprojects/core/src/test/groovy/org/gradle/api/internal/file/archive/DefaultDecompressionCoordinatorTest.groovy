@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.file.archive
+
+import org.gradle.cache.PersistentCache
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+import org.gradle.testfixtures.internal.TestInMemoryCacheFactory
+
+class DefaultDecompressionCoordinatorTest extends ConcurrentSpec {
+    def expandedDir = new File("expanded")
+
+    def "acquires the file lock once for a visit which extracts many entries"() {
+        def cache = Mock(PersistentCache)
+        def coordinator = new DefaultDecompressionCoordinator(cache)
+        def queried = 0
+
+        when:
+        coordinator.exclusiveAccessOnDemandTo({ queried++; expandedDir }) { exclusiveAccess ->
+            3.times { exclusiveAccess.run() }
+        }
+
+        then:
+        1 * cache.withFileLock(_ as Runnable) >> { Runnable action -> action.run() }
+        0 * cache._
+        queried == 1
+    }
+
+    def "does not query the expanded directory when a visit does not extract anything"() {
+        def coordinator = new DefaultDecompressionCoordinator(new TestInMemoryCacheFactory().open(new File("cache"), "test"))
+        def queried = 0
+
+        when:
+        coordinator.exclusiveAccessOnDemandTo({ queried++; expandedDir }) {}
+
+        then:
+        queried == 0
+    }
+
+    def "holds exclusive access to the expanded directory until the visit completes"() {
+        def coordinator = new DefaultDecompressionCoordinator(new TestInMemoryCacheFactory().open(new File("cache"), "test"))
+
+        when:
+        async {
+            start {
+                coordinator.exclusiveAccessOnDemandTo({ expandedDir }) { exclusiveAccess ->
+                    exclusiveAccess.run()
+                    instant.acquired
+                    thread.block()
+                    instant.visitCompleted
+                }
+            }
+            start {
+                thread.blockUntil.acquired
+                coordinator.exclusiveAccessTo(expandedDir) {
+                    instant.extracted
+                }
+            }
+        }
+
+        then:
+        instant.extracted > instant.visitCompleted
+    }
+
+    def "allows nested access to the expanded directory from the visiting thread"() {
+        def coordinator = new DefaultDecompressionCoordinator(new TestInMemoryCacheFactory().open(new File("cache"), "test"))
+        def extracted = false
+
+        when:
+        coordinator.exclusiveAccessOnDemandTo({ expandedDir }) { exclusiveAccess ->
+            exclusiveAccess.run()
+            coordinator.exclusiveAccessTo(expandedDir) {
+                extracted = true
+            }
+        }
+
+        then:
+        extracted
+    }
+}
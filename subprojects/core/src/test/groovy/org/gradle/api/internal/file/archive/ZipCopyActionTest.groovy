@@ -25,6 +25,8 @@ import org.gradle.api.internal.file.copy.CopyActionProcessingStream
 import org.gradle.api.internal.file.copy.DefaultZipCompressor
 import org.gradle.api.internal.file.copy.FileCopyDetailsInternal
 import org.gradle.api.tasks.bundling.Zip
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.test.fixtures.archive.ZipTestFixture
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
@@ -74,6 +76,90 @@ class ZipCopyActionTest extends Specification {
         expandDir.file("file2").assertContents(equalTo("contents of file2"))
     }
 
+    void parallelCompressionCreatesSameZipFileAsSequentialCompression() {
+        given:
+        def entries = [dir("dir"), file("dir/file1"), file("file2"), dir("other"), file("other/file3")] as FileCopyDetailsInternal[]
+        def executorFactory = new DefaultExecutorFactory()
+        def sequentialZipFile = tmpDir.getTestDirectory().file("sequential.zip")
+        def parallelZipFile = tmpDir.getTestDirectory().file("parallel.zip")
+
+        when:
+        visitor = new ZipCopyAction(sequentialZipFile, new DefaultZipCompressor(zip64, ZipArchiveOutputStream.DEFLATED), new DocumentationRegistry(), encoding, false)
+        zip(entries)
+        visitor = new ZipCopyAction(parallelZipFile, new DefaultZipCompressor(zip64, ZipArchiveOutputStream.DEFLATED), new DocumentationRegistry(), encoding, false, executorFactory, 4)
+        zip(entries)
+
+        then:
+        parallelZipFile.bytes == sequentialZipFile.bytes
+
+        cleanup:
+        executorFactory.stop()
+
+        where:
+        zip64 << [false, true]
+    }
+
+    void parallelCompressionCreatesSameZipFileAsSequentialCompressionForLargeEntries() {
+        given:
+        // Larger than the buffers used to read and deflate an entry
+        def entries = [file("small"), largeFile("incompressible", 200 * 1024, 0), largeFile("mixed", 300 * 1024, 100 * 1024), largeFile("compressible", 0, 500 * 1024)] as FileCopyDetailsInternal[]
+        def executorFactory = new DefaultExecutorFactory()
+        def sequentialZipFile = tmpDir.getTestDirectory().file("sequential.zip")
+        def parallelZipFile = tmpDir.getTestDirectory().file("parallel.zip")
+
+        when:
+        visitor = new ZipCopyAction(sequentialZipFile, new DefaultZipCompressor(false, ZipArchiveOutputStream.DEFLATED), new DocumentationRegistry(), encoding, false)
+        zip(entries)
+        visitor = new ZipCopyAction(parallelZipFile, new DefaultZipCompressor(false, ZipArchiveOutputStream.DEFLATED), new DocumentationRegistry(), encoding, false, executorFactory, 4)
+        zip(entries)
+
+        then:
+        parallelZipFile.bytes == sequentialZipFile.bytes
+
+        cleanup:
+        executorFactory.stop()
+    }
+
+    void doesNotCompressInParallelWhenEntriesAreStored() {
+        given:
+        def entries = [dir("dir"), file("dir/file1"), largeFile("dir/large", 100 * 1024, 100 * 1024), file("file2")] as FileCopyDetailsInternal[]
+        def executorFactory = Mock(ExecutorFactory)
+        def sequentialZipFile = tmpDir.getTestDirectory().file("sequential.zip")
+        def parallelZipFile = tmpDir.getTestDirectory().file("parallel.zip")
+
+        when:
+        visitor = new ZipCopyAction(sequentialZipFile, new DefaultZipCompressor(false, ZipArchiveOutputStream.STORED), new DocumentationRegistry(), encoding, false)
+        zip(entries)
+        visitor = new ZipCopyAction(parallelZipFile, new DefaultZipCompressor(false, ZipArchiveOutputStream.STORED), new DocumentationRegistry(), encoding, false, executorFactory, 4)
+        zip(entries)
+
+        then:
+        0 * executorFactory._
+
+        and:
+        parallelZipFile.bytes == sequentialZipFile.bytes
+    }
+
+    void doesNotCompressInParallelWhenZip64IsAllowed() {
+        given:
+        def executorFactory = Mock(ExecutorFactory)
+
+        when:
+        visitor = new ZipCopyAction(zipFile, new DefaultZipCompressor(true, ZipArchiveOutputStream.DEFLATED), new DocumentationRegistry(), encoding, false, executorFactory, 4)
+        zip(dir("dir"), file("dir/file1"), file("file2"))
+
+        then:
+        0 * executorFactory._
+
+        when:
+        TestFile expandDir = tmpDir.getTestDirectory().file("expanded")
+        zipFile.unzipTo(expandDir)
+
+        then:
+        expandDir.file("dir/file1").assertContents(equalTo("contents of dir/file1"))
+        expandDir.file("file2").assertContents(equalTo("contents of file2"))
+    }
+
     void zipFileContainsExpectedPermissions() {
         given:
         zip(dir("dir"), file("file"))
@@ -162,6 +248,23 @@ class ZipCopyActionTest extends Specification {
         mock.copyTo(_ as OutputStream) >> { OutputStream out ->
             out << "contents of $path"
         }
+        mock.open() >> { new ByteArrayInputStream("contents of $path".bytes) }
+        mock
+    }
+
+    private FileCopyDetailsInternal largeFile(final String path, int randomBytes, int repeatedBytes) {
+        byte[] contents = new byte[randomBytes + repeatedBytes]
+        new Random(path.hashCode()).nextBytes(contents)
+        Arrays.fill(contents, randomBytes, contents.length, (byte) 'a')
+        def mock = Mock(FileCopyDetailsInternal)
+        mock.getRelativePath() >> RelativePath.parse(false, path)
+        mock.getLastModified() >> 1000L
+        mock.isDirectory() >> false
+        mock.getPermissions() >> new DefaultFilePermissions(1)
+        mock.copyTo(_ as OutputStream) >> { OutputStream out ->
+            out.write(contents)
+        }
+        mock.open() >> { new ByteArrayInputStream(contents) }
         mock
     }
 
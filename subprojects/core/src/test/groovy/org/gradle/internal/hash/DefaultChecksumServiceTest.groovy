@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.internal.hash
+
+import org.gradle.api.internal.cache.StringInterner
+import org.gradle.api.internal.changedetection.state.CrossBuildFileHashCache
+import org.gradle.api.internal.changedetection.state.FileHasherStatistics
+import org.gradle.api.internal.changedetection.state.FileTimeStampInspector
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.cache.IndexedCache
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class DefaultChecksumServiceTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+    def cacheAccess = Mock(CrossBuildFileHashCache)
+    def timeStampInspector = Stub(FileTimeStampInspector) {
+        timestampCanBeUsedToDetectFileChange(_, _) >> true
+    }
+    def statisticsCollector = Mock(FileHasherStatistics.Collector)
+    def file = tmpDir.createFile("testfile")
+    DefaultChecksumService checksumService
+
+    def setup() {
+        file.write("some-content")
+        cacheAccess.createIndexedCache(_, _, _) >> { inMemoryCache() }
+        checksumService = new DefaultChecksumService(new StringInterner(), cacheAccess, TestFiles.fileSystem(), timeStampInspector, statisticsCollector)
+    }
+
+    def "computes multiple checksums of a file in one go"() {
+        when:
+        def result = checksumService.hash(file, ["SHA-256", "SHA-512", "MD5"])
+
+        then:
+        result == [
+            "SHA-256": Hashing.sha256().hashBytes(file.bytes),
+            "SHA-512": Hashing.sha512().hashBytes(file.bytes),
+            "MD5": Hashing.md5().hashBytes(file.bytes)
+        ]
+        3 * statisticsCollector.reportFileHashed(file.length())
+    }
+
+    def "checksums computed together are cached for each algorithm"() {
+        when:
+        checksumService.hash(file, ["SHA-256", "SHA-512"])
+
+        then:
+        2 * statisticsCollector.reportFileHashed(file.length())
+
+        when:
+        def sha256 = checksumService.sha256(file)
+        def sha512 = checksumService.hash(file, "sha512")
+        def both = checksumService.hash(file, ["sha256", "SHA-512"])
+
+        then:
+        sha256 == Hashing.sha256().hashBytes(file.bytes)
+        sha512 == Hashing.sha512().hashBytes(file.bytes)
+        both == [sha256: sha256, "SHA-512": sha512]
+        0 * statisticsCollector.reportFileHashed(_)
+    }
+
+    def "only computes checksums that are not cached yet"() {
+        given:
+        checksumService.sha1(file)
+
+        when:
+        def result = checksumService.hash(file, ["SHA1", "SHA-256"])
+
+        then:
+        result == [
+            "SHA1": Hashing.sha1().hashBytes(file.bytes),
+            "SHA-256": Hashing.sha256().hashBytes(file.bytes)
+        ]
+        1 * statisticsCollector.reportFileHashed(file.length())
+    }
+
+    def "recomputes checksums when file changes"() {
+        given:
+        checksumService.hash(file, ["SHA-256", "SHA-512"])
+
+        when:
+        file.write("some-other-content")
+        def result = checksumService.hash(file, ["SHA-256", "SHA-512"])
+
+        then:
+        result == [
+            "SHA-256": Hashing.sha256().hashBytes(file.bytes),
+            "SHA-512": Hashing.sha512().hashBytes(file.bytes)
+        ]
+        2 * statisticsCollector.reportFileHashed(file.length())
+    }
+
+    private IndexedCache inMemoryCache() {
+        Map<Object, Object> entries = [:]
+        return [
+            getIfPresent: { key -> entries.get(key) },
+            put: { key, value -> entries.put(key, value) }
+        ] as IndexedCache
+    }
+}
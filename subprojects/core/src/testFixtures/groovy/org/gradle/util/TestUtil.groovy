@@ -188,6 +188,11 @@ class TestUtil {
                             def algo = algorithm.toLowerCase().replaceAll('-', '')
                             Hashing."$algo"().hashBytes(src.bytes)
                         }
+
+                        @Override
+                        Map<String, HashCode> hash(File src, Collection<String> algorithms) {
+                            algorithms.collectEntries { [it, hash(src, it)] }
+                        }
                     }
                 }
             })
@@ -442,6 +442,73 @@ class HttpServer extends ServerWithExpectations implements HttpServerFixture {
         })
     }
 
+    /**
+     * Expects one GET request for the given URL, advertising byte range support. The connection is closed after sending the given number of bytes of the content.
+     */
+    void expectGetInterrupted(String path, File srcFile, int bytesToSend, String etag) {
+        expect(path, false, ['GET'], new ActionSupport("return the first $bytesToSend bytes of $srcFile.name and close the connection") {
+            void handle(HttpServletRequest request, HttpServletResponse response) {
+                def content = srcFile.bytes
+                response.setHeader(HttpHeader.ACCEPT_RANGES.asString(), "bytes")
+                response.setHeader(HttpHeader.ETAG.asString(), etag)
+                response.setContentLength(content.length)
+                response.outputStream.write(content, 0, bytesToSend)
+                response.outputStream.flush()
+                ((Request) request).httpChannel.abort(new IOException("Connection closed by server"))
+            }
+        })
+    }
+
+    /**
+     * Expects one GET request for the given URL, responding with gzipped content and advertising byte range support. The connection is closed after sending the given number of bytes of the gzipped content.
+     */
+    void expectGetGZippedInterrupted(String path, File srcFile, int bytesToSend, String etag) {
+        expect(path, false, ['GET'], new ActionSupport("return the first $bytesToSend bytes of gzipped $srcFile.name and close the connection") {
+            void handle(HttpServletRequest request, HttpServletResponse response) {
+                def gzipped = new ByteArrayOutputStream()
+                def stream = new GZIPOutputStream(gzipped)
+                stream.write(srcFile.bytes)
+                stream.close()
+                def content = gzipped.toByteArray()
+                response.setHeader("Content-Encoding", "gzip")
+                response.setHeader(HttpHeader.ACCEPT_RANGES.asString(), "bytes")
+                response.setHeader(HttpHeader.ETAG.asString(), etag)
+                response.setContentLength(content.length)
+                response.outputStream.write(content, 0, bytesToSend)
+                response.outputStream.flush()
+                ((Request) request).httpChannel.abort(new IOException("Connection closed by server"))
+            }
+        })
+    }
+
+    /**
+     * Expects one GET request for a byte range of the given URL. Responds with the requested range when the If-Range header matches the given etag, and with the whole content otherwise.
+     */
+    void expectGetRange(String path, File srcFile, String etag) {
+        expect(path, false, ['GET'], new ActionSupport("return the requested range of $srcFile.name") {
+            void handle(HttpServletRequest request, HttpServletResponse response) {
+                def content = srcFile.bytes
+                def range = request.getHeader(HttpHeader.RANGE.asString())
+                response.setHeader(HttpHeader.ACCEPT_RANGES.asString(), "bytes")
+                response.setHeader(HttpHeader.ETAG.asString(), etag)
+                if (range == null || request.getHeader(HttpHeader.IF_RANGE.asString()) != etag) {
+                    response.setContentLength(content.length)
+                    response.outputStream << content
+                    return
+                }
+                def matcher = range =~ /bytes=(\d+)-/
+                assert matcher.matches()
+                // The range must be of the unencoded content
+                assert request.getHeader(HttpHeader.ACCEPT_ENCODING.asString()) == "identity"
+                int start = matcher.group(1) as int
+                response.status = HttpStatus.PARTIAL_CONTENT_206
+                response.setHeader(HttpHeader.CONTENT_RANGE.asString(), "bytes $start-${content.length - 1}/$content.length")
+                response.setContentLength(content.length - start)
+                response.outputStream.write(content, start, content.length - start)
+            }
+        })
+    }
+
     /**
      * Expects one GET request for the given URL, responding with a redirect.
      */